@@ -0,0 +1,65 @@
+#!/usr/bin/env bash
+# Measures startup time and resident memory of the service in each available launch mode:
+#   jvm       plain executable jar
+#   jvm-aot   Spring AOT initializers on the JVM (-Dspring.aot.enabled=true)
+#   jvm-cds   Spring AOT plus an AppCDS archive from a training run
+#   native    GraalVM native image (only if target/encrypt exists, see "mvn -Pnative native:compile")
+#
+# Usage: scripts/startup-benchmark.sh [runs]   (run from the project root; builds with -Pnative first)
+set -euo pipefail
+
+RUNS=${1:-5}
+read -r -a MAVEN_ARGS <<< "${MAVEN_EXTRA_ARGS:-}"
+EXTRACTED=target/extracted
+
+./mvnw -B -q -Pnative -DskipTests package "${MAVEN_ARGS[@]}"
+JAR=$(ls target/encrypt-*.jar | grep -v plain | head -1)
+
+rm -rf "$EXTRACTED"
+java -Djarmode=tools -jar "$JAR" extract --destination "$EXTRACTED" > /dev/null
+APP_JAR="$EXTRACTED/$(basename "$JAR")"
+
+# Training run: start the context, then exit right after refresh while dumping the loaded classes
+java -XX:ArchiveClassesAtExit="$EXTRACTED/app.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+  -jar "$APP_JAR" --server.port=0 > /dev/null 2>&1
+
+# Starts the given command, waits for the startup log line, then prints "<seconds> <rss MiB>"
+measure() {
+  local log
+  log=$(mktemp)
+  "$@" --server.port=0 --spring.main.banner-mode=off > "$log" 2>&1 &
+  local pid=$!
+  for _ in $(seq 1 600); do
+    if grep -q "Started EncryptApplication" "$log"; then
+      break
+    fi
+    sleep 0.1
+  done
+  local seconds rss
+  seconds=$(grep -o "process running for [0-9.]*" "$log" | awk '{print $4}')
+  rss=$(awk '/VmRSS/ {printf "%.0f", $2 / 1024}' "/proc/$pid/status")
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+  rm -f "$log"
+  echo "$seconds $rss"
+}
+
+report() {
+  local mode=$1
+  shift
+  local results=()
+  for _ in $(seq 1 "$RUNS"); do
+    results+=("$(measure "$@")")
+  done
+  printf '%s\n' "${results[@]}" | sort -n | awk -v mode="$mode" -v runs="$RUNS" \
+    'NR == int((runs + 1) / 2) {printf "%-8s startup %6.3f s   rss %5d MiB   (median of %d)\n", mode, $1, $2, runs}'
+}
+
+report jvm java -jar "$APP_JAR"
+report jvm-aot java -Dspring.aot.enabled=true -jar "$APP_JAR"
+report jvm-cds java -XX:SharedArchiveFile="$EXTRACTED/app.jsa" -Dspring.aot.enabled=true -jar "$APP_JAR"
+if [[ -x target/encrypt ]]; then
+  report native target/encrypt
+else
+  echo "native   skipped: build it with ./mvnw -Pnative native:compile (requires GraalVM)"
+fi
@@ -1,13 +1,22 @@
 package dev.jaderss.encrypt;
 
+import dev.jaderss.encrypt.cli.CliMode;
+import dev.jaderss.encrypt.cli.CliModeListener;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class EncryptApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(EncryptApplication.class, args);
+        SpringApplication application = new SpringApplication(EncryptApplication.class);
+        application.addListeners(new CliModeListener());
+        ConfigurableApplicationContext context = application.run(args);
+        if (CliMode.isRequested(context.getEnvironment())) {
+            // The job ran without a web server; exit with its status
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
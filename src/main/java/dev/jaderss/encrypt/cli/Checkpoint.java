@@ -0,0 +1,54 @@
+package dev.jaderss.encrypt.cli;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Progress of a line-oriented job: how many records are done and how far into the input and output files
+ * they reach. The input size is recorded so that a checkpoint is not applied to a different input.
+ */
+public record Checkpoint(long inputSize, long records, long inputBytes, long outputBytes) {
+
+    public static Optional<Checkpoint> load(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            properties.load(reader);
+        }
+        try {
+            return Optional.of(new Checkpoint(
+                    Long.parseLong(properties.getProperty("input-size")),
+                    Long.parseLong(properties.getProperty("records")),
+                    Long.parseLong(properties.getProperty("input-bytes")),
+                    Long.parseLong(properties.getProperty("output-bytes"))));
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt checkpoint file " + file, e);
+        }
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file and renames it over {@code file}, so a crash mid-write leaves
+     * the previous checkpoint intact.
+     */
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("input-size", Long.toString(inputSize));
+        properties.setProperty("records", Long.toString(records));
+        properties.setProperty("input-bytes", Long.toString(inputBytes));
+        properties.setProperty("output-bytes", Long.toString(outputBytes));
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.ISO_8859_1)) {
+            properties.store(writer, null);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,65 @@
+package dev.jaderss.encrypt.cli;
+
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The one-shot commands selected by {@value #PROPERTY}. Values are matched ignoring case and surrounding
+ * whitespace; any other non-blank value is rejected at startup instead of starting an application that has
+ * nothing to run.
+ */
+public enum CliMode {
+
+    ENCRYPT("encrypt"),
+    DECRYPT("decrypt"),
+    REENCRYPT("reencrypt"),
+    CSV_ENCRYPT("csv-encrypt"),
+    CSV_DECRYPT("csv-decrypt");
+
+    public static final String PROPERTY = "encrypt.cli.mode";
+
+    private final String value;
+
+    CliMode(String value) {
+        this.value = value;
+    }
+
+    public String value() {
+        return value;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code value} names no mode
+     */
+    public static CliMode parse(String value) {
+        for (CliMode mode : values()) {
+            if (mode.value.equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown " + PROPERTY + " '" + value.trim() + "'; expected one of "
+                + Arrays.stream(values()).map(CliMode::value).toList());
+    }
+
+    /**
+     * Returns the mode the environment asks for, or empty if {@value #PROPERTY} is not set or blank.
+     *
+     * @throws IllegalArgumentException if the property names no mode
+     */
+    public static Optional<CliMode> of(Environment environment) {
+        String value = environment.getProperty(PROPERTY);
+        return StringUtils.hasText(value) ? Optional.of(parse(value)) : Optional.empty();
+    }
+
+    /**
+     * Whether the environment asks for CLI mode, in which case no web server should be started.
+     *
+     * @throws IllegalArgumentException if the property names no mode
+     */
+    public static boolean isRequested(Environment environment) {
+        return of(environment).isPresent();
+    }
+}
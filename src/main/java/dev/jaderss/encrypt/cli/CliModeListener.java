@@ -0,0 +1,22 @@
+package dev.jaderss.encrypt.cli;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Starts the application without a web server when {@code encrypt.cli.mode} is set in any property source:
+ * a command-line argument, a system property, the {@code ENCRYPT_CLI_MODE} environment variable or
+ * {@code application.yml}. The environment is complete when this event fires, and the context is not created yet.
+ *
+ * <p>An unknown mode fails startup here, so a typo exits non-zero instead of running nothing and reporting success.
+ */
+public class CliModeListener implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        if (CliMode.isRequested(event.getEnvironment())) {
+            event.getSpringApplication().setWebApplicationType(WebApplicationType.NONE);
+        }
+    }
+}
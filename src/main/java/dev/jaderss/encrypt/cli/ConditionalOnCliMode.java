@@ -0,0 +1,41 @@
+package dev.jaderss.encrypt.cli;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Registers a runner only when {@link CliMode#PROPERTY} selects one of the given modes.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Conditional(ConditionalOnCliMode.OnCliModeCondition.class)
+public @interface ConditionalOnCliMode {
+
+    CliMode[] value();
+
+    class OnCliModeCondition implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnCliMode.class.getName());
+            CliMode[] modes = (CliMode[]) attributes.get("value");
+            try {
+                return CliMode.of(context.getEnvironment()).map(mode -> Arrays.asList(modes).contains(mode)).orElse(false);
+            } catch (IllegalArgumentException e) {
+                // Reported by CliModeListener before the context is created
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package dev.jaderss.encrypt.cli;
+
+import dev.jaderss.encrypt.csv.CsvColumns;
+import dev.jaderss.encrypt.csv.CsvRecord;
+import dev.jaderss.encrypt.pipeline.OrderedChunkPipeline;
+import dev.jaderss.encrypt.service.CsvTokenizationService;
+import dev.jaderss.encrypt.service.FileCryptoService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Command-line mode for warehouse loads: encrypts ({@code csv-encrypt}) or decrypts ({@code csv-decrypt}) the
+ * {@code encrypt.cli.columns} of the CSV file {@code encrypt.cli.source} into {@code encrypt.cli.target}. The
+ * output is written to a {@code .part} file and renamed once complete, so a failed run never leaves a partial
+ * target behind.
+ */
+@Slf4j
+@Component
+@ConditionalOnCliMode({CliMode.CSV_ENCRYPT, CliMode.CSV_DECRYPT})
+public class CsvTokenizationRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final CsvTokenizationService csvTokenizationService;
+    private final CsvTokenizationService.Mode mode;
+    private final Path source;
+    private final Path target;
+    private final CsvColumns columns;
+    private final byte delimiter;
+    private final boolean header;
+    private final int threads;
+    private final int chunkSize;
+
+    private int exitCode;
+
+    public CsvTokenizationRunner(CsvTokenizationService csvTokenizationService,
+                                 @Value("${encrypt.cli.mode}") String mode,
+                                 @Value("${encrypt.cli.source}") Path source,
+                                 @Value("${encrypt.cli.target}") Path target,
+                                 @Value("${encrypt.cli.columns}") List<String> columns,
+                                 @Value("${encrypt.cli.csv-delimiter:,}") String delimiter,
+                                 @Value("${encrypt.cli.csv-header:true}") boolean header,
+                                 @Value("${encrypt.cli.threads:0}") int threads,
+                                 @Value("${encrypt.cli.chunk-size:1000}") int chunkSize) {
+        this.csvTokenizationService = csvTokenizationService;
+        this.mode = CliMode.parse(mode) == CliMode.CSV_ENCRYPT ? CsvTokenizationService.Mode.ENCRYPT : CsvTokenizationService.Mode.DECRYPT;
+        this.source = source.toAbsolutePath().normalize();
+        this.target = target.toAbsolutePath().normalize();
+        this.columns = CsvColumns.parse(columns);
+        this.delimiter = CsvTokenizationService.delimiter(delimiter);
+        this.header = header;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize;
+        if (this.source.equals(this.target)) {
+            throw new IllegalArgumentException("Source and target must be different files");
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        try {
+            execute();
+        } catch (GeneralSecurityException | IOException | RuntimeException e) {
+            log.error("Cannot {} columns {} of {}", mode == CsvTokenizationService.Mode.ENCRYPT ? "encrypt" : "decrypt", columns, source, e);
+            exitCode = 1;
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    Summary execute() throws GeneralSecurityException, IOException {
+        Path part = target.resolveSibling(target.getFileName() + FileCryptoService.PART_SUFFIX);
+        long start = System.nanoTime();
+        long records;
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(source), BUFFER_SIZE);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(part), BUFFER_SIZE)) {
+            OrderedChunkPipeline<CsvRecord, byte[]> pipeline = csvTokenizationService.pipeline(workers, threads, chunkSize);
+            records = csvTokenizationService.transform(in, out, columns, delimiter, header, mode, pipeline);
+        } catch (GeneralSecurityException | IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        } finally {
+            workers.shutdownNow();
+        }
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        Summary summary = new Summary(records, Files.size(source), System.nanoTime() - start);
+        log.info("{} columns {} of {} records ({} MB) in {} s, {} records/s, {} MB/s",
+                mode == CsvTokenizationService.Mode.ENCRYPT ? "Encrypted" : "Decrypted", columns, summary.records(),
+                String.format(Locale.ROOT, "%.1f", summary.bytes() / 1e6),
+                String.format(Locale.ROOT, "%.2f", summary.nanos() / 1e9),
+                String.format(Locale.ROOT, "%.0f", summary.records() / (summary.nanos() / 1e9)),
+                String.format(Locale.ROOT, "%.1f", summary.bytes() / 1e6 / (summary.nanos() / 1e9)));
+        return summary;
+    }
+
+    /**
+     * @param bytes size of the input file
+     */
+    record Summary(long records, long bytes, long nanos) {
+    }
+}
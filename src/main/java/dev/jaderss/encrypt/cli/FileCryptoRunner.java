@@ -0,0 +1,171 @@
+package dev.jaderss.encrypt.cli;
+
+import dev.jaderss.encrypt.service.FileCryptoService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Command-line mode: encrypts or decrypts every file under {@code encrypt.cli.source} into the same layout
+ * under {@code encrypt.cli.target}, in parallel, then exits. Encrypted files get the {@value #SUFFIX}
+ * suffix, which decryption strips again.
+ *
+ * <p>Re-running after an interruption resumes: files whose output exists and is newer than the input are
+ * skipped, and partially written outputs are discarded and redone.
+ */
+@Slf4j
+@Component
+@ConditionalOnCliMode({CliMode.ENCRYPT, CliMode.DECRYPT})
+public class FileCryptoRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    static final String SUFFIX = ".enc";
+
+    private final FileCryptoService fileCryptoService;
+    private final Mode mode;
+    private final Path source;
+    private final Path target;
+    private final int threads;
+
+    private int exitCode;
+
+    public FileCryptoRunner(FileCryptoService fileCryptoService,
+                            @Value("${encrypt.cli.mode}") String mode,
+                            @Value("${encrypt.cli.source}") Path source,
+                            @Value("${encrypt.cli.target}") Path target,
+                            @Value("${encrypt.cli.threads:0}") int threads) {
+        this.fileCryptoService = fileCryptoService;
+        this.mode = Mode.of(mode);
+        this.source = source.toAbsolutePath().normalize();
+        this.target = target.toAbsolutePath().normalize();
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        if (this.target.startsWith(this.source) || this.source.startsWith(this.target)) {
+            throw new IllegalArgumentException("Source and target directories must not contain each other");
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException, InterruptedException {
+        Summary summary = execute();
+        exitCode = summary.failed() > 0 ? 1 : 0;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    Summary execute() throws IOException, InterruptedException {
+        if (!Files.isDirectory(source)) {
+            throw new IOException("Source directory " + source + " does not exist");
+        }
+        AtomicInteger processed = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+        long start = System.nanoTime();
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try (Stream<Path> files = Files.walk(source)) {
+            List<Future<?>> tasks = new ArrayList<>();
+            files.filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().endsWith(FileCryptoService.PART_SUFFIX))
+                    .forEach(file -> tasks.add(workers.submit(() -> {
+                        Path output = outputFor(file);
+                        try {
+                            if (isUpToDate(file, output)) {
+                                skipped.incrementAndGet();
+                                return;
+                            }
+                            bytes.addAndGet(mode == Mode.ENCRYPT
+                                    ? fileCryptoService.encrypt(file, output)
+                                    : fileCryptoService.decrypt(file, output));
+                            processed.incrementAndGet();
+                        } catch (GeneralSecurityException | IOException | RuntimeException e) {
+                            // One bad file must not abort the others
+                            failed.incrementAndGet();
+                            log.error("Cannot {} {}", mode.verb, file, e);
+                        }
+                    })));
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("File worker failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+
+        Summary summary = new Summary(processed.get(), skipped.get(), failed.get(), bytes.get(), System.nanoTime() - start);
+        log.info("{} {} files ({} MB) in {} s, {} MB/s; {} up to date, {} failed",
+                mode == Mode.ENCRYPT ? "Encrypted" : "Decrypted", summary.processed(),
+                String.format(Locale.ROOT, "%.1f", summary.bytes() / 1e6),
+                String.format(Locale.ROOT, "%.2f", summary.nanos() / 1e9),
+                String.format(Locale.ROOT, "%.1f", summary.megabytesPerSecond()),
+                summary.skipped(), summary.failed());
+        return summary;
+    }
+
+    private Path outputFor(Path file) {
+        Path output = target.resolve(source.relativize(file).toString());
+        String name = output.getFileName().toString();
+        if (mode == Mode.ENCRYPT) {
+            return output.resolveSibling(name + SUFFIX);
+        }
+        return name.endsWith(SUFFIX) && name.length() > SUFFIX.length()
+                ? output.resolveSibling(name.substring(0, name.length() - SUFFIX.length()))
+                : output;
+    }
+
+    private static boolean isUpToDate(Path input, Path output) throws IOException {
+        if (!Files.isRegularFile(output)) {
+            return false;
+        }
+        FileTime inputTime = Files.getLastModifiedTime(input);
+        return Files.getLastModifiedTime(output).compareTo(inputTime) >= 0;
+    }
+
+    record Summary(int processed, int skipped, int failed, long bytes, long nanos) {
+
+        double megabytesPerSecond() {
+            return nanos == 0 ? 0 : bytes / 1e6 / (nanos / 1e9);
+        }
+    }
+
+    private enum Mode {
+        ENCRYPT("encrypt"), DECRYPT("decrypt");
+
+        private final String verb;
+
+        Mode(String verb) {
+            this.verb = verb;
+        }
+
+        static Mode of(String value) {
+            for (Mode mode : values()) {
+                if (mode.verb.equalsIgnoreCase(value.trim())) {
+                    return mode;
+                }
+            }
+            throw new IllegalArgumentException("encrypt.cli.mode must be 'encrypt' or 'decrypt'");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package dev.jaderss.encrypt.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Reads {@code \n}-terminated lines as raw bytes and tracks the byte offset just past each one, so that a
+ * job can checkpoint and later seek back to an exact line boundary. A trailing {@code \r} is dropped.
+ */
+final class LineReader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long offset;
+    private long lineNumber;
+
+    LineReader(InputStream in, long offset, long lineNumber) {
+        this.in = in;
+        this.offset = offset;
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Returns the next line, or {@code null} at the end of the input.
+     */
+    Line next() throws IOException {
+        byte[] line = new byte[128];
+        int length = 0;
+        boolean sawAny = false;
+        while (true) {
+            if (position == limit) {
+                limit = in.read(buffer);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return sawAny ? line(line, length) : null;
+                }
+            }
+            sawAny = true;
+            int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            int chunk = position - start;
+            if (length + chunk > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, length + chunk));
+            }
+            System.arraycopy(buffer, start, line, length, chunk);
+            length += chunk;
+            offset += chunk;
+            if (position < limit) {
+                position++;
+                offset++;
+                return line(line, length);
+            }
+        }
+    }
+
+    private Line line(byte[] line, int length) {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new Line(Arrays.copyOf(line, length), offset, ++lineNumber);
+    }
+
+    /**
+     * @param content line without its terminator
+     * @param end     input offset just past the line terminator
+     * @param number  1-based line number
+     */
+    record Line(byte[] content, long end, long number) {
+    }
+}
@@ -0,0 +1,251 @@
+package dev.jaderss.encrypt.cli;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.jaderss.encrypt.pipeline.OrderedChunkPipeline;
+import dev.jaderss.encrypt.service.SecurityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Command-line mode for key rotation: re-encrypts every ciphertext in {@code encrypt.cli.source}, one per
+ * line, under the current primary key and writes them to {@code encrypt.cli.target} in the same order.
+ * Lines are either bare Base64 ciphertexts or NDJSON objects whose {@code encrypt.cli.field} holds one.
+ *
+ * <p>Every {@code encrypt.cli.checkpoint-interval} records the output is synced and a checkpoint is written
+ * next to it. Re-running the same command resumes from the last checkpoint; the checkpoint is removed once
+ * the job completes. Records that cannot be re-encrypted are copied unchanged and counted as failed.
+ */
+@Slf4j
+@Component
+@ConditionalOnCliMode(CliMode.REENCRYPT)
+public class ReencryptionRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private static final int MAX_LOGGED_FAILURES = 100;
+
+    private final SecurityService securityService;
+    private final ObjectMapper objectMapper;
+    private final Path source;
+    private final Path target;
+    private final Path checkpointFile;
+    private final Format format;
+    private final String field;
+    private final int threads;
+    private final int chunkSize;
+    private final long checkpointInterval;
+    private final AtomicInteger loggedFailures = new AtomicInteger();
+
+    private int exitCode;
+
+    public ReencryptionRunner(SecurityService securityService,
+                              ObjectMapper objectMapper,
+                              @Value("${encrypt.cli.source}") Path source,
+                              @Value("${encrypt.cli.target}") Path target,
+                              @Value("${encrypt.cli.format:lines}") String format,
+                              @Value("${encrypt.cli.field:ciphertext}") String field,
+                              @Value("${encrypt.cli.threads:0}") int threads,
+                              @Value("${encrypt.cli.chunk-size:1000}") int chunkSize,
+                              @Value("${encrypt.cli.checkpoint-interval:100000}") long checkpointInterval) {
+        this.securityService = securityService;
+        this.objectMapper = objectMapper;
+        this.source = source.toAbsolutePath().normalize();
+        this.target = target.toAbsolutePath().normalize();
+        this.checkpointFile = this.target.resolveSibling(this.target.getFileName() + ".checkpoint");
+        this.format = Format.of(format);
+        this.field = field;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize;
+        this.checkpointInterval = Math.max(1, checkpointInterval);
+        if (this.source.equals(this.target)) {
+            throw new IllegalArgumentException("Source and target must be different files");
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException, InterruptedException {
+        Summary summary = execute();
+        exitCode = summary.failed() > 0 ? 1 : 0;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    Summary execute() throws IOException, InterruptedException {
+        long inputSize = Files.size(source);
+        Checkpoint start = Checkpoint.load(checkpointFile).orElse(new Checkpoint(inputSize, 0, 0, 0));
+        if (start.inputSize() != inputSize) {
+            throw new IOException("Checkpoint " + checkpointFile + " belongs to a different input; delete it to start over");
+        }
+        if (start.records() > 0) {
+            log.info("Resuming re-encryption of {} after {} records", source, start.records());
+        }
+
+        Progress progress = new Progress(start);
+        long startNanos = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Drop anything written after the last checkpoint; it is produced again below
+            out.truncate(start.outputBytes());
+            out.position(start.outputBytes());
+            in.position(start.inputBytes());
+            LineReader reader = new LineReader(Channels.newInputStream(in), start.inputBytes(), start.records());
+            OutputStream output = new BufferedOutputStream(Channels.newOutputStream(out), 1 << 20);
+
+            OrderedChunkPipeline<LineReader.Line, Result> pipeline = new OrderedChunkPipeline<>(workers, chunkSize, 2 * threads);
+            pipeline.run(reader::next, this::process, results -> {
+                for (Result result : results) {
+                    output.write(result.line());
+                    output.write('\n');
+                    progress.add(result);
+                }
+                if (progress.records - progress.checkpointed.records() >= checkpointInterval) {
+                    output.flush();
+                    out.force(false);
+                    progress.checkpoint(inputSize).save(checkpointFile);
+                }
+            });
+            output.flush();
+            out.force(false);
+        } finally {
+            workers.shutdownNow();
+        }
+        Files.deleteIfExists(checkpointFile);
+
+        long nanos = System.nanoTime() - startNanos;
+        Summary summary = new Summary(progress.reencrypted, progress.current, progress.failed, nanos);
+        log.info("Re-encrypted {} records in {} s ({} records/s); {} already under the primary key, {} failed",
+                summary.reencrypted(), String.format(Locale.ROOT, "%.2f", nanos / 1e9),
+                String.format(Locale.ROOT, "%.0f", (progress.records - start.records()) / (nanos / 1e9)),
+                summary.current(), summary.failed());
+        return summary;
+    }
+
+    private List<Result> process(List<LineReader.Line> lines) {
+        List<Result> results = new ArrayList<>(lines.size());
+        for (LineReader.Line line : lines) {
+            results.add(process(line));
+        }
+        return results;
+    }
+
+    private Result process(LineReader.Line line) {
+        byte[] content = line.content();
+        try {
+            if (format == Format.LINES) {
+                String encoded = new String(content, StandardCharsets.US_ASCII).trim();
+                if (encoded.isEmpty()) {
+                    return new Result(content, Status.CURRENT, line.end());
+                }
+                byte[] ciphertext = Base64.getDecoder().decode(encoded);
+                byte[] reencrypted = securityService.reencrypt(ciphertext);
+                return reencrypted == ciphertext
+                        ? new Result(content, Status.CURRENT, line.end())
+                        : new Result(Base64.getEncoder().encode(reencrypted), Status.REENCRYPTED, line.end());
+            }
+            JsonNode node = objectMapper.readTree(content);
+            if (node == null || node.isMissingNode()) {
+                return new Result(content, Status.CURRENT, line.end());
+            }
+            if (!(node instanceof ObjectNode object) || !object.path(field).isTextual()) {
+                throw new IllegalArgumentException("No string field '" + field + "'");
+            }
+            byte[] ciphertext = Base64.getDecoder().decode(object.get(field).asText());
+            byte[] reencrypted = securityService.reencrypt(ciphertext);
+            if (reencrypted == ciphertext) {
+                return new Result(content, Status.CURRENT, line.end());
+            }
+            object.put(field, Base64.getEncoder().encodeToString(reencrypted));
+            return new Result(objectMapper.writeValueAsBytes(object), Status.REENCRYPTED, line.end());
+        } catch (GeneralSecurityException | IOException | IllegalArgumentException e) {
+            if (loggedFailures.incrementAndGet() <= MAX_LOGGED_FAILURES) {
+                log.warn("Line {} could not be re-encrypted and is copied unchanged: {}", line.number(), e.toString());
+            }
+            return new Result(content, Status.FAILED, line.end());
+        }
+    }
+
+    record Summary(long reencrypted, long current, long failed, long nanos) {
+    }
+
+    private record Result(byte[] line, Status status, long inputEnd) {
+    }
+
+    private enum Status {
+        REENCRYPTED, CURRENT, FAILED
+    }
+
+    /**
+     * Only touched by the pipeline sink, which runs on the calling thread.
+     */
+    private static final class Progress {
+
+        private long records;
+        private long inputBytes;
+        private long outputBytes;
+        private long reencrypted;
+        private long current;
+        private long failed;
+        private Checkpoint checkpointed;
+
+        Progress(Checkpoint start) {
+            this.records = start.records();
+            this.inputBytes = start.inputBytes();
+            this.outputBytes = start.outputBytes();
+            this.checkpointed = start;
+        }
+
+        void add(Result result) {
+            records++;
+            inputBytes = result.inputEnd();
+            outputBytes += result.line().length + 1;
+            switch (result.status()) {
+                case REENCRYPTED -> reencrypted++;
+                case CURRENT -> current++;
+                case FAILED -> failed++;
+            }
+        }
+
+        Checkpoint checkpoint(long inputSize) {
+            checkpointed = new Checkpoint(inputSize, records, inputBytes, outputBytes);
+            return checkpointed;
+        }
+    }
+
+    private enum Format {
+        LINES, NDJSON;
+
+        static Format of(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("encrypt.cli.format must be 'lines' or 'ndjson'");
+            }
+        }
+    }
+}
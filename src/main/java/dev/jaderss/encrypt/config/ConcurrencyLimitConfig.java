@@ -0,0 +1,42 @@
+package dev.jaderss.encrypt.config;
+
+import dev.jaderss.encrypt.limit.AimdLimiter;
+import dev.jaderss.encrypt.limit.ConcurrencyLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "encrypt.limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AimdLimiter aimdLimiter(@Value("${encrypt.limit.initial-limit:20}") int initialLimit,
+                                   @Value("${encrypt.limit.min-limit:2}") int minLimit,
+                                   @Value("${encrypt.limit.max-limit:200}") int maxLimit,
+                                   @Value("${encrypt.limit.latency-threshold:50ms}") Duration latencyThreshold,
+                                   @Value("${encrypt.limit.backoff-ratio:0.9}") double backoffRatio,
+                                   MeterRegistry meterRegistry) {
+        return new AimdLimiter(initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(AimdLimiter aimdLimiter,
+                                                                                 @Value("${encrypt.limit.retry-after:1s}") Duration retryAfter,
+                                                                                 @Value("${encrypt.limit.url-patterns:/encrypt,/decrypt}") String[] urlPatterns) {
+        // Retry-After only has whole seconds; never tell clients to retry immediately
+        long retryAfterSeconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(aimdLimiter, retryAfterSeconds));
+        registration.addUrlPatterns(urlPatterns);
+        // Reject before any other filter does work on the request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
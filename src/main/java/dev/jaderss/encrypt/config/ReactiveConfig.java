@@ -0,0 +1,48 @@
+package dev.jaderss.encrypt.config;
+
+import dev.jaderss.encrypt.reactive.ReactiveCryptoHandler;
+import dev.jaderss.encrypt.service.SecurityService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs the reactive endpoints on their own Reactor Netty server next to the servlet stack, which stays the
+ * primary web application.
+ */
+@Configuration
+@ConditionalOnProperty(name = "encrypt.reactive.enabled", havingValue = "true")
+public class ReactiveConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler cryptoScheduler(@Value("${encrypt.reactive.crypto-threads:0}") int threads,
+                                     @Value("${encrypt.reactive.crypto-queue:10000}") int queueSize) {
+        int cap = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return Schedulers.newBoundedElastic(cap, queueSize, "crypto");
+    }
+
+    @Bean
+    public ReactiveCryptoHandler reactiveCryptoHandler(SecurityService securityService,
+                                                       @Qualifier("cryptoScheduler") Scheduler cryptoScheduler,
+                                                       @Value("${encrypt.reactive.max-body-size:1048576}") int maxBodySize) {
+        return new ReactiveCryptoHandler(securityService, cryptoScheduler, maxBodySize);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public WebServer reactiveWebServer(ReactiveCryptoHandler handler, @Value("${encrypt.reactive.port:8081}") int port) {
+        RouterFunction<ServerResponse> routes = RouterFunctions.route()
+                .POST("/encrypt", handler::encrypt)
+                .POST("/decrypt", handler::decrypt)
+                .build();
+        return new NettyReactiveWebServerFactory(port).getWebServer(RouterFunctions.toHttpHandler(routes));
+    }
+}
@@ -1,26 +1,177 @@
 package dev.jaderss.encrypt.config;
 
+import com.google.crypto.tink.Aead;
 import com.google.crypto.tink.BinaryKeysetReader;
 import com.google.crypto.tink.CleartextKeysetHandle;
+import com.google.crypto.tink.DeterministicAead;
 import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.StreamingAead;
 import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.daead.DeterministicAeadConfig;
+import com.google.crypto.tink.streamingaead.StreamingAeadConfig;
+import dev.jaderss.encrypt.crypto.AeadAlgorithm;
+import dev.jaderss.encrypt.crypto.AlgorithmKeysets;
+import dev.jaderss.encrypt.crypto.CipherProviderSelector;
+import dev.jaderss.encrypt.crypto.CompressionCodec;
+import dev.jaderss.encrypt.crypto.DecryptCache;
+import dev.jaderss.encrypt.crypto.DeflateCodec;
+import dev.jaderss.encrypt.crypto.KeysetFileWatcher;
+import dev.jaderss.encrypt.crypto.PayloadCompression;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.security.GeneralSecurityException;
+import java.time.Duration;
 import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 @Slf4j
+@ImportRuntimeHints(TinkRuntimeHints.class)
 public class SecurityConfig {
 
     @Bean
-    public KeysetHandle keysetHandle(@Value("${encrypt.key}") String key) throws GeneralSecurityException, IOException {
+    @Primary
+    public KeysetHandle keysetHandle(@Value("${encrypt.key}") String key,
+                                     @Value("${encrypt.key-file:}") String keyFile) throws GeneralSecurityException, IOException {
         AeadConfig.register();
+        if (!keyFile.isBlank()) {
+            log.info("Loading keyset from {}", keyFile);
+            return KeysetFileWatcher.read(Path.of(keyFile));
+        }
+        return readKeyset(key);
+    }
+
+    /**
+     * Pins the JCE provider for AES-GCM. Every primitive holder depends on it, so no Tink primitive touches a
+     * {@code Cipher} before the provider order is final.
+     */
+    @Bean
+    public CipherProviderSelector.Selection cipherProviderSelection(@Value("${encrypt.provider.additional:}") List<String> additionalProviders,
+                                                                    @Value("${encrypt.provider.preferred:}") String preferred,
+                                                                    @Value("${encrypt.provider.benchmark.enabled:false}") boolean benchmark,
+                                                                    @Value("${encrypt.provider.benchmark.payload-sizes:64,1024,16384}") List<Integer> payloadSizes,
+                                                                    @Value("${encrypt.provider.benchmark.duration:100ms}") Duration duration) throws GeneralSecurityException {
+        CipherProviderSelector.register(additionalProviders);
+        return new CipherProviderSelector(benchmark, payloadSizes, duration, preferred).select();
+    }
+
+    @Bean
+    @DependsOn("cipherProviderSelection")
+    public PrimitiveHolder<Aead> aeadHolder(KeysetHandle keysetHandle) throws GeneralSecurityException {
+        return new PrimitiveHolder<>(keysetHandle, Aead.class);
+    }
+
+    /**
+     * Optional keysets for {@code ?algorithm=} requests, one per {@code encrypt.algorithm-keys.<algorithm>} property,
+     * e.g. {@code encrypt.algorithm-keys.xchacha20-poly1305}.
+     */
+    @Bean
+    @DependsOn("cipherProviderSelection")
+    public AlgorithmKeysets algorithmKeysets(Environment environment, KeysetHandle keysetHandle) throws GeneralSecurityException, IOException {
+        AeadConfig.register();
+        Map<AeadAlgorithm, KeysetHandle> keysets = new EnumMap<>(AeadAlgorithm.class);
+        for (AeadAlgorithm algorithm : AeadAlgorithm.values()) {
+            String key = environment.getProperty("encrypt.algorithm-keys." + algorithm.propertyName(), "");
+            if (!key.isBlank()) {
+                keysets.put(algorithm, readKeyset(key));
+            }
+        }
+        if (!keysets.isEmpty()) {
+            log.info("Algorithm keysets configured for {}", keysets.keySet());
+        }
+        return new AlgorithmKeysets(keysets, AlgorithmKeysets.keyIds(keysetHandle));
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnExpression("!'${encrypt.key-file:}'.isBlank()")
+    public KeysetFileWatcher keysetFileWatcher(@Value("${encrypt.key-file}") String keyFile,
+                                               PrimitiveHolder<Aead> aeadHolder,
+                                               MeterRegistry meterRegistry) {
+        return new KeysetFileWatcher(Path.of(keyFile), aeadHolder, meterRegistry);
+    }
+
+    @Bean
+    public DeflateCodec deflateCodec(@Value("${encrypt.compression.deflate.level:-1}") int level) {
+        return new DeflateCodec(level);
+    }
+
+    /**
+     * Compressed ciphertexts are always readable; new ones are only written when compression is enabled.
+     * Further codecs are picked up from any {@link CompressionCodec} bean.
+     */
+    @Bean
+    public PayloadCompression payloadCompression(List<CompressionCodec> codecs,
+                                                 @Value("${encrypt.compression.enabled:false}") boolean enabled,
+                                                 @Value("${encrypt.compression.codec:deflate}") String codecName,
+                                                 @Value("${encrypt.compression.min-size:1024}") int minSize,
+                                                 @Value("${encrypt.compression.max-decompressed-size:67108864}") int maxDecompressedSize) {
+        CompressionCodec writeCodec = null;
+        if (enabled) {
+            writeCodec = codecs.stream()
+                    .filter(codec -> codec.name().equals(codecName))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown compression codec " + codecName));
+            log.info("Compressing payloads of {} bytes or more with {}", minSize, codecName);
+        }
+        return new PayloadCompression(codecs, writeCodec, minSize, maxDecompressedSize);
+    }
+
+    @Bean
+    public DecryptCache decryptCache(@Value("${encrypt.decrypt-cache.enabled:false}") boolean enabled,
+                                     @Value("${encrypt.decrypt-cache.max-entries:10000}") long maxEntries,
+                                     @Value("${encrypt.decrypt-cache.max-bytes:16777216}") long maxBytes,
+                                     @Value("${encrypt.decrypt-cache.max-entry-size:4096}") int maxEntrySize,
+                                     @Value("${encrypt.decrypt-cache.ttl:5m}") Duration ttl,
+                                     @Value("${encrypt.decrypt-cache.off-heap:true}") boolean offHeap,
+                                     MeterRegistry meterRegistry) {
+        if (!enabled) {
+            return DecryptCache.disabled();
+        }
+        log.info("Caching up to {} decrypt results ({} bytes) for {}", maxEntries, maxBytes, ttl);
+        return new DecryptCache(maxEntries, maxBytes, maxEntrySize, ttl, offHeap, meterRegistry);
+    }
+
+    @Bean
+    public KeysetHandle streamingKeysetHandle(@Value("${encrypt.streaming-key}") String key) throws GeneralSecurityException, IOException {
+        StreamingAeadConfig.register();
+        return readKeyset(key);
+    }
+
+    @Bean
+    @DependsOn("cipherProviderSelection")
+    public PrimitiveHolder<StreamingAead> streamingAeadHolder(@Qualifier("streamingKeysetHandle") KeysetHandle streamingKeysetHandle) throws GeneralSecurityException {
+        return new PrimitiveHolder<>(streamingKeysetHandle, StreamingAead.class);
+    }
+
+    @Bean
+    public KeysetHandle deterministicKeysetHandle(@Value("${encrypt.deterministic-key}") String key) throws GeneralSecurityException, IOException {
+        DeterministicAeadConfig.register();
+        return readKeyset(key);
+    }
+
+    @Bean
+    @DependsOn("cipherProviderSelection")
+    public PrimitiveHolder<DeterministicAead> deterministicAeadHolder(@Qualifier("deterministicKeysetHandle") KeysetHandle deterministicKeysetHandle) throws GeneralSecurityException {
+        return new PrimitiveHolder<>(deterministicKeysetHandle, DeterministicAead.class);
+    }
+
+    private static KeysetHandle readKeyset(String key) throws GeneralSecurityException, IOException {
         byte[] plainKey = Base64.getDecoder().decode(key);
         return CleartextKeysetHandle.read(BinaryKeysetReader.withBytes(plainKey));
     }
-}
\ No newline at end of file
+}
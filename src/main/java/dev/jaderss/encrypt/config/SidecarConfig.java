@@ -0,0 +1,38 @@
+package dev.jaderss.encrypt.config;
+
+import dev.jaderss.encrypt.service.SecurityService;
+import dev.jaderss.encrypt.sidecar.SidecarServer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "encrypt.sidecar.enabled", havingValue = "true")
+public class SidecarConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public SidecarServer sidecarServer(SecurityService securityService,
+                                       @Value("${encrypt.sidecar.port:-1}") int port,
+                                       @Value("${encrypt.sidecar.address:127.0.0.1}") String address,
+                                       @Value("${encrypt.sidecar.socket-path:}") String socketPath,
+                                       @Value("${encrypt.sidecar.max-frame-size:1048576}") int maxFrameSize,
+                                       @Value("${encrypt.sidecar.worker-threads:0}") int workerThreads,
+                                       @Value("${encrypt.sidecar.queue-size:1024}") int queueSize) {
+        List<SocketAddress> addresses = new ArrayList<>();
+        if (port >= 0) {
+            addresses.add(new InetSocketAddress(address, port));
+        }
+        if (!socketPath.isBlank()) {
+            addresses.add(UnixDomainSocketAddress.of(socketPath));
+        }
+        int threads = workerThreads > 0 ? workerThreads : Runtime.getRuntime().availableProcessors();
+        return new SidecarServer(securityService, addresses, maxFrameSize, threads, queueSize);
+    }
+}
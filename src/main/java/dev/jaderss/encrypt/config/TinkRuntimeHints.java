@@ -0,0 +1,61 @@
+package dev.jaderss.encrypt.config;
+
+import com.google.crypto.tink.proto.AesGcmHkdfStreamingKey;
+import com.google.crypto.tink.proto.AesGcmHkdfStreamingKeyFormat;
+import com.google.crypto.tink.proto.AesGcmHkdfStreamingParams;
+import com.google.crypto.tink.proto.AesGcmKey;
+import com.google.crypto.tink.proto.AesGcmKeyFormat;
+import com.google.crypto.tink.proto.AesGcmSivKey;
+import com.google.crypto.tink.proto.AesGcmSivKeyFormat;
+import com.google.crypto.tink.proto.AesSivKey;
+import com.google.crypto.tink.proto.AesSivKeyFormat;
+import com.google.crypto.tink.proto.ChaCha20Poly1305Key;
+import com.google.crypto.tink.proto.ChaCha20Poly1305KeyFormat;
+import com.google.crypto.tink.proto.EncryptedKeyset;
+import com.google.crypto.tink.proto.HashType;
+import com.google.crypto.tink.proto.KeyData;
+import com.google.crypto.tink.proto.KeyStatusType;
+import com.google.crypto.tink.proto.KeyTemplate;
+import com.google.crypto.tink.proto.Keyset;
+import com.google.crypto.tink.proto.KeysetInfo;
+import com.google.crypto.tink.proto.OutputPrefixType;
+import com.google.crypto.tink.proto.XChaCha20Poly1305Key;
+import com.google.crypto.tink.proto.XChaCha20Poly1305KeyFormat;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Native-image hints for the Tink protobuf messages this service reads and writes. Protobuf's full runtime
+ * resolves field accessors reflectively, e.g. for {@code toString()} and descriptor-based access. The key
+ * managers and primitive registries themselves are wired up statically by the {@code *Config.register()}
+ * calls and need no hints.
+ */
+public class TinkRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<Class<?>> PROTO_TYPES = List.of(
+            Keyset.class, KeysetInfo.class, KeyData.class, KeyTemplate.class, EncryptedKeyset.class,
+            KeyStatusType.class, OutputPrefixType.class, HashType.class,
+            AesGcmKey.class, AesGcmKeyFormat.class, AesGcmSivKey.class, AesGcmSivKeyFormat.class,
+            ChaCha20Poly1305Key.class, ChaCha20Poly1305KeyFormat.class, XChaCha20Poly1305Key.class, XChaCha20Poly1305KeyFormat.class,
+            AesGcmHkdfStreamingKey.class, AesGcmHkdfStreamingKeyFormat.class, AesGcmHkdfStreamingParams.class,
+            AesSivKey.class, AesSivKeyFormat.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> type : PROTO_TYPES) {
+            register(hints, type);
+            // Builders and nested messages such as Keyset.Key
+            for (Class<?> nested : type.getDeclaredClasses()) {
+                register(hints, nested);
+            }
+        }
+    }
+
+    private static void register(RuntimeHints hints, Class<?> type) {
+        hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.INVOKE_DECLARED_METHODS,
+                MemberCategory.DECLARED_FIELDS);
+    }
+}
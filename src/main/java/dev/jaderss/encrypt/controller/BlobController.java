@@ -0,0 +1,66 @@
+package dev.jaderss.encrypt.controller;
+
+import dev.jaderss.encrypt.service.BlobStore;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.Optional;
+
+/**
+ * Stores large objects encrypted on disk and serves them back, whole or by HTTP {@code Range}. Range
+ * handling, including multi-range and {@code 416} responses, is done by Spring MVC on the returned
+ * {@link Resource}.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty("encrypt.blobs.dir")
+public class BlobController {
+
+    private final BlobStore blobStore;
+
+    @PutMapping(value = "/blobs/{blobId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Void> put(@PathVariable String blobId, HttpServletRequest request) {
+        try {
+            blobStore.write(blobId, request.getInputStream());
+            return ResponseEntity.status(HttpStatus.CREATED).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (GeneralSecurityException | IOException e) {
+            log.error("Storing blob {} failed", blobId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/blobs/{blobId}")
+    public ResponseEntity<Resource> get(@PathVariable String blobId) {
+        try {
+            Optional<Resource> blob = blobStore.read(blobId);
+            if (blob.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .body(blob.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (GeneralSecurityException | IOException e) {
+            log.error("Reading blob {} failed", blobId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package dev.jaderss.encrypt.controller;
+
+import dev.jaderss.encrypt.csv.CsvColumns;
+import dev.jaderss.encrypt.csv.CsvFormatException;
+import dev.jaderss.encrypt.service.CsvTokenizationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/")
+@RequiredArgsConstructor
+public class CsvController {
+
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final CsvTokenizationService csvTokenizationService;
+
+    /**
+     * Encrypts the given {@code columns}, by header name or 1-based number, while the file streams through.
+     */
+    @PostMapping(value = "/encrypt/csv", consumes = TEXT_CSV_VALUE, produces = TEXT_CSV_VALUE)
+    public void encrypt(@RequestParam(required = false) List<String> columns,
+                        @RequestParam(defaultValue = "true") boolean header,
+                        @RequestParam(defaultValue = ",") String delimiter,
+                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        transform(columns, header, delimiter, request, response, CsvTokenizationService.Mode.ENCRYPT);
+    }
+
+    @PostMapping(value = "/decrypt/csv", consumes = TEXT_CSV_VALUE, produces = TEXT_CSV_VALUE)
+    public void decrypt(@RequestParam(required = false) List<String> columns,
+                        @RequestParam(defaultValue = "true") boolean header,
+                        @RequestParam(defaultValue = ",") String delimiter,
+                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        transform(columns, header, delimiter, request, response, CsvTokenizationService.Mode.DECRYPT);
+    }
+
+    private void transform(List<String> columns, boolean header, String delimiter, HttpServletRequest request,
+                           HttpServletResponse response, CsvTokenizationService.Mode mode) throws IOException {
+        CsvColumns csvColumns;
+        byte delimiterByte;
+        try {
+            csvColumns = CsvColumns.parse(columns);
+            delimiterByte = CsvTokenizationService.delimiter(delimiter);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        response.setContentType(TEXT_CSV_VALUE);
+        try {
+            if (mode == CsvTokenizationService.Mode.ENCRYPT) {
+                csvTokenizationService.encrypt(request.getInputStream(), response.getOutputStream(), csvColumns, delimiterByte, header);
+            } else {
+                csvTokenizationService.decrypt(request.getInputStream(), response.getOutputStream(), csvColumns, delimiterByte, header);
+            }
+        } catch (GeneralSecurityException | IOException | IllegalArgumentException e) {
+            fail(response, "CSV " + (mode == CsvTokenizationService.Mode.ENCRYPT ? "encryption" : "decryption") + " failed", e);
+        }
+    }
+
+    private void fail(HttpServletResponse response, String message, Exception e) throws IOException {
+        boolean badInput = e instanceof CsvFormatException || e instanceof IllegalArgumentException;
+        if (badInput) {
+            log.debug(message, e);
+        } else {
+            log.error(message, e);
+        }
+        if (response.isCommitted()) {
+            // Earlier records are already sent; abort the connection so the client sees a truncated body.
+            throw e instanceof IOException io ? io : new IOException(message, e);
+        }
+        response.resetBuffer();
+        response.setStatus(badInput ? HttpStatus.BAD_REQUEST.value() : HttpStatus.INTERNAL_SERVER_ERROR.value());
+    }
+}
@@ -0,0 +1,68 @@
+package dev.jaderss.encrypt.controller;
+
+import dev.jaderss.encrypt.crypto.CiphertextEncoding;
+import dev.jaderss.encrypt.service.DeterministicSecurityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.GeneralSecurityException;
+
+@Slf4j
+@RestController
+@RequestMapping("/deterministic")
+@RequiredArgsConstructor
+public class DeterministicController {
+
+    private final DeterministicSecurityService deterministicSecurityService;
+
+    @PostMapping(value = "/encrypt", consumes = MediaType.TEXT_PLAIN_VALUE, produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> encrypt(@RequestBody(required = false) String plainText, @RequestHeader HttpHeaders headers) {
+        try {
+            if (plainText == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            CiphertextEncoding encoding = CiphertextEncoding.negotiateText(headers.getAccept());
+            return ResponseEntity.ok(encoding.encodeToString(deterministicSecurityService.encrypt(plainText.trim())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        } catch (GeneralSecurityException e) {
+            log.error("Deterministic encryption failed", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping(value = "/decrypt", consumes = MediaType.TEXT_PLAIN_VALUE, produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> decrypt(@RequestBody(required = false) String encrypted, @RequestHeader HttpHeaders headers) {
+        if (encrypted == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        CiphertextEncoding encoding;
+        try {
+            encoding = CiphertextEncoding.of(headers.getContentType());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+        byte[] ciphertext;
+        try {
+            ciphertext = encoding.decode(encrypted.trim());
+        } catch (IllegalArgumentException e) {
+            // Not valid Base64 or hex
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(deterministicSecurityService.decrypt(ciphertext));
+        } catch (GeneralSecurityException e) {
+            log.error("Deterministic decryption failed", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package dev.jaderss.encrypt.controller;
+
+import dev.jaderss.encrypt.service.EnvelopeSecurityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+@Slf4j
+@RestController
+@RequestMapping("/envelope")
+@RequiredArgsConstructor
+public class EnvelopeController {
+
+    private static final int MAX_SCOPE_LENGTH = 128;
+
+    private final EnvelopeSecurityService envelopeSecurityService;
+
+    @PostMapping(value = "/encrypt", consumes = MediaType.TEXT_PLAIN_VALUE, produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> encrypt(@RequestBody(required = false) String plainText,
+                                          @RequestParam(defaultValue = "default") String scope) {
+        try {
+            if (plainText == null || scope.isBlank() || scope.length() > MAX_SCOPE_LENGTH) {
+                return ResponseEntity.badRequest().build();
+            }
+            byte[] envelope = envelopeSecurityService.encrypt(scope, plainText.trim().getBytes(StandardCharsets.UTF_8));
+            return ResponseEntity.ok(Base64.getEncoder().encodeToString(envelope));
+        } catch (GeneralSecurityException e) {
+            log.error("Envelope encryption failed", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping(value = "/decrypt", consumes = MediaType.TEXT_PLAIN_VALUE, produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> decrypt(@RequestBody(required = false) String encrypted) {
+        if (encrypted == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        byte[] envelope;
+        try {
+            envelope = Base64.getDecoder().decode(encrypted.trim());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            byte[] plaintext = envelopeSecurityService.decrypt(envelope);
+            return ResponseEntity.ok(new String(plaintext, StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            log.error("Envelope decryption failed", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
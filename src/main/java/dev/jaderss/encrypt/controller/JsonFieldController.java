@@ -0,0 +1,86 @@
+package dev.jaderss.encrypt.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import dev.jaderss.encrypt.service.JsonFieldCryptoService;
+import dev.jaderss.encrypt.service.JsonFieldPaths;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/")
+@RequiredArgsConstructor
+public class JsonFieldController {
+
+    private final JsonFieldCryptoService jsonFieldCryptoService;
+
+    /**
+     * Encrypts the fields named by {@code fields} (JSON Pointers, {@code *} for any member or element) while the
+     * document streams through.
+     */
+    @PostMapping(value = "/encrypt/json", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public void encrypt(@RequestParam(required = false) List<String> fields, HttpServletRequest request,
+                        HttpServletResponse response) throws IOException {
+        JsonFieldPaths paths = parse(fields, response);
+        if (paths == null) {
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try {
+            jsonFieldCryptoService.encrypt(request.getInputStream(), response.getOutputStream(), paths);
+        } catch (GeneralSecurityException | IOException e) {
+            fail(response, "JSON field encryption failed", e);
+        }
+    }
+
+    @PostMapping(value = "/decrypt/json", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public void decrypt(@RequestParam(required = false) List<String> fields, HttpServletRequest request,
+                        HttpServletResponse response) throws IOException {
+        JsonFieldPaths paths = parse(fields, response);
+        if (paths == null) {
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try {
+            jsonFieldCryptoService.decrypt(request.getInputStream(), response.getOutputStream(), paths);
+        } catch (GeneralSecurityException | IOException e) {
+            fail(response, "JSON field decryption failed", e);
+        }
+    }
+
+    private static JsonFieldPaths parse(List<String> fields, HttpServletResponse response) {
+        try {
+            return JsonFieldPaths.parse(fields);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return null;
+        }
+    }
+
+    private void fail(HttpServletResponse response, String message, Exception e) throws IOException {
+        boolean badInput = e instanceof JsonProcessingException;
+        if (badInput) {
+            log.debug(message, e);
+        } else {
+            log.error(message, e);
+        }
+        if (response.isCommitted()) {
+            // Part of the document is already sent; abort the connection so the client sees a truncated body.
+            throw e instanceof IOException io ? io : new IOException(message, e);
+        }
+        response.resetBuffer();
+        response.setStatus(badInput ? HttpStatus.BAD_REQUEST.value() : HttpStatus.INTERNAL_SERVER_ERROR.value());
+    }
+}
@@ -1,18 +1,31 @@
 package dev.jaderss.encrypt.controller;
 
+import com.google.crypto.tink.Aead;
+import dev.jaderss.encrypt.crypto.AeadAlgorithm;
+import dev.jaderss.encrypt.crypto.CiphertextEncoding;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.model.BatchResult;
+import dev.jaderss.encrypt.service.BatchService;
+import dev.jaderss.encrypt.service.KeyPool;
 import dev.jaderss.encrypt.service.SecurityService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -20,16 +33,74 @@ import java.security.GeneralSecurityException;
 @RequiredArgsConstructor
 public class SecurityController {
 
+    private static final String TEXT_PLAIN_UTF8 = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8";
+
     private final SecurityService securityService;
+    private final BatchService batchService;
+    private final KeyPool keyPool;
 
+    /**
+     * Text hot path: the body stays as UTF-8 bytes, is trimmed in place, and the encoded ciphertext is written
+     * straight to the response from a pooled buffer.
+     */
     @PostMapping(value = "/encrypt", consumes = MediaType.TEXT_PLAIN_VALUE, produces = MediaType.TEXT_PLAIN_VALUE)
-    public ResponseEntity<String> encrypt(@RequestBody(required = false) String plainText) {
+    public void encrypt(@RequestBody(required = false) byte[] plainText, @RequestParam(required = false) String algorithm,
+                        @RequestHeader HttpHeaders headers, HttpServletResponse response) throws IOException {
+        if (plainText == null) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        PrimitiveHolder<Aead> keyset;
+        try {
+            keyset = keysetFor(algorithm);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        byte[] text;
+        try {
+            text = TextBodies.trim(TextBodies.toUtf8(plainText, headers.getContentType()));
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value());
+            return;
+        }
+        CiphertextEncoding encoding;
+        byte[] ciphertext;
+        try {
+            encoding = CiphertextEncoding.negotiateText(headers.getAccept());
+            ciphertext = keyset == null ? securityService.encrypt(text) : securityService.encrypt(keyset, text);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.NOT_ACCEPTABLE.value());
+            return;
+        } catch (GeneralSecurityException e) {
+            log.error("Encryption failed", e);
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            return;
+        }
+        response.setContentType(TEXT_PLAIN_UTF8);
+        response.setContentLength(encoding.encodedLength(ciphertext.length));
+        encoding.writeTo(ciphertext, response.getOutputStream());
+    }
+
+    @PostMapping(value = "/encrypt", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE,
+            produces = {MediaType.APPLICATION_OCTET_STREAM_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<byte[]> encryptBinary(@RequestBody(required = false) byte[] plaintext, @RequestParam(required = false) String algorithm,
+                                                @RequestHeader HttpHeaders headers) {
+        PrimitiveHolder<Aead> keyset;
         try {
-            if (plainText == null) {
+            keyset = keysetFor(algorithm);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            if (plaintext == null) {
                 return ResponseEntity.badRequest().build();
             }
-            String encryptedText = securityService.encrypt(plainText.trim());
-            return ResponseEntity.ok(encryptedText);
+            CiphertextEncoding encoding = CiphertextEncoding.negotiate(headers.getAccept(), CiphertextEncoding.RAW);
+            byte[] ciphertext = keyset == null ? securityService.encrypt(plaintext) : securityService.encrypt(keyset, plaintext);
+            return ResponseEntity.ok().contentType(encoding.mediaType()).body(encoding.encode(ciphertext));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
         } catch (GeneralSecurityException e) {
             log.error("Encryption failed", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -37,26 +108,125 @@ public class SecurityController {
     }
 
     @PostMapping(value = "/decrypt", consumes = MediaType.TEXT_PLAIN_VALUE, produces = MediaType.TEXT_PLAIN_VALUE)
-    public ResponseEntity<String> decrypt(@RequestBody(required = false) String encrypted) {
+    public void decrypt(@RequestBody(required = false) byte[] encrypted, @RequestHeader HttpHeaders headers,
+                        HttpServletResponse response) throws IOException {
+        if (encrypted == null) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        CiphertextEncoding encoding;
+        byte[] body;
+        try {
+            encoding = CiphertextEncoding.of(headers.getContentType());
+            body = TextBodies.toUtf8(encrypted, headers.getContentType());
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value());
+            return;
+        }
+        byte[] decrypted;
+        try {
+            decrypted = securityService.decrypt(TextBodies.trimmedView(body), encoding);
+        } catch (IllegalArgumentException e) {
+            // Not valid Base64 or hex
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
+        } catch (GeneralSecurityException e) {
+            log.error("Decryption failed", e);
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            return;
+        }
+        response.setContentType(TEXT_PLAIN_UTF8);
+        response.setContentLength(decrypted.length);
+        response.getOutputStream().write(decrypted);
+    }
+
+    @PostMapping(value = "/decrypt", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE, produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> decryptBinary(@RequestBody(required = false) byte[] ciphertext) {
         try {
-            if (encrypted == null) {
+            if (ciphertext == null) {
                 return ResponseEntity.badRequest().build();
             }
-            String decryptedText = securityService.decrypt(encrypted.trim());
-            return ResponseEntity.ok(decryptedText);
+            return ResponseEntity.ok(securityService.decrypt(ciphertext));
         } catch (GeneralSecurityException e) {
             log.error("Decryption failed", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @PostMapping(value = "/encrypt/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchResult>> encryptBatch(@RequestBody(required = false) List<String> values) {
+        if (values == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (batchService.exceedsMaxSize(values)) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(batchService.encrypt(values));
+    }
+
+    @PostMapping(value = "/decrypt/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchResult>> decryptBatch(@RequestBody(required = false) List<String> values) {
+        if (values == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (batchService.exceedsMaxSize(values)) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(batchService.decrypt(values));
+    }
+
     @PostMapping(value = "/key/generate", produces = MediaType.TEXT_PLAIN_VALUE)
-    public ResponseEntity<String> generateKey() {
+    public ResponseEntity<String> generateKey(@RequestParam(required = false) String algorithm) {
+        AeadAlgorithm keyAlgorithm;
+        try {
+            keyAlgorithm = algorithm == null ? AeadAlgorithm.DEFAULT : AeadAlgorithm.parse(algorithm);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            return ResponseEntity.ok(securityService.generateKey());
+            // The pool only holds keys of the default algorithm
+            return ResponseEntity.ok(keyAlgorithm == AeadAlgorithm.DEFAULT ? keyPool.take() : securityService.generateKey(keyAlgorithm));
         } catch (GeneralSecurityException | IOException e) {
             log.error("Key generation failed", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    @PostMapping(value = "/key/generate", params = "count", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<String>> generateKeys(@RequestParam int count, @RequestParam(required = false) String algorithm) {
+        AeadAlgorithm keyAlgorithm;
+        try {
+            keyAlgorithm = algorithm == null ? AeadAlgorithm.DEFAULT : AeadAlgorithm.parse(algorithm);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (count < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (keyPool.exceedsMaxCount(count)) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        try {
+            if (keyAlgorithm != AeadAlgorithm.DEFAULT) {
+                List<String> keys = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    keys.add(securityService.generateKey(keyAlgorithm));
+                }
+                return ResponseEntity.ok(keys);
+            }
+            return ResponseEntity.ok(keyPool.take(count));
+        } catch (GeneralSecurityException | IOException e) {
+            log.error("Bulk key generation failed", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Keyset for the {@code algorithm} request parameter, or {@code null} to use the default keyset.
+     *
+     * @throws IllegalArgumentException if the algorithm is unknown or has no keyset
+     */
+    private PrimitiveHolder<Aead> keysetFor(String algorithm) {
+        return algorithm == null ? null : securityService.keysetFor(AeadAlgorithm.parse(algorithm));
+    }
 }
@@ -0,0 +1,54 @@
+package dev.jaderss.encrypt.controller;
+
+import dev.jaderss.encrypt.service.StreamingSecurityService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
+@Slf4j
+@RestController
+@RequestMapping("/")
+@RequiredArgsConstructor
+public class StreamingController {
+
+    private final StreamingSecurityService streamingSecurityService;
+
+    @PostMapping(value = "/encrypt/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE, produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public void encrypt(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        try {
+            streamingSecurityService.encrypt(request.getInputStream(), response.getOutputStream());
+        } catch (GeneralSecurityException | IOException e) {
+            fail(response, "Streaming encryption failed", e);
+        }
+    }
+
+    @PostMapping(value = "/decrypt/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE, produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public void decrypt(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        try {
+            streamingSecurityService.decrypt(request.getInputStream(), response.getOutputStream());
+        } catch (GeneralSecurityException | IOException e) {
+            fail(response, "Streaming decryption failed", e);
+        }
+    }
+
+    private void fail(HttpServletResponse response, String message, Exception e) throws IOException {
+        log.error(message, e);
+        if (response.isCommitted()) {
+            // Segments already sent are authenticated; abort the connection so the client sees a truncated body.
+            throw e instanceof IOException io ? io : new IOException(message, e);
+        }
+        response.resetBuffer();
+        response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+    }
+}
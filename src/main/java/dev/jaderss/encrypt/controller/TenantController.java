@@ -0,0 +1,105 @@
+package dev.jaderss.encrypt.controller;
+
+import com.google.crypto.tink.Aead;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.service.SecurityService;
+import dev.jaderss.encrypt.service.TenantKeysetRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Tenant-scoped encrypt/decrypt. The tenant is taken from the {@code /tenants/{tenantId}} path or from the
+ * {@value #TENANT_HEADER} header on {@code /encrypt} and {@code /decrypt}; requests carrying the header
+ * are always routed here, so they never fall back to the default keyset.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty("encrypt.tenants.dir")
+public class TenantController {
+
+    static final String TENANT_HEADER = "X-Tenant-Id";
+
+    private final TenantKeysetRegistry tenantKeysetRegistry;
+    private final SecurityService securityService;
+
+    @PostMapping(value = "/tenants/{tenantId}/encrypt", consumes = MediaType.TEXT_PLAIN_VALUE, produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> encrypt(@PathVariable String tenantId, @RequestBody(required = false) String plainText) {
+        try {
+            if (plainText == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            Optional<PrimitiveHolder<Aead>> holder = tenantKeysetRegistry.holder(tenantId);
+            if (holder.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            byte[] ciphertext = securityService.encrypt(holder.get(), plainText.trim().getBytes(StandardCharsets.UTF_8));
+            return ResponseEntity.ok(Base64.getEncoder().encodeToString(ciphertext));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (GeneralSecurityException e) {
+            log.error("Encryption failed for tenant {}", tenantId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping(value = "/tenants/{tenantId}/decrypt", consumes = MediaType.TEXT_PLAIN_VALUE, produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> decrypt(@PathVariable String tenantId, @RequestBody(required = false) String encrypted) {
+        try {
+            if (encrypted == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            Optional<PrimitiveHolder<Aead>> holder = tenantKeysetRegistry.holder(tenantId);
+            if (holder.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            byte[] plaintext = securityService.decrypt(holder.get(), Base64.getDecoder().decode(encrypted.trim()));
+            return ResponseEntity.ok(new String(plaintext, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (GeneralSecurityException e) {
+            log.error("Decryption failed for tenant {}", tenantId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping(value = "/encrypt", headers = TENANT_HEADER, produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> encryptWithHeader(@RequestHeader(TENANT_HEADER) String tenantId,
+                                                    @RequestBody(required = false) String plainText,
+                                                    @RequestHeader HttpHeaders headers) {
+        if (!isTextPlain(headers)) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+        return encrypt(tenantId, plainText);
+    }
+
+    @PostMapping(value = "/decrypt", headers = TENANT_HEADER, produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> decryptWithHeader(@RequestHeader(TENANT_HEADER) String tenantId,
+                                                    @RequestBody(required = false) String encrypted,
+                                                    @RequestHeader HttpHeaders headers) {
+        if (!isTextPlain(headers)) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+        return decrypt(tenantId, encrypted);
+    }
+
+    private static boolean isTextPlain(HttpHeaders headers) {
+        MediaType contentType = headers.getContentType();
+        return contentType == null || MediaType.TEXT_PLAIN.includes(contentType);
+    }
+}
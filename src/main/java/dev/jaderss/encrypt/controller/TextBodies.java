@@ -0,0 +1,66 @@
+package dev.jaderss.encrypt.controller;
+
+import org.springframework.http.MediaType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Whitespace trimming on raw UTF-8 request bodies, shared by the servlet and reactive endpoints. It matches
+ * {@link String#trim()}: in UTF-8, bytes up to {@code 0x20} only ever encode those same ASCII characters, so no
+ * decoding is needed.
+ */
+public final class TextBodies {
+
+    private TextBodies() {
+    }
+
+    /**
+     * Re-encodes a body sent with a {@code charset} parameter other than UTF-8 as UTF-8. UTF-8 and US-ASCII bodies,
+     * and bodies without a charset, are returned as is.
+     *
+     * @throws IllegalArgumentException if the charset is unknown or not supported
+     */
+    public static byte[] toUtf8(byte[] body, MediaType contentType) {
+        Charset charset = contentType == null ? null : contentType.getCharset();
+        if (charset == null || charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)) {
+            return body;
+        }
+        return new String(body, charset).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns {@code body} itself when there is nothing to trim, otherwise a trimmed copy.
+     */
+    public static byte[] trim(byte[] body) {
+        int start = start(body);
+        int end = end(body, start);
+        return start == 0 && end == body.length ? body : Arrays.copyOfRange(body, start, end);
+    }
+
+    /**
+     * Returns a view of the trimmed range of {@code body}, without copying.
+     */
+    public static ByteBuffer trimmedView(byte[] body) {
+        int start = start(body);
+        return ByteBuffer.wrap(body, start, end(body, start) - start);
+    }
+
+    private static int start(byte[] body) {
+        int start = 0;
+        while (start < body.length && (body[start] & 0xff) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int end(byte[] body, int start) {
+        int end = body.length;
+        while (end > start && (body[end - 1] & 0xff) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,93 @@
+package dev.jaderss.encrypt.crypto;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.Parameters;
+import com.google.crypto.tink.aead.AesGcmSivParameters;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * AEAD key templates that keysets and requests can select. All use Tink's key-ID prefix, so a ciphertext names
+ * the key, and therefore the algorithm, that decrypts it.
+ *
+ * <ul>
+ *   <li>AES-GCM is fastest on CPUs with AES-NI/PCLMUL or ARMv8 crypto extensions.</li>
+ *   <li>(X)ChaCha20-Poly1305 is faster on CPUs without AES acceleration and is constant-time in software.
+ *       XChaCha20's 24-byte nonce makes random nonces safe for far more messages per key.</li>
+ *   <li>AES-GCM-SIV tolerates nonce reuse, at the cost of two passes over the data. Tink needs a JCE provider
+ *       with {@code AES/GCM-SIV/NoPadding}, such as Conscrypt; the JDK alone does not have one.</li>
+ * </ul>
+ */
+public enum AeadAlgorithm {
+
+    AES128_GCM(PredefinedAeadParameters.AES128_GCM),
+    AES256_GCM(PredefinedAeadParameters.AES256_GCM),
+    AES256_GCM_SIV(aesGcmSiv()),
+    CHACHA20_POLY1305(PredefinedAeadParameters.CHACHA20_POLY1305),
+    XCHACHA20_POLY1305(PredefinedAeadParameters.XCHACHA20_POLY1305);
+
+    public static final AeadAlgorithm DEFAULT = AES256_GCM;
+
+    private static final byte[] PROBE = new byte[0];
+
+    private final Parameters parameters;
+    private final String propertyName = name().toLowerCase(Locale.ROOT).replace('_', '-');
+
+    AeadAlgorithm(Parameters parameters) {
+        this.parameters = parameters;
+    }
+
+    public Parameters parameters() {
+        return parameters;
+    }
+
+    /**
+     * Name in configuration keys, e.g. {@code xchacha20-poly1305}.
+     */
+    public String propertyName() {
+        return propertyName;
+    }
+
+    /**
+     * Parses a request or configuration value such as {@code XCHACHA20_POLY1305} or {@code xchacha20-poly1305}.
+     *
+     * @throws IllegalArgumentException if the name matches no algorithm
+     */
+    public static AeadAlgorithm parse(String name) {
+        String normalized = name.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        for (AeadAlgorithm algorithm : values()) {
+            if (algorithm.name().equals(normalized)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unknown AEAD algorithm " + name + "; expected one of " + Arrays.toString(values()));
+    }
+
+    /**
+     * Whether this JVM can encrypt with the algorithm, checked by a round trip with a throwaway key.
+     */
+    public boolean isAvailable() {
+        try {
+            Aead aead = KeysetHandle.generateNew(parameters).getPrimitive(Aead.class);
+            aead.decrypt(aead.encrypt(PROBE, PROBE), PROBE);
+            return true;
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    private static Parameters aesGcmSiv() {
+        try {
+            return AesGcmSivParameters.builder()
+                    .setKeySizeBytes(32)
+                    .setVariant(AesGcmSivParameters.Variant.TINK)
+                    .build();
+        } catch (GeneralSecurityException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package dev.jaderss.encrypt.crypto;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+
+import java.security.GeneralSecurityException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * One keyset per {@link AeadAlgorithm}, for requests that ask for a specific algorithm. The primary key of each
+ * keyset must use that algorithm's template, and every key must have a Tink prefix, so decryption can find the
+ * keyset from the key ID at the start of the ciphertext. Key IDs must be unique across these keysets and the
+ * default keyset. These keysets are fixed at startup.
+ */
+public class AlgorithmKeysets {
+
+    private final Map<AeadAlgorithm, PrimitiveHolder<Aead>> holders;
+    private final Map<Long, PrimitiveHolder<Aead>> holdersByKeyId = new HashMap<>();
+
+    /**
+     * @throws IllegalArgumentException if a keyset does not match its algorithm, or two keysets share a key ID
+     * @throws GeneralSecurityException if an algorithm cannot run on this JVM
+     */
+    public AlgorithmKeysets(Map<AeadAlgorithm, KeysetHandle> keysets) throws GeneralSecurityException {
+        this(keysets, Set.of());
+    }
+
+    /**
+     * @param reservedKeyIds key IDs of the default keyset, which no algorithm keyset may reuse
+     * @throws IllegalArgumentException if a keyset does not match its algorithm, or a key ID is used twice
+     * @throws GeneralSecurityException if an algorithm cannot run on this JVM
+     */
+    public AlgorithmKeysets(Map<AeadAlgorithm, KeysetHandle> keysets, Set<Long> reservedKeyIds) throws GeneralSecurityException {
+        Map<AeadAlgorithm, PrimitiveHolder<Aead>> byAlgorithm = new EnumMap<>(AeadAlgorithm.class);
+        for (Map.Entry<AeadAlgorithm, KeysetHandle> entry : keysets.entrySet()) {
+            AeadAlgorithm algorithm = entry.getKey();
+            KeysetHandle keysetHandle = entry.getValue();
+            if (!keysetHandle.getPrimary().getKey().getParameters().equals(algorithm.parameters())) {
+                throw new IllegalArgumentException("Primary key of the " + algorithm + " keyset is "
+                        + keysetHandle.getPrimary().getKey().getParameters() + ", expected " + algorithm.parameters());
+            }
+            if (!algorithm.isAvailable()) {
+                throw new GeneralSecurityException(algorithm + " is not available on this JVM");
+            }
+            PrimitiveHolder<Aead> holder = new PrimitiveHolder<>(keysetHandle, Aead.class);
+            for (int i = 0; i < keysetHandle.size(); i++) {
+                if (keysetHandle.getAt(i).getKey().getIdRequirementOrNull() == null) {
+                    throw new IllegalArgumentException("Every key of the " + algorithm + " keyset needs a Tink prefix");
+                }
+                long keyId = Integer.toUnsignedLong(keysetHandle.getAt(i).getId());
+                if (reservedKeyIds.contains(keyId)) {
+                    throw new IllegalArgumentException("Key ID " + keyId + " of the " + algorithm + " keyset is also used by the default keyset");
+                }
+                if (holdersByKeyId.put(keyId, holder) != null) {
+                    throw new IllegalArgumentException("Key ID " + keyId + " is used by more than one algorithm keyset");
+                }
+            }
+            byAlgorithm.put(algorithm, holder);
+        }
+        this.holders = Collections.unmodifiableMap(byAlgorithm);
+    }
+
+    /**
+     * Key IDs of every key in {@code keysetHandle}, for {@link #AlgorithmKeysets(Map, Set)}.
+     */
+    public static Set<Long> keyIds(KeysetHandle keysetHandle) {
+        Set<Long> keyIds = new HashSet<>();
+        for (int i = 0; i < keysetHandle.size(); i++) {
+            keyIds.add(Integer.toUnsignedLong(keysetHandle.getAt(i).getId()));
+        }
+        return keyIds;
+    }
+
+    private AlgorithmKeysets() {
+        this.holders = Map.of();
+    }
+
+    /**
+     * No algorithm keysets: every request uses the default keyset.
+     */
+    public static AlgorithmKeysets none() {
+        return new AlgorithmKeysets();
+    }
+
+    public Set<AeadAlgorithm> algorithms() {
+        return holders.keySet();
+    }
+
+    public Optional<PrimitiveHolder<Aead>> holder(AeadAlgorithm algorithm) {
+        return Optional.ofNullable(holders.get(algorithm));
+    }
+
+    /**
+     * Returns the keyset that contains {@code keyId}, or {@code null} if none does.
+     */
+    public PrimitiveHolder<Aead> holderForKeyId(long keyId) {
+        return holdersByKeyId.isEmpty() ? null : holdersByKeyId.get(keyId);
+    }
+}
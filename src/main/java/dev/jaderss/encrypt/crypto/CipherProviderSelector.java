@@ -0,0 +1,238 @@
+package dev.jaderss.encrypt.crypto;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.Security;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chooses the JCE provider that Tink's AES-GCM runs on. Tink asks the JCA for {@value #TRANSFORMATION} without
+ * naming a provider, so the first registered provider that implements it wins; this class moves the chosen
+ * provider to the front of that list. It must run before any AES-GCM primitive is first used, because Tink
+ * keeps one {@link Cipher} per thread once created. Tink offers no way to pass a provider, so the move is
+ * JVM-wide: the chosen provider becomes first for every algorithm it implements, for all code in the process.
+ *
+ * <p>The provider is either named in configuration or picked by a short benchmark of every candidate on this
+ * machine, scored by the geometric mean of its throughput over the given payload sizes. A candidate whose
+ * output differs from the first candidate's is never picked, since its ciphertexts would not interoperate.
+ */
+@Slf4j
+public class CipherProviderSelector {
+
+    public static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final int KEY_SIZE = 32;
+    private static final int IV_SIZE = 12;
+    private static final int TAG_BITS = 128;
+
+    private final boolean benchmark;
+    private final List<Integer> payloadSizes;
+    private final Duration durationPerSize;
+    private final String preferred;
+
+    /**
+     * @param benchmark       whether to measure candidates; without it the current order is kept
+     * @param payloadSizes    plaintext sizes to measure, in bytes
+     * @param durationPerSize measuring time per provider and size, after an equally long warm-up
+     * @param preferred       name of the provider to pin without measuring, or blank
+     */
+    public CipherProviderSelector(boolean benchmark, List<Integer> payloadSizes, Duration durationPerSize, String preferred) {
+        if (payloadSizes.isEmpty() || payloadSizes.stream().anyMatch(size -> size < 1)) {
+            throw new IllegalArgumentException("Benchmark payload sizes must be positive");
+        }
+        this.benchmark = benchmark;
+        this.payloadSizes = List.copyOf(payloadSizes);
+        this.durationPerSize = durationPerSize;
+        this.preferred = preferred == null ? "" : preferred.trim();
+    }
+
+    /**
+     * Registers providers by class name, after the built-in ones, so they become candidates. Classes that are
+     * not on the classpath are logged and skipped.
+     */
+    public static void register(List<String> providerClassNames) {
+        for (String className : providerClassNames) {
+            if (className.isBlank()) {
+                continue;
+            }
+            try {
+                Provider provider = (Provider) Class.forName(className.trim()).getDeclaredConstructor().newInstance();
+                if (Security.getProvider(provider.getName()) == null) {
+                    Security.addProvider(provider);
+                    log.info("Registered JCE provider {} ({})", provider.getName(), className);
+                }
+            } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+                log.warn("Cannot register JCE provider {}; is it on the classpath?", className, e);
+            }
+        }
+    }
+
+    public static List<Provider> candidates() {
+        Provider[] providers = Security.getProviders("Cipher." + TRANSFORMATION);
+        return providers == null ? List.of() : List.of(providers);
+    }
+
+    /**
+     * Picks a provider, moves it to the front of the provider list, and reports how it was chosen.
+     *
+     * @throws IllegalStateException if the preferred provider is missing or no provider implements AES-GCM
+     */
+    public Selection select() throws GeneralSecurityException {
+        List<Provider> candidates = candidates();
+        if (candidates.isEmpty()) {
+            throw new IllegalStateException("No JCE provider implements " + TRANSFORMATION);
+        }
+        List<String> names = candidates.stream().map(Provider::getName).toList();
+        if (!preferred.isEmpty()) {
+            Provider provider = candidates.stream()
+                    .filter(candidate -> candidate.getName().equals(preferred))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("JCE provider " + preferred + " does not implement "
+                            + TRANSFORMATION + "; candidates are " + names));
+            pin(provider);
+            log.info("Using configured JCE provider {} for {}", preferred, TRANSFORMATION);
+            return new Selection(preferred, Reason.CONFIGURED, names, Map.of());
+        }
+        if (!benchmark) {
+            return new Selection(candidates.get(0).getName(), Reason.DEFAULT, names, Map.of());
+        }
+
+        Map<String, Map<Integer, Double>> results = new LinkedHashMap<>();
+        Provider best = null;
+        double bestScore = 0;
+        byte[] reference = null;
+        for (Provider provider : candidates) {
+            byte[] output;
+            try {
+                output = knownAnswer(provider);
+            } catch (GeneralSecurityException | RuntimeException e) {
+                log.warn("Skipping JCE provider {}: {} failed", provider.getName(), TRANSFORMATION, e);
+                continue;
+            }
+            if (reference == null) {
+                reference = output;
+            } else if (!Arrays.equals(reference, output)) {
+                log.warn("Skipping JCE provider {}: its {} output differs from the first working provider's", provider.getName(), TRANSFORMATION);
+                continue;
+            }
+            Map<Integer, Double> throughput = new LinkedHashMap<>();
+            double logSum = 0;
+            for (int size : payloadSizes) {
+                double megabytesPerSecond = measure(provider, size);
+                throughput.put(size, megabytesPerSecond);
+                logSum += Math.log(megabytesPerSecond);
+            }
+            results.put(provider.getName(), throughput);
+            double score = Math.exp(logSum / payloadSizes.size());
+            log.info("JCE provider {} {}: {} MB/s by payload size, score {}", provider.getName(), TRANSFORMATION,
+                    format(throughput), String.format(Locale.ROOT, "%.1f", score));
+            if (best == null || score > bestScore) {
+                best = provider;
+                bestScore = score;
+            }
+        }
+        if (best == null) {
+            throw new IllegalStateException("No working JCE provider for " + TRANSFORMATION + " among " + names);
+        }
+        pin(best);
+        log.info("Using fastest JCE provider {} for {}", best.getName(), TRANSFORMATION);
+        return new Selection(best.getName(), Reason.BENCHMARK, names, results);
+    }
+
+    private static void pin(Provider provider) {
+        List<Provider> candidates = candidates();
+        if (!candidates.isEmpty() && candidates.get(0) == provider) {
+            return;
+        }
+        // Moving the provider also moves it ahead for every other algorithm it implements
+        Security.removeProvider(provider.getName());
+        Security.insertProviderAt(provider, 1);
+    }
+
+    private static byte[] knownAnswer(Provider provider) throws GeneralSecurityException {
+        byte[] key = new byte[KEY_SIZE];
+        byte[] iv = new byte[IV_SIZE];
+        byte[] plaintext = new byte[100];
+        for (int i = 0; i < plaintext.length; i++) {
+            plaintext[i] = (byte) i;
+        }
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION, provider);
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new GCMParameterSpec(TAG_BITS, iv));
+        byte[] ciphertext = cipher.doFinal(plaintext);
+        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key, "AES"), new GCMParameterSpec(TAG_BITS, iv));
+        if (!Arrays.equals(cipher.doFinal(ciphertext), plaintext)) {
+            throw new GeneralSecurityException("Round trip returned different plaintext");
+        }
+        return ciphertext;
+    }
+
+    private double measure(Provider provider, int size) throws GeneralSecurityException {
+        byte[] key = new byte[KEY_SIZE];
+        new SecureRandom().nextBytes(key);
+        SecretKeySpec keySpec = new SecretKeySpec(key, "AES");
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION, provider);
+        byte[] plaintext = new byte[size];
+        byte[] ciphertext = new byte[size + TAG_BITS / 8];
+        long durationNanos = durationPerSize.toNanos();
+        encryptFor(cipher, keySpec, plaintext, ciphertext, durationNanos);
+        return encryptFor(cipher, keySpec, plaintext, ciphertext, durationNanos);
+    }
+
+    /**
+     * Encrypts {@code plaintext} repeatedly for about {@code durationNanos} and returns the throughput in MB/s.
+     */
+    private static double encryptFor(Cipher cipher, SecretKeySpec keySpec, byte[] plaintext, byte[] ciphertext,
+                                     long durationNanos) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_SIZE];
+        long bytes = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            // Providers refuse to encrypt twice in a row with the same key and IV
+            ThreadLocalRandom.current().nextBytes(iv);
+            cipher.init(Cipher.ENCRYPT_MODE, keySpec, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.doFinal(plaintext, 0, plaintext.length, ciphertext, 0);
+            bytes += plaintext.length;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < durationNanos);
+        return bytes / (elapsed / 1e9) / 1e6;
+    }
+
+    private static String format(Map<Integer, Double> throughput) {
+        List<String> parts = new ArrayList<>();
+        throughput.forEach((size, value) -> parts.add(size + " B=" + String.format(Locale.ROOT, "%.1f", value)));
+        return String.join(", ", parts);
+    }
+
+    public enum Reason {
+        /** Provider named in configuration */
+        CONFIGURED,
+        /** Fastest provider in the startup benchmark */
+        BENCHMARK,
+        /** First registered provider, nothing measured */
+        DEFAULT
+    }
+
+    /**
+     * @param provider                     name of the provider AES-GCM now runs on
+     * @param reason                       how the provider was chosen
+     * @param candidates                   providers that implement AES-GCM, in their original order
+     * @param throughputMegabytesPerSecond encrypt throughput per provider and payload size, empty unless benchmarked
+     */
+    public record Selection(String provider, Reason reason, List<String> candidates,
+                            Map<String, Map<Integer, Double>> throughputMegabytesPerSecond) {
+    }
+}
@@ -0,0 +1,245 @@
+package dev.jaderss.encrypt.crypto;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Wire encodings for ciphertext. {@code application/octet-stream} selects {@link #RAW}; {@code text/plain} selects
+ * one of the text encodings through its {@code encoding} parameter, e.g. {@code text/plain;encoding=hex}.
+ */
+public enum CiphertextEncoding {
+
+    RAW {
+        @Override
+        public byte[] encode(byte[] ciphertext) {
+            return ciphertext;
+        }
+
+        @Override
+        public byte[] decode(byte[] encoded) {
+            return encoded;
+        }
+
+        @Override
+        public int encodedLength(int ciphertextLength) {
+            return ciphertextLength;
+        }
+
+        @Override
+        public int encode(byte[] ciphertext, byte[] dst) {
+            System.arraycopy(ciphertext, 0, dst, 0, ciphertext.length);
+            return ciphertext.length;
+        }
+
+        @Override
+        public byte[] decode(ByteBuffer encoded) {
+            return toArray(encoded);
+        }
+
+        @Override
+        public void writeTo(byte[] ciphertext, OutputStream out) throws IOException {
+            out.write(ciphertext);
+        }
+    },
+    BASE64 {
+        @Override
+        public byte[] encode(byte[] ciphertext) {
+            return Base64.getEncoder().encode(ciphertext);
+        }
+
+        @Override
+        public byte[] decode(byte[] encoded) {
+            return Base64.getDecoder().decode(encoded);
+        }
+
+        @Override
+        public int encodedLength(int ciphertextLength) {
+            return 4 * ((ciphertextLength + 2) / 3);
+        }
+
+        @Override
+        public int encode(byte[] ciphertext, byte[] dst) {
+            return Base64.getEncoder().encode(ciphertext, dst);
+        }
+
+        @Override
+        public byte[] decode(ByteBuffer encoded) {
+            return toArray(Base64.getDecoder().decode(encoded));
+        }
+    },
+    BASE64URL {
+        @Override
+        public byte[] encode(byte[] ciphertext) {
+            return Base64.getUrlEncoder().withoutPadding().encode(ciphertext);
+        }
+
+        @Override
+        public byte[] decode(byte[] encoded) {
+            return Base64.getUrlDecoder().decode(encoded);
+        }
+
+        @Override
+        public int encodedLength(int ciphertextLength) {
+            return (4 * ciphertextLength + 2) / 3;
+        }
+
+        @Override
+        public int encode(byte[] ciphertext, byte[] dst) {
+            return Base64.getUrlEncoder().withoutPadding().encode(ciphertext, dst);
+        }
+
+        @Override
+        public byte[] decode(ByteBuffer encoded) {
+            return toArray(Base64.getUrlDecoder().decode(encoded));
+        }
+    },
+    HEX {
+        @Override
+        public byte[] encode(byte[] ciphertext) {
+            return HexFormat.of().formatHex(ciphertext).getBytes(StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public byte[] decode(byte[] encoded) {
+            return HexFormat.of().parseHex(new String(encoded, StandardCharsets.US_ASCII));
+        }
+
+        @Override
+        public int encodedLength(int ciphertextLength) {
+            return 2 * ciphertextLength;
+        }
+
+        @Override
+        public int encode(byte[] ciphertext, byte[] dst) {
+            for (int i = 0; i < ciphertext.length; i++) {
+                dst[2 * i] = HEX_DIGITS[(ciphertext[i] >> 4) & 0xf];
+                dst[2 * i + 1] = HEX_DIGITS[ciphertext[i] & 0xf];
+            }
+            return 2 * ciphertext.length;
+        }
+
+        @Override
+        public byte[] decode(ByteBuffer encoded) {
+            if (encoded.remaining() % 2 != 0) {
+                throw new IllegalArgumentException("Hex input must have an even length");
+            }
+            byte[] decoded = new byte[encoded.remaining() / 2];
+            for (int i = 0; i < decoded.length; i++) {
+                decoded[i] = (byte) ((HexFormat.fromHexDigit(encoded.get()) << 4) | HexFormat.fromHexDigit(encoded.get()));
+            }
+            return decoded;
+        }
+    };
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    public static final String ENCODING_PARAMETER = "encoding";
+
+    public abstract byte[] encode(byte[] ciphertext);
+
+    public abstract byte[] decode(byte[] encoded);
+
+    /**
+     * Exact number of bytes {@link #encode(byte[], byte[])} writes for a ciphertext of the given length.
+     */
+    public abstract int encodedLength(int ciphertextLength);
+
+    /**
+     * Encodes into {@code dst}, which must hold at least {@link #encodedLength(int)} bytes, and returns the
+     * number of bytes written.
+     */
+    public abstract int encode(byte[] ciphertext, byte[] dst);
+
+    /**
+     * Decodes the remaining bytes of {@code encoded}, e.g. a view of a request body, without copying them first.
+     */
+    public abstract byte[] decode(ByteBuffer encoded);
+
+    /**
+     * Writes the encoded ciphertext to {@code out} through a per-thread scratch buffer instead of a new array.
+     */
+    public void writeTo(byte[] ciphertext, OutputStream out) throws IOException {
+        byte[] buffer = ScratchBuffers.get(encodedLength(ciphertext.length));
+        out.write(buffer, 0, encode(ciphertext, buffer));
+    }
+
+    public String encodeToString(byte[] ciphertext) {
+        return new String(encode(ciphertext), StandardCharsets.US_ASCII);
+    }
+
+    public byte[] decode(String encoded) {
+        return decode(encoded.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public MediaType mediaType() {
+        return this == RAW ? MediaType.APPLICATION_OCTET_STREAM : MediaType.TEXT_PLAIN;
+    }
+
+    public static CiphertextEncoding of(MediaType mediaType) {
+        if (mediaType == null) {
+            return BASE64;
+        }
+        if (MediaType.APPLICATION_OCTET_STREAM.equalsTypeAndSubtype(mediaType)) {
+            return RAW;
+        }
+        String encoding = mediaType.getParameter(ENCODING_PARAMETER);
+        if (encoding == null) {
+            return BASE64;
+        }
+        CiphertextEncoding result = valueOf(encoding.toUpperCase(Locale.ROOT));
+        if (result == RAW) {
+            throw new IllegalArgumentException("Raw ciphertext requires application/octet-stream");
+        }
+        return result;
+    }
+
+    /**
+     * Negotiates like {@link #negotiate(List, CiphertextEncoding)} for an endpoint that only produces
+     * {@code text/plain}: {@code application/octet-stream} entries are ignored, so raw bytes are never sent
+     * labelled as text.
+     */
+    public static CiphertextEncoding negotiateText(List<MediaType> accepted) {
+        return negotiate(accepted.stream()
+                .filter(mediaType -> !MediaType.APPLICATION_OCTET_STREAM.equalsTypeAndSubtype(mediaType))
+                .toList(), BASE64);
+    }
+
+    public static CiphertextEncoding negotiate(List<MediaType> accepted, CiphertextEncoding defaultEncoding) {
+        List<MediaType> byQuality = accepted.stream()
+                .filter(mediaType -> mediaType.getQualityValue() > 0.0)
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .toList();
+        for (MediaType mediaType : byQuality) {
+            if (MediaType.APPLICATION_OCTET_STREAM.equalsTypeAndSubtype(mediaType)
+                    || MediaType.TEXT_PLAIN.equalsTypeAndSubtype(mediaType)) {
+                return of(mediaType);
+            }
+            if (mediaType.isWildcardType()) {
+                return defaultEncoding;
+            }
+            if (mediaType.isWildcardSubtype() && "text".equals(mediaType.getType())) {
+                return BASE64;
+            }
+        }
+        return defaultEncoding;
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,29 @@
+package dev.jaderss.encrypt.crypto;
+
+import java.io.IOException;
+
+/**
+ * A compression algorithm that can be applied to plaintext before encryption. The {@link #id()} is written
+ * into the ciphertext header, so it must never change once ciphertext has been produced with it.
+ */
+public interface CompressionCodec {
+
+    /**
+     * Stable identifier stored in the ciphertext header. {@code 0} is reserved.
+     */
+    byte id();
+
+    /**
+     * Name used to select the codec in configuration, e.g. {@code deflate}.
+     */
+    String name();
+
+    byte[] compress(byte[] data);
+
+    /**
+     * Decompresses {@code data}, failing as soon as the output would grow past {@code maxSize} bytes.
+     *
+     * @throws IOException if the data is malformed or decompresses to more than {@code maxSize} bytes
+     */
+    byte[] decompress(byte[] data, int maxSize) throws IOException;
+}
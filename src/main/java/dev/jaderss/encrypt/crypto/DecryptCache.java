@@ -0,0 +1,182 @@
+package dev.jaderss.encrypt.crypto;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+
+/**
+ * Bounded cache of decrypt results for ciphertexts that are decrypted over and over, such as session tokens.
+ * Entries are keyed by the SHA-256 of the ciphertext, so the ciphertext itself is not retained.
+ *
+ * <p>The cache is bounded by entry count and by plaintext bytes at the same time: every entry weighs at least
+ * {@code maxBytes / maxEntries}, so neither limit can be exceeded. Plaintext is held in direct buffers when
+ * {@code offHeap} is set, keeping it out of the old generation, and is zeroed when its entry is evicted,
+ * expires or is invalidated. Callers always get their own copy. A keyset change clears the cache, so a
+ * ciphertext whose key was removed stops decrypting from the cache as well.
+ */
+public class DecryptCache {
+
+    private final Cache<Key, Entry> cache;
+    private final int maxEntrySize;
+    private final boolean offHeap;
+    private volatile long keysetVersion = -1;
+
+    /**
+     * @param maxEntries   most entries held at once
+     * @param maxBytes     most plaintext bytes held at once
+     * @param maxEntrySize larger plaintexts are never cached
+     * @param ttl          time after which an entry is dropped, however often it is hit
+     * @param offHeap      whether plaintext lives in direct buffers
+     */
+    public DecryptCache(long maxEntries, long maxBytes, int maxEntrySize, Duration ttl, boolean offHeap, MeterRegistry meterRegistry) {
+        if (maxEntries < 1 || maxBytes < 1 || maxEntrySize < 0) {
+            throw new IllegalArgumentException("Decrypt cache sizes must be positive");
+        }
+        long minWeight = Math.max(1, (maxBytes + maxEntries - 1) / maxEntries);
+        this.maxEntrySize = maxEntrySize;
+        this.offHeap = offHeap;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Entry entry) -> (int) Math.min(Integer.MAX_VALUE, Math.max(minWeight, entry.size())))
+                .expireAfterWrite(ttl)
+                // Expired plaintext should be wiped promptly, not on the next unrelated cache access
+                .scheduler(Scheduler.systemScheduler())
+                .executor(Runnable::run)
+                .removalListener((Key key, Entry entry, RemovalCause cause) -> {
+                    if (entry != null) {
+                        entry.wipe();
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "decrypt.results");
+        Gauge.builder("decrypt.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of decrypts served from the cache")
+                .register(meterRegistry);
+        Gauge.builder("decrypt.cache.weighted.size", cache, c -> c.policy().eviction().orElseThrow().weightedSize().orElse(0))
+                .description("Plaintext bytes held by the decrypt cache, counting small entries at their minimum weight")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private DecryptCache() {
+        this.cache = null;
+        this.maxEntrySize = 0;
+        this.offHeap = false;
+    }
+
+    /**
+     * A cache that never caches and always calls the loader.
+     */
+    public static DecryptCache disabled() {
+        return new DecryptCache();
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Returns the cached plaintext of {@code ciphertext}, or decrypts it with {@code loader} and caches the result.
+     *
+     * @param keysetVersion version of the keyset {@code loader} decrypts with; a new version clears the cache
+     */
+    public byte[] decrypt(byte[] ciphertext, long keysetVersion, Loader loader) throws GeneralSecurityException {
+        if (cache == null) {
+            return loader.decrypt();
+        }
+        if (keysetVersion != this.keysetVersion) {
+            onKeysetChange(keysetVersion);
+        }
+        Key key = Key.of(ciphertext);
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.keysetVersion == keysetVersion) {
+            byte[] plaintext = entry.copy();
+            if (plaintext != null) {
+                return plaintext;
+            }
+        }
+        byte[] plaintext = loader.decrypt();
+        if (plaintext.length <= maxEntrySize) {
+            cache.put(key, new Entry(plaintext, keysetVersion, offHeap));
+        }
+        return plaintext;
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    private synchronized void onKeysetChange(long version) {
+        if (version > keysetVersion) {
+            keysetVersion = version;
+            cache.invalidateAll();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+        byte[] decrypt() throws GeneralSecurityException;
+    }
+
+    private record Key(long a, long b, long c, long d) {
+
+        private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        });
+
+        static Key of(byte[] ciphertext) {
+            ByteBuffer digest = ByteBuffer.wrap(SHA_256.get().digest(ciphertext));
+            return new Key(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+        }
+    }
+
+    private static final class Entry {
+
+        private final ByteBuffer plaintext;
+        private final long keysetVersion;
+        private boolean wiped;
+
+        Entry(byte[] plaintext, long keysetVersion, boolean offHeap) {
+            this.plaintext = offHeap ? ByteBuffer.allocateDirect(plaintext.length) : ByteBuffer.allocate(plaintext.length);
+            this.plaintext.put(0, plaintext);
+            this.keysetVersion = keysetVersion;
+        }
+
+        int size() {
+            return plaintext.capacity();
+        }
+
+        synchronized byte[] copy() {
+            if (wiped) {
+                return null;
+            }
+            byte[] copy = new byte[plaintext.capacity()];
+            plaintext.get(0, copy);
+            return copy;
+        }
+
+        synchronized void wipe() {
+            for (int i = 0; i < plaintext.capacity(); i++) {
+                plaintext.put(i, (byte) 0);
+            }
+            wiped = true;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package dev.jaderss.encrypt.crypto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Raw DEFLATE from the JDK, without zlib or gzip framing; integrity already comes from the AEAD tag.
+ */
+public class DeflateCodec implements CompressionCodec {
+
+    public static final byte ID = 1;
+    public static final String NAME = "deflate";
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final int level;
+
+    public DeflateCodec() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public DeflateCodec(int level) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Deflate level must be between 0 and 9, or -1 for the default");
+        }
+        this.level = level;
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+            byte[] chunk = new byte[CHUNK_SIZE];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(chunk);
+                out.write(chunk, 0, written);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int maxSize) throws IOException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(maxSize, Math.max(64, data.length * 4)));
+            byte[] chunk = new byte[CHUNK_SIZE];
+            while (!inflater.finished()) {
+                int written = inflater.inflate(chunk);
+                if (written == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated deflate stream");
+                }
+                if (out.size() + written > maxSize) {
+                    throw new IOException("Decompressed payload exceeds " + maxSize + " bytes");
+                }
+                out.write(chunk, 0, written);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Malformed deflate stream", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
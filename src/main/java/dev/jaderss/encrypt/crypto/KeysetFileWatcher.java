@@ -0,0 +1,146 @@
+package dev.jaderss.encrypt.crypto;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.InsecureSecretKeyAccess;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.TinkJsonProtoKeysetFormat;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Watches a JSON keyset file and swaps it into a {@link PrimitiveHolder} when it changes. Parsing and
+ * validation run on a dedicated daemon thread; a keyset that fails to parse or to round-trip is logged
+ * and ignored, so the previous keyset stays active.
+ */
+@Slf4j
+public class KeysetFileWatcher implements AutoCloseable {
+
+    private static final long DEBOUNCE_MILLIS = 200;
+    private static final byte[] PROBE = "keyset-probe".getBytes(StandardCharsets.US_ASCII);
+
+    private final Path keyFile;
+    private final PrimitiveHolder<Aead> holder;
+    private final Counter reloads;
+    private final Counter failures;
+
+    private byte[] lastContent;
+    private volatile WatchService watchService;
+    private Thread thread;
+
+    public KeysetFileWatcher(Path keyFile, PrimitiveHolder<Aead> holder, MeterRegistry meterRegistry) {
+        this.keyFile = keyFile.toAbsolutePath().normalize();
+        this.holder = holder;
+        this.reloads = Counter.builder("keyset.reloads").tag("result", "success")
+                .description("Keyset file reloads").register(meterRegistry);
+        this.failures = Counter.builder("keyset.reloads").tag("result", "failure")
+                .description("Keyset file reloads").register(meterRegistry);
+    }
+
+    public static KeysetHandle read(Path keyFile) throws GeneralSecurityException, IOException {
+        return TinkJsonProtoKeysetFormat.parseKeyset(Files.readString(keyFile, StandardCharsets.UTF_8), InsecureSecretKeyAccess.get());
+    }
+
+    public synchronized void start() throws IOException {
+        if (thread != null) {
+            return;
+        }
+        lastContent = Files.readAllBytes(keyFile);
+        watchService = keyFile.getFileSystem().newWatchService();
+        // Watch the directory, not the file, so atomic replace-by-rename is picked up too
+        keyFile.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::watch, "keyset-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching keyset file {}", keyFile);
+    }
+
+    /**
+     * Reads, validates and publishes the keyset file. Returns {@code true} if a new keyset was swapped in.
+     */
+    public synchronized boolean reload() {
+        try {
+            byte[] content = Files.readAllBytes(keyFile);
+            if (Arrays.equals(content, lastContent)) {
+                return false;
+            }
+            KeysetHandle keysetHandle = TinkJsonProtoKeysetFormat.parseKeyset(new String(content, StandardCharsets.UTF_8), InsecureSecretKeyAccess.get());
+            Aead candidate = keysetHandle.getPrimitive(Aead.class);
+            if (!Arrays.equals(candidate.decrypt(candidate.encrypt(PROBE, PROBE), PROBE), PROBE)) {
+                throw new GeneralSecurityException("Keyset failed round-trip validation");
+            }
+
+            warnOnDroppedKeys(holder.snapshot(), keysetHandle);
+            PrimitiveHolder.Snapshot<Aead> snapshot = holder.update(keysetHandle);
+            lastContent = content;
+            reloads.increment();
+            log.info("Reloaded keyset from {} (version {}, primary key {})", keyFile, snapshot.version(), snapshot.primaryKeyId());
+            return true;
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            failures.increment();
+            log.error("Ignoring invalid keyset file {}; keeping the current keyset", keyFile, e);
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || keyFile.getFileName().equals(event.context());
+                }
+                key.reset();
+                if (changed) {
+                    // Editors and config-management tools often write in several steps
+                    Thread.sleep(DEBOUNCE_MILLIS);
+                    reload();
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            log.debug("Keyset watcher stopped");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void warnOnDroppedKeys(PrimitiveHolder.Snapshot<Aead> previous, KeysetHandle next) {
+        Set<Long> nextIds = new HashSet<>();
+        for (int i = 0; i < next.size(); i++) {
+            nextIds.add(Integer.toUnsignedLong(next.getAt(i).getId()));
+        }
+        Set<Long> dropped = new TreeSet<>();
+        for (long keyId : previous.sortedKeyIds()) {
+            if (!nextIds.contains(keyId)) {
+                dropped.add(keyId);
+            }
+        }
+        if (!dropped.isEmpty()) {
+            log.warn("New keyset drops key IDs {}; ciphertext written with them can no longer be decrypted", dropped);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package dev.jaderss.encrypt.crypto;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.List;
+
+/**
+ * Compress-then-encrypt framing. A compressed ciphertext is {@code magic(2) | version(1) | codec(1)}
+ * followed by the AEAD ciphertext of the compressed plaintext, with the four header bytes bound as associated
+ * data so the codec cannot be swapped. Anything without the header is a legacy ciphertext of the plain bytes.
+ *
+ * <p>Tink-prefixed ciphertexts start with {@code 0x00} or {@code 0x01}, so they never look like a header.
+ * Ciphertexts from RAW keys can, by chance; callers should fall back to the legacy format when decrypting a
+ * ciphertext that has a header fails.
+ *
+ * <p>Reading is always enabled for every registered codec. Writing only happens when a codec is selected and
+ * the plaintext is at least {@code minSize} bytes, and only if compression actually saves space.
+ */
+public class PayloadCompression {
+
+    public static final int HEADER_SIZE = 4;
+
+    private static final byte MAGIC_0 = (byte) 0xC5;
+    private static final byte MAGIC_1 = (byte) 0x7A;
+    private static final byte VERSION = 1;
+
+    private final CompressionCodec[] codecsById = new CompressionCodec[256];
+    private final CompressionCodec writeCodec;
+    private final int minSize;
+    private final int maxDecompressedSize;
+
+    /**
+     * @param codecs              codecs that can be read
+     * @param writeCodec          codec for new ciphertexts, or {@code null} to never compress
+     * @param minSize             smallest plaintext worth compressing
+     * @param maxDecompressedSize decompressed payloads above this size are rejected
+     */
+    public PayloadCompression(List<CompressionCodec> codecs, CompressionCodec writeCodec, int minSize, int maxDecompressedSize) {
+        for (CompressionCodec codec : codecs) {
+            int index = codec.id() & 0xff;
+            if (index == 0 || codecsById[index] != null) {
+                throw new IllegalArgumentException("Duplicate or reserved compression codec ID " + index);
+            }
+            codecsById[index] = codec;
+        }
+        if (writeCodec != null && codecsById[writeCodec.id() & 0xff] != writeCodec) {
+            throw new IllegalArgumentException("Compression codec " + writeCodec.name() + " is not registered");
+        }
+        if (minSize < 0 || maxDecompressedSize < 1) {
+            throw new IllegalArgumentException("Compression sizes must be positive");
+        }
+        this.writeCodec = writeCodec;
+        this.minSize = minSize;
+        this.maxDecompressedSize = maxDecompressedSize;
+    }
+
+    /**
+     * Reads compressed ciphertexts with the built-in codecs but never writes them.
+     */
+    public static PayloadCompression disabled() {
+        return new PayloadCompression(List.of(new DeflateCodec()), null, 0, Integer.MAX_VALUE);
+    }
+
+    public boolean isEnabled() {
+        return writeCodec != null;
+    }
+
+    /**
+     * Compresses {@code plaintext} if it is large enough and compression pays off.
+     *
+     * @return the header and compressed bytes, or {@code null} to store the plaintext in the legacy format
+     */
+    public Compressed compress(byte[] plaintext) {
+        if (writeCodec == null || plaintext.length < minSize) {
+            return null;
+        }
+        byte[] compressed = writeCodec.compress(plaintext);
+        if (compressed.length + HEADER_SIZE >= plaintext.length) {
+            return null;
+        }
+        return new Compressed(new byte[]{MAGIC_0, MAGIC_1, VERSION, writeCodec.id()}, compressed);
+    }
+
+    public static boolean hasHeader(byte[] ciphertext) {
+        return ciphertext.length > HEADER_SIZE
+                && ciphertext[0] == MAGIC_0 && ciphertext[1] == MAGIC_1 && ciphertext[2] == VERSION;
+    }
+
+    /**
+     * Decompresses the decrypted body of a ciphertext whose header is {@code header}.
+     *
+     * @throws GeneralSecurityException if the codec is unknown, or the body is malformed or too large
+     */
+    public byte[] decompress(byte[] header, byte[] body) throws GeneralSecurityException {
+        CompressionCodec codec = codecsById[header[3] & 0xff];
+        if (codec == null) {
+            throw new GeneralSecurityException("Unknown compression codec " + (header[3] & 0xff));
+        }
+        try {
+            return codec.decompress(body, maxDecompressedSize);
+        } catch (IOException e) {
+            throw new GeneralSecurityException("Cannot decompress payload", e);
+        }
+    }
+
+    public record Compressed(byte[] header, byte[] body) {
+    }
+}
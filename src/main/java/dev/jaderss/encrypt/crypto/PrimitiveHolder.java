@@ -0,0 +1,55 @@
+package dev.jaderss.encrypt.crypto;
+
+import com.google.crypto.tink.KeysetHandle;
+
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds a Tink primitive built once from a {@link KeysetHandle}. Reads are a single volatile load;
+ * {@link #update(KeysetHandle)} builds the new primitive first and then publishes it atomically.
+ */
+public class PrimitiveHolder<P> {
+
+    private final Class<P> primitiveClass;
+    private final AtomicReference<Snapshot<P>> current;
+
+    public PrimitiveHolder(KeysetHandle keysetHandle, Class<P> primitiveClass) throws GeneralSecurityException {
+        this.primitiveClass = primitiveClass;
+        this.current = new AtomicReference<>(Snapshot.of(keysetHandle, keysetHandle.getPrimitive(primitiveClass), 0));
+    }
+
+    public P primitive() {
+        return current.get().primitive();
+    }
+
+    public Snapshot<P> snapshot() {
+        return current.get();
+    }
+
+    public KeysetHandle keysetHandle() {
+        return current.get().keysetHandle();
+    }
+
+    public Snapshot<P> update(KeysetHandle keysetHandle) throws GeneralSecurityException {
+        P primitive = keysetHandle.getPrimitive(primitiveClass);
+        return current.updateAndGet(previous -> Snapshot.of(keysetHandle, primitive, previous.version() + 1));
+    }
+
+    public record Snapshot<P>(KeysetHandle keysetHandle, P primitive, long version, long primaryKeyId, long[] sortedKeyIds) {
+
+        static <P> Snapshot<P> of(KeysetHandle keysetHandle, P primitive, long version) {
+            long[] keyIds = new long[keysetHandle.size()];
+            for (int i = 0; i < keyIds.length; i++) {
+                keyIds[i] = Integer.toUnsignedLong(keysetHandle.getAt(i).getId());
+            }
+            Arrays.sort(keyIds);
+            return new Snapshot<>(keysetHandle, primitive, version, Integer.toUnsignedLong(keysetHandle.getPrimary().getId()), keyIds);
+        }
+
+        public boolean containsKeyId(long keyId) {
+            return Arrays.binarySearch(sortedKeyIds, keyId) >= 0;
+        }
+    }
+}
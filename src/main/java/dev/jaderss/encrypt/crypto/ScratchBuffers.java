@@ -0,0 +1,33 @@
+package dev.jaderss.encrypt.crypto;
+
+/**
+ * Per-thread scratch arrays for encoding output that is written out immediately. Arrays above
+ * {@link #MAX_POOLED_SIZE} are not kept, so a rare large request does not pin memory on the thread.
+ */
+final class ScratchBuffers {
+
+    static final int MAX_POOLED_SIZE = 256 * 1024;
+
+    private static final int MIN_SIZE = 1024;
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[MIN_SIZE]);
+
+    private ScratchBuffers() {
+    }
+
+    /**
+     * Returns an array of at least {@code minCapacity} bytes. Its content is undefined, and it must not be
+     * used after the current call returns.
+     */
+    static byte[] get(int minCapacity) {
+        byte[] buffer = BUFFER.get();
+        if (buffer.length >= minCapacity) {
+            return buffer;
+        }
+        if (minCapacity > MAX_POOLED_SIZE) {
+            return new byte[minCapacity];
+        }
+        buffer = new byte[Math.min(Integer.highestOneBit(minCapacity - 1) << 1, MAX_POOLED_SIZE)];
+        BUFFER.set(buffer);
+        return buffer;
+    }
+}
@@ -0,0 +1,25 @@
+package dev.jaderss.encrypt.crypto;
+
+public final class TinkKeyIds {
+
+    public static final long NO_KEY_ID = -1L;
+
+    private static final byte TINK_START_BYTE = 0x01;
+    private static final byte LEGACY_START_BYTE = 0x00;
+    private static final int PREFIX_SIZE = 5;
+
+    private TinkKeyIds() {
+    }
+
+    /**
+     * Reads the key ID from the 5-byte Tink output prefix, or returns {@link #NO_KEY_ID} when the ciphertext has
+     * no prefix. RAW keys produce ciphertexts without a prefix, so a match is only a hint.
+     */
+    public static long of(byte[] ciphertext) {
+        if (ciphertext.length < PREFIX_SIZE || (ciphertext[0] != TINK_START_BYTE && ciphertext[0] != LEGACY_START_BYTE)) {
+            return NO_KEY_ID;
+        }
+        int keyId = ((ciphertext[1] & 0xff) << 24) | ((ciphertext[2] & 0xff) << 16) | ((ciphertext[3] & 0xff) << 8) | (ciphertext[4] & 0xff);
+        return Integer.toUnsignedLong(keyId);
+    }
+}
@@ -0,0 +1,85 @@
+package dev.jaderss.encrypt.csv;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Columns to transform, each given by header name or by 1-based column number as in {@code cut -f}. A header name
+ * takes precedence over a number that happens to look the same.
+ */
+public final class CsvColumns {
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final List<String> columns;
+
+    private CsvColumns(List<String> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no column is given or one is blank
+     */
+    public static CsvColumns parse(List<String> columns) {
+        if (columns == null || columns.isEmpty()) {
+            throw new IllegalArgumentException("At least one column is required");
+        }
+        List<String> trimmed = columns.stream().map(String::trim).toList();
+        if (trimmed.stream().anyMatch(String::isEmpty)) {
+            throw new IllegalArgumentException("Column names must not be blank");
+        }
+        return new CsvColumns(trimmed);
+    }
+
+    public List<String> columns() {
+        return columns;
+    }
+
+    /**
+     * Resolves the columns against the header record, or by number alone when the input has no header.
+     *
+     * @return sorted 0-based field indexes
+     * @throws IllegalArgumentException if a column is neither a header name nor a positive number
+     */
+    public int[] resolve(CsvRecord header) {
+        List<String> names = header == null ? List.of() : names(header);
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (String column : columns) {
+            int index = names.indexOf(column);
+            if (index < 0) {
+                index = number(column) - 1;
+            }
+            indexes.add(index);
+        }
+        return indexes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static List<String> names(CsvRecord header) {
+        String[] names = new String[header.fields().length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = new String(header.fields()[i], StandardCharsets.UTF_8).trim();
+        }
+        if (names.length > 0 && !names[0].isEmpty() && names[0].charAt(0) == BYTE_ORDER_MARK) {
+            names[0] = names[0].substring(1);
+        }
+        return List.of(names);
+    }
+
+    private static int number(String column) {
+        try {
+            int number = Integer.parseInt(column);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to the error below
+        }
+        throw new IllegalArgumentException("Unknown column " + column + "; use a header name or a column number from 1");
+    }
+
+    @Override
+    public String toString() {
+        return columns.toString();
+    }
+}
@@ -0,0 +1,13 @@
+package dev.jaderss.encrypt.csv;
+
+import java.io.IOException;
+
+/**
+ * The input is not valid CSV, or a cell does not hold what the operation expects.
+ */
+public class CsvFormatException extends IOException {
+
+    public CsvFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,147 @@
+package dev.jaderss.encrypt.csv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader that returns each record as raw field bytes. Quoted fields may contain the delimiter,
+ * doubled quotes and line breaks; {@code \r\n} and {@code \n} both end a record. Only the current record is held
+ * in memory, and a record longer than {@code maxRecordSize} bytes is rejected, so an unterminated quote cannot
+ * swallow the whole input.
+ */
+public final class CsvReader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int END = -1;
+
+    private final InputStream in;
+    private final int delimiter;
+    private final int maxRecordSize;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private byte[] field = new byte[128];
+    private int fieldLength;
+    private int recordSize;
+    private long recordNumber;
+    private byte[] lineEnd;
+
+    public CsvReader(InputStream in, byte delimiter, int maxRecordSize) {
+        this.in = in;
+        this.delimiter = delimiter & 0xFF;
+        this.maxRecordSize = maxRecordSize;
+    }
+
+    /**
+     * Returns the next record, or {@code null} at the end of the input.
+     *
+     * @throws CsvFormatException if a quoted field is malformed or the record is too long
+     */
+    public CsvRecord next() throws IOException {
+        int b = read();
+        if (b == END) {
+            return null;
+        }
+        recordNumber++;
+        recordSize = 0;
+        List<byte[]> fields = new ArrayList<>();
+        while (true) {
+            fieldLength = 0;
+            b = b == '"' ? readQuoted() : readUnquoted(b);
+            fields.add(Arrays.copyOf(field, fieldLength));
+            if (b != delimiter) {
+                return new CsvRecord(recordNumber, fields.toArray(new byte[0][]));
+            }
+            b = read();
+        }
+    }
+
+    /**
+     * Line terminator of the first record, {@code \n} if none was seen yet; writers reuse it for the output.
+     */
+    public byte[] lineEnd() {
+        return lineEnd == null ? new byte[]{'\n'} : lineEnd;
+    }
+
+    /**
+     * Reads an unquoted field starting with {@code b} and returns the byte that ended it.
+     */
+    private int readUnquoted(int b) throws IOException {
+        while (b != END && b != delimiter && b != '\n') {
+            append(b);
+            b = read();
+        }
+        if (b == '\n') {
+            boolean crlf = fieldLength > 0 && field[fieldLength - 1] == '\r';
+            if (crlf) {
+                fieldLength--;
+            }
+            if (lineEnd == null) {
+                lineEnd = crlf ? new byte[]{'\r', '\n'} : new byte[]{'\n'};
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Reads a quoted field after its opening quote and returns the byte that ended it.
+     */
+    private int readQuoted() throws IOException {
+        while (true) {
+            int b = read();
+            if (b == END) {
+                throw new CsvFormatException("Record " + recordNumber + " has an unterminated quoted field");
+            }
+            if (b == '"') {
+                b = read();
+                if (b != '"') {
+                    return afterClosingQuote(b);
+                }
+            }
+            append(b);
+        }
+    }
+
+    private int afterClosingQuote(int b) throws IOException {
+        boolean crlf = b == '\r';
+        if (crlf) {
+            b = read();
+        }
+        if (b == '\n') {
+            if (lineEnd == null) {
+                lineEnd = crlf ? new byte[]{'\r', '\n'} : new byte[]{'\n'};
+            }
+            return b;
+        }
+        if (crlf || (b != END && b != delimiter)) {
+            throw new CsvFormatException("Record " + recordNumber + " has text after a closing quote");
+        }
+        return b;
+    }
+
+    private void append(int b) throws CsvFormatException {
+        if (++recordSize > maxRecordSize) {
+            throw new CsvFormatException("Record " + recordNumber + " is longer than " + maxRecordSize + " bytes");
+        }
+        if (fieldLength == field.length) {
+            field = Arrays.copyOf(field, field.length * 2);
+        }
+        field[fieldLength++] = (byte) b;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return END;
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+}
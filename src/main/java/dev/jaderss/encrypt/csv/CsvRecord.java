@@ -0,0 +1,19 @@
+package dev.jaderss.encrypt.csv;
+
+/**
+ * @param number 1-based record number in the input, counting the header
+ * @param fields raw field bytes, unquoted
+ */
+public record CsvRecord(long number, byte[][] fields) {
+
+    /**
+     * Bytes held by the fields, plus one per field for its array slot.
+     */
+    public long size() {
+        long size = fields.length;
+        for (byte[] field : fields) {
+            size += field.length;
+        }
+        return size;
+    }
+}
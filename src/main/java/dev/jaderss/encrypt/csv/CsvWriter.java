@@ -0,0 +1,52 @@
+package dev.jaderss.encrypt.csv;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Writes records in RFC 4180 form. A field is quoted only if it contains the delimiter, a quote or a line break,
+ * so unquoted input fields come out byte for byte as they went in.
+ */
+public final class CsvWriter {
+
+    private final byte delimiter;
+    private final byte[] lineEnd;
+
+    public CsvWriter(byte delimiter, byte[] lineEnd) {
+        this.delimiter = delimiter;
+        this.lineEnd = lineEnd.clone();
+    }
+
+    public void write(byte[][] fields, ByteArrayOutputStream out) {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(delimiter);
+            }
+            byte[] field = fields[i];
+            if (!needsQuotes(field)) {
+                out.write(field, 0, field.length);
+                continue;
+            }
+            out.write('"');
+            int start = 0;
+            for (int j = 0; j < field.length; j++) {
+                if (field[j] == '"') {
+                    // Write up to and including the quote, then the quote again
+                    out.write(field, start, j + 1 - start);
+                    start = j;
+                }
+            }
+            out.write(field, start, field.length - start);
+            out.write('"');
+        }
+        out.write(lineEnd, 0, lineEnd.length);
+    }
+
+    private boolean needsQuotes(byte[] field) {
+        for (byte b : field) {
+            if (b == delimiter || b == '"' || b == '\n' || b == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,143 @@
+package dev.jaderss.encrypt.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Adaptive concurrency limit with additive increase and multiplicative decrease (AIMD), driven by the latency of
+ * the requests it admits. A request slower than the latency threshold shrinks the limit by the backoff ratio; any
+ * other request grows it by {@code 1 / limit}, about one per limit's worth of requests, but only while the limit
+ * is actually being used, so an idle node does not drift to the maximum.
+ *
+ * <p>Only requests admitted after the last decrease can trigger another one. A burst of slow requests that were
+ * all in flight together therefore counts as one congestion signal, the way TCP treats losses within one window.
+ *
+ * <p>Latency runs from admission, or from {@link Permit#bodyRead()} if the caller marks the end of the upload, so
+ * a slow client does not look like an overloaded node.
+ */
+public class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+
+    private double limit;
+    private long lastDecreaseNanos;
+    private volatile int currentLimit;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio,
+                       MeterRegistry meterRegistry) {
+        this(initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio, meterRegistry, System::nanoTime);
+    }
+
+    AimdLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio,
+                MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.nanoClock = nanoClock;
+        this.limit = initialLimit;
+        this.currentLimit = initialLimit;
+        this.lastDecreaseNanos = nanoClock.getAsLong();
+        Gauge.builder("crypto.concurrency.limit", this, AimdLimiter::limit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("crypto.concurrency.in.flight", inFlight, AtomicInteger::get)
+                .description("Requests currently admitted by the concurrency limiter")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("crypto.concurrency.rejected")
+                .description("Requests rejected by the concurrency limiter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a request if fewer than {@link #limit()} are in flight.
+     *
+     * @return a permit to release when the request completes, or {@code null} if the request must be rejected
+     */
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                rejected.increment();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(nanoClock.getAsLong(), current + 1);
+            }
+        }
+    }
+
+    public int limit() {
+        return currentLimit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void release(Permit permit) {
+        inFlight.decrementAndGet();
+        long now = nanoClock.getAsLong();
+        long latency = now - permit.measureFromNanos;
+        synchronized (this) {
+            if (latency > latencyThresholdNanos) {
+                if (permit.startNanos - lastDecreaseNanos > 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = now;
+                }
+            } else if (permit.inFlight * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            currentLimit = (int) limit;
+        }
+    }
+
+    public final class Permit {
+
+        private final long startNanos;
+        private final int inFlight;
+        private long measureFromNanos;
+        private boolean released;
+
+        private Permit(long startNanos, int inFlight) {
+            this.startNanos = startNanos;
+            this.inFlight = inFlight;
+            this.measureFromNanos = startNanos;
+        }
+
+        /**
+         * Marks the request body as fully read; the latency fed into the limit is measured from here instead.
+         */
+        public void bodyRead() {
+            measureFromNanos = nanoClock.getAsLong();
+        }
+
+        /**
+         * Ends the request and feeds its latency into the limit. Releasing twice has no effect.
+         */
+        public void release() {
+            if (released) {
+                return;
+            }
+            released = true;
+            AimdLimiter.this.release(this);
+        }
+    }
+}
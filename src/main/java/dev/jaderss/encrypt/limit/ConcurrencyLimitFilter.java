@@ -0,0 +1,110 @@
+package dev.jaderss.encrypt.limit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds load in front of the crypto endpoints. Requests over the {@link AimdLimiter}'s current limit are answered
+ * with {@code 503} and a {@code Retry-After} header straight away, without reading the body, so excess load is
+ * turned away cheaply instead of queueing on worker threads.
+ *
+ * <p>The permit's latency is measured from the moment the handler reads the body to its end, so slow uploads do
+ * not shrink the limit.
+ */
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AimdLimiter limiter;
+    private final long retryAfterSeconds;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AimdLimiter.Permit permit = limiter.tryAcquire();
+        if (permit == null) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            return;
+        }
+        try {
+            filterChain.doFilter(new BodyTimingRequest(request, permit), response);
+        } finally {
+            permit.release();
+        }
+    }
+
+    private static final class BodyTimingRequest extends HttpServletRequestWrapper {
+
+        private final AimdLimiter.Permit permit;
+        private ServletInputStream inputStream;
+
+        BodyTimingRequest(HttpServletRequest request, AimdLimiter.Permit permit) {
+            super(request);
+            this.permit = permit;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new BodyTimingInputStream(super.getInputStream(), permit);
+            }
+            return inputStream;
+        }
+    }
+
+    private static final class BodyTimingInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+        private final AimdLimiter.Permit permit;
+        private boolean finished;
+
+        BodyTimingInputStream(ServletInputStream delegate, AimdLimiter.Permit permit) {
+            this.delegate = delegate;
+            this.permit = permit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return onRead(delegate.read());
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return onRead(delegate.read(b, off, len));
+        }
+
+        private int onRead(int result) {
+            if (result == -1 && !finished) {
+                finished = true;
+                permit.bodyRead();
+            }
+            return result;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+    }
+}
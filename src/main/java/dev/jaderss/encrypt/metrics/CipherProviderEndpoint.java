@@ -0,0 +1,23 @@
+package dev.jaderss.encrypt.metrics;
+
+import dev.jaderss.encrypt.crypto.CipherProviderSelector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/cipherprovider}: which JCE provider AES-GCM runs on, why, and the startup benchmark numbers.
+ */
+@Component
+@Endpoint(id = "cipherprovider")
+@RequiredArgsConstructor
+public class CipherProviderEndpoint {
+
+    private final CipherProviderSelector.Selection cipherProviderSelection;
+
+    @ReadOperation
+    public CipherProviderSelector.Selection selection() {
+        return cipherProviderSelection;
+    }
+}
@@ -0,0 +1,128 @@
+package dev.jaderss.encrypt.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for {@code SecurityService}. Every meter except the per-key counters is registered up front, and the
+ * counter of the last key seen per operation is cached, so recording on the hot path neither allocates nor locks.
+ * Callers pass {@link #UNKNOWN_KEY_ID} for key IDs outside the keyset, so untrusted ciphertext prefixes cannot
+ * create new meters.
+ */
+@Component
+public class CryptoMetrics {
+
+    public enum Operation {
+        ENCRYPT, DECRYPT;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    public enum ErrorCause {
+        BAD_ENCODING, AUTH_FAILURE, UNKNOWN_KEY_ID, OTHER;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Key ID to record when the ciphertext's prefix names no key of the keyset, tagged {@code unknown}.
+     */
+    public static final long UNKNOWN_KEY_ID = -2L;
+
+    private final MeterRegistry registry;
+    private final Map<Operation, Timer> timers = new EnumMap<>(Operation.class);
+    private final Map<Operation, DistributionSummary> payloadSizes = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<ErrorCause, Counter>> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Long, Counter>> keyCounters = new EnumMap<>(Operation.class);
+    private final Map<Operation, KeyCounter> lastKeyCounters = new EnumMap<>(Operation.class);
+
+    public CryptoMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Operation operation : Operation.values()) {
+            timers.put(operation, Timer.builder("crypto.operation")
+                    .description("Latency of AEAD operations")
+                    .tag("operation", operation.tag)
+                    .publishPercentiles(0.5, 0.95, 0.99, 0.999)
+                    .publishPercentileHistogram()
+                    .register(registry));
+            payloadSizes.put(operation, DistributionSummary.builder("crypto.payload.size")
+                    .description("Input size of AEAD operations")
+                    .baseUnit("bytes")
+                    .tag("operation", operation.tag)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(16.0)
+                    .maximumExpectedValue(64.0 * 1024 * 1024)
+                    .register(registry));
+            Map<ErrorCause, Counter> causes = new EnumMap<>(ErrorCause.class);
+            for (ErrorCause cause : ErrorCause.values()) {
+                causes.put(cause, Counter.builder("crypto.errors")
+                        .description("Failed AEAD operations by cause")
+                        .tag("operation", operation.tag)
+                        .tag("cause", cause.tag)
+                        .register(registry));
+            }
+            errors.put(operation, causes);
+            keyCounters.put(operation, new ConcurrentHashMap<>());
+            lastKeyCounters.put(operation, new KeyCounter());
+        }
+    }
+
+    public void recordSuccess(Operation operation, long startNanos, int payloadBytes, long keyId) {
+        timers.get(operation).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        payloadSizes.get(operation).record(payloadBytes);
+        keyCounter(operation, keyId).increment();
+    }
+
+    public void recordError(Operation operation, ErrorCause cause) {
+        errors.get(operation).get(cause).increment();
+    }
+
+    private Counter keyCounter(Operation operation, long keyId) {
+        KeyCounter last = lastKeyCounters.get(operation);
+        Counter counter = last.counterFor(keyId);
+        if (counter != null) {
+            return counter;
+        }
+        counter = keyCounters.get(operation).computeIfAbsent(keyId, id -> Counter.builder("crypto.key.usage")
+                .description("AEAD operations per key ID")
+                .tag("operation", operation.tag)
+                .tag("key.id", keyIdTag(id))
+                .register(registry));
+        last.remember(keyId, counter);
+        return counter;
+    }
+
+    private static String keyIdTag(long keyId) {
+        if (keyId == UNKNOWN_KEY_ID) {
+            return "unknown";
+        }
+        return keyId < 0 ? "none" : Long.toString(keyId);
+    }
+
+    private static final class KeyCounter {
+
+        private volatile Entry entry;
+
+        Counter counterFor(long keyId) {
+            Entry current = entry;
+            return current != null && current.keyId == keyId ? current.counter : null;
+        }
+
+        void remember(long keyId, Counter counter) {
+            entry = new Entry(keyId, counter);
+        }
+
+        private record Entry(long keyId, Counter counter) {
+        }
+    }
+}
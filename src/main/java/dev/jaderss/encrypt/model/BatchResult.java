@@ -0,0 +1,15 @@
+package dev.jaderss.encrypt.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchResult(String value, String error) {
+
+    public static BatchResult success(String value) {
+        return new BatchResult(value, null);
+    }
+
+    public static BatchResult failure(String error) {
+        return new BatchResult(null, error);
+    }
+}
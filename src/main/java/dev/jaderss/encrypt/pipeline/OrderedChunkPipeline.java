@@ -0,0 +1,117 @@
+package dev.jaderss.encrypt.pipeline;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Reads records in chunks, transforms the chunks in parallel on a worker pool and hands the results to a
+ * sink in input order. At most {@code maxInFlight} chunks are read ahead of the sink, so memory stays
+ * bounded by {@code chunkSize * maxInFlight} records however large the input is. With a weigher, a chunk is also
+ * closed once its records weigh {@code chunkWeight}, which bounds the weight in flight as well.
+ *
+ * <p>The sink runs on the calling thread, one chunk at a time, which makes it the place to write output and
+ * record progress.
+ *
+ * @param <I> input record type
+ * @param <O> output record type
+ */
+public class OrderedChunkPipeline<I, O> {
+
+    private final ExecutorService workers;
+    private final int chunkSize;
+    private final int maxInFlight;
+    private final long chunkWeight;
+    private final ToLongFunction<? super I> weigher;
+
+    public OrderedChunkPipeline(ExecutorService workers, int chunkSize, int maxInFlight) {
+        this(workers, chunkSize, maxInFlight, Long.MAX_VALUE, record -> 0);
+    }
+
+    /**
+     * @param chunkWeight weight at which a chunk is closed before it has {@code chunkSize} records
+     * @param weigher     weight of one record, e.g. its size in bytes
+     */
+    public OrderedChunkPipeline(ExecutorService workers, int chunkSize, int maxInFlight, long chunkWeight,
+                                ToLongFunction<? super I> weigher) {
+        if (chunkSize < 1 || maxInFlight < 1 || chunkWeight < 1) {
+            throw new IllegalArgumentException("Chunk size, chunk weight and in-flight chunks must be positive");
+        }
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+        this.maxInFlight = maxInFlight;
+        this.chunkWeight = chunkWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Runs the pipeline until the source is exhausted.
+     *
+     * @param processor maps a chunk to a result list; it runs concurrently with other chunks
+     * @return the number of records read
+     * @throws IOException if the source or sink fails, or a processor throws
+     */
+    public long run(Source<I> source, Function<List<I>, List<O>> processor, Sink<O> sink) throws IOException, InterruptedException {
+        Deque<Future<List<O>>> inFlight = new ArrayDeque<>(maxInFlight);
+        long records = 0;
+        try {
+            List<I> chunk = new ArrayList<>(chunkSize);
+            long weight = 0;
+            I record;
+            while ((record = source.next()) != null) {
+                chunk.add(record);
+                records++;
+                weight += weigher.applyAsLong(record);
+                if (chunk.size() == chunkSize || weight >= chunkWeight) {
+                    if (inFlight.size() == maxInFlight) {
+                        sink.accept(await(inFlight.removeFirst()));
+                    }
+                    List<I> submitted = chunk;
+                    inFlight.addLast(workers.submit(() -> processor.apply(submitted)));
+                    chunk = new ArrayList<>(chunkSize);
+                    weight = 0;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                List<I> submitted = chunk;
+                inFlight.addLast(workers.submit(() -> processor.apply(submitted)));
+            }
+            while (!inFlight.isEmpty()) {
+                sink.accept(await(inFlight.removeFirst()));
+            }
+            return records;
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static <O> List<O> await(Future<List<O>> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Chunk processing failed", e.getCause());
+        }
+    }
+
+    @FunctionalInterface
+    public interface Source<I> {
+
+        /**
+         * Returns the next record, or {@code null} at the end of the input.
+         */
+        I next() throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Sink<O> {
+
+        void accept(List<O> results) throws IOException;
+    }
+}
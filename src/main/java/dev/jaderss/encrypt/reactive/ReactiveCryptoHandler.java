@@ -0,0 +1,145 @@
+package dev.jaderss.encrypt.reactive;
+
+import com.google.crypto.tink.Aead;
+import dev.jaderss.encrypt.controller.TextBodies;
+import dev.jaderss.encrypt.crypto.AeadAlgorithm;
+import dev.jaderss.encrypt.crypto.CiphertextEncoding;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.service.SecurityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Non-blocking counterpart of the {@code /encrypt} and {@code /decrypt} endpoints, with the same parameters, body
+ * handling and error statuses. Request bodies are consumed as {@link DataBuffer} streams with demand-driven reads
+ * and a size cap. Crypto runs on a bounded scheduler, so event-loop threads never block and excess load is
+ * rejected with 503.
+ */
+@Slf4j
+public class ReactiveCryptoHandler {
+
+    private static final MediaType TEXT_PLAIN_UTF8 = MediaType.parseMediaType(MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8");
+
+    private final SecurityService securityService;
+    private final Scheduler cryptoScheduler;
+    private final int maxBodySize;
+
+    public ReactiveCryptoHandler(SecurityService securityService, Scheduler cryptoScheduler, int maxBodySize) {
+        this.securityService = securityService;
+        this.cryptoScheduler = cryptoScheduler;
+        this.maxBodySize = maxBodySize;
+    }
+
+    public Mono<ServerResponse> encrypt(ServerRequest request) {
+        MediaType contentType;
+        try {
+            contentType = contentType(request);
+        } catch (InvalidMediaTypeException e) {
+            return ServerResponse.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+        boolean binary = contentType != null && MediaType.APPLICATION_OCTET_STREAM.equalsTypeAndSubtype(contentType);
+        PrimitiveHolder<Aead> keyset;
+        try {
+            keyset = request.queryParam("algorithm")
+                    .map(algorithm -> securityService.keysetFor(AeadAlgorithm.parse(algorithm)))
+                    .orElse(null);
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().build();
+        }
+        CiphertextEncoding encoding;
+        try {
+            encoding = CiphertextEncoding.negotiate(request.headers().accept(),
+                    binary ? CiphertextEncoding.RAW : CiphertextEncoding.BASE64);
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
+        return readBody(request)
+                .flatMap(body -> offload(() -> {
+                    byte[] plaintext = binary ? body : TextBodies.trim(TextBodies.toUtf8(body, contentType));
+                    return keyset == null ? securityService.encrypt(plaintext) : securityService.encrypt(keyset, plaintext);
+                }))
+                .flatMap(ciphertext -> ServerResponse.ok()
+                        .contentType(encoding.mediaType())
+                        .bodyValue(encoding.encode(ciphertext)))
+                .switchIfEmpty(ServerResponse.badRequest().build())
+                .onErrorResume(e -> error("Encryption failed", e));
+    }
+
+    public Mono<ServerResponse> decrypt(ServerRequest request) {
+        MediaType contentType;
+        CiphertextEncoding encoding;
+        try {
+            contentType = contentType(request);
+            encoding = CiphertextEncoding.of(contentType);
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+        MediaType responseType = encoding == CiphertextEncoding.RAW ? MediaType.APPLICATION_OCTET_STREAM : TEXT_PLAIN_UTF8;
+        return readBody(request)
+                .flatMap(body -> offload(() -> encoding == CiphertextEncoding.RAW
+                        ? securityService.decrypt(body)
+                        : securityService.decrypt(TextBodies.trimmedView(TextBodies.toUtf8(body, contentType)), encoding)))
+                .flatMap(plaintext -> ServerResponse.ok().contentType(responseType).bodyValue(plaintext))
+                .switchIfEmpty(ServerResponse.badRequest().build())
+                .onErrorResume(e -> error("Decryption failed", e));
+    }
+
+    private Mono<byte[]> readBody(ServerRequest request) {
+        return DataBufferUtils.join(request.body(BodyExtractors.toDataBuffers()), maxBodySize)
+                .map(buffer -> {
+                    try {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        return bytes;
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                });
+    }
+
+    private Mono<byte[]> offload(CryptoCall call) {
+        return Mono.fromCallable(call::run).subscribeOn(cryptoScheduler);
+    }
+
+    private static Mono<ServerResponse> error(String message, Throwable e) {
+        if (e instanceof DataBufferLimitException) {
+            return ServerResponse.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        if (e instanceof RejectedExecutionException) {
+            return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (e instanceof IllegalArgumentException) {
+            return ServerResponse.badRequest().build();
+        }
+        if (!(e instanceof GeneralSecurityException)) {
+            return Mono.error(e);
+        }
+        log.error(message, e);
+        return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    }
+
+    /**
+     * @throws InvalidMediaTypeException if the header is malformed or names an unsupported charset
+     */
+    private static MediaType contentType(ServerRequest request) {
+        return request.headers().contentType().orElse(null);
+    }
+
+    @FunctionalInterface
+    private interface CryptoCall {
+        byte[] run() throws GeneralSecurityException;
+    }
+}
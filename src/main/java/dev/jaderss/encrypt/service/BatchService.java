@@ -0,0 +1,106 @@
+package dev.jaderss.encrypt.service;
+
+import dev.jaderss.encrypt.model.BatchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+@Slf4j
+@Service
+public class BatchService {
+
+    private final SecurityService securityService;
+    private final ForkJoinPool batchPool;
+    private final int maxSize;
+    private final int chunkSize;
+
+    public BatchService(SecurityService securityService,
+                        @Qualifier("batchPool") ForkJoinPool batchPool,
+                        @Value("${encrypt.batch.max-size:10000}") int maxSize,
+                        @Value("${encrypt.batch.chunk-size:256}") int chunkSize) {
+        this.securityService = securityService;
+        this.batchPool = batchPool;
+        this.maxSize = maxSize;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public boolean exceedsMaxSize(List<String> values) {
+        return values.size() > maxSize;
+    }
+
+    public List<BatchResult> encrypt(List<String> values) {
+        return process(values, Operation.ENCRYPT);
+    }
+
+    public List<BatchResult> decrypt(List<String> values) {
+        return process(values, Operation.DECRYPT);
+    }
+
+    private List<BatchResult> process(List<String> values, Operation operation) {
+        BatchResult[] results = new BatchResult[values.size()];
+        BatchTask task = new BatchTask(values, results, 0, values.size(), operation);
+        if (values.size() <= chunkSize) {
+            task.compute();
+        } else {
+            batchPool.invoke(task);
+        }
+        return Arrays.asList(results);
+    }
+
+    private BatchResult apply(String value, Operation operation) {
+        if (value == null) {
+            return BatchResult.failure("Value must not be null");
+        }
+        try {
+            return BatchResult.success(operation == Operation.ENCRYPT
+                    ? securityService.encrypt(value.trim())
+                    : securityService.decrypt(value.trim()));
+        } catch (IllegalArgumentException e) {
+            return BatchResult.failure("Invalid Base64 input");
+        } catch (GeneralSecurityException e) {
+            log.debug("Batch {} failed for one element", operation, e);
+            return BatchResult.failure(operation == Operation.ENCRYPT ? "Encryption failed" : "Decryption failed");
+        }
+    }
+
+    private enum Operation {
+        ENCRYPT, DECRYPT
+    }
+
+    private class BatchTask extends RecursiveAction {
+
+        private final List<String> values;
+        private final BatchResult[] results;
+        private final int from;
+        private final int to;
+        private final Operation operation;
+
+        BatchTask(List<String> values, BatchResult[] results, int from, int to, Operation operation) {
+            this.values = values;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.operation = operation;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    results[i] = apply(values.get(i), operation);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BatchTask(values, results, from, middle, operation),
+                    new BatchTask(values, results, middle, to, operation));
+        }
+    }
+}
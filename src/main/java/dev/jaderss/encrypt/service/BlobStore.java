@@ -0,0 +1,236 @@
+package dev.jaderss.encrypt.service;
+
+import com.google.crypto.tink.StreamingAead;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Stores large objects on local disk in Tink's segmented {@link StreamingAead} format, so that any byte range
+ * can be read back by decrypting only the segments that cover it. The blob ID is bound as associated data,
+ * which keeps one blob's file from being served under another ID.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty("encrypt.blobs.dir")
+public class BlobStore {
+
+    private static final Pattern BLOB_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,127}");
+    private static final String SUFFIX = ".enc";
+
+    private final Path directory;
+    private final PrimitiveHolder<StreamingAead> streamingAeadHolder;
+
+    public BlobStore(@Value("${encrypt.blobs.dir}") Path directory,
+                     PrimitiveHolder<StreamingAead> streamingAeadHolder) throws IOException {
+        this.directory = Files.createDirectories(directory.toAbsolutePath().normalize());
+        this.streamingAeadHolder = streamingAeadHolder;
+    }
+
+    public static boolean isValidBlobId(String blobId) {
+        return blobId != null && BLOB_ID.matcher(blobId).matches() && !blobId.contains("..");
+    }
+
+    /**
+     * Encrypts {@code plaintext} into the blob, replacing any previous content atomically.
+     *
+     * @return the number of plaintext bytes stored
+     * @throws IllegalArgumentException if the blob ID is not a valid identifier
+     */
+    public long write(String blobId, InputStream plaintext) throws GeneralSecurityException, IOException {
+        Path target = resolve(blobId);
+        Path temp = Files.createTempFile(directory, blobId, ".tmp");
+        try {
+            long size;
+            try (OutputStream file = Files.newOutputStream(temp);
+                 OutputStream encrypting = streamingAeadHolder.primitive().newEncryptingStream(file, associatedData(blobId))) {
+                size = plaintext.transferTo(encrypting);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Stored blob {} ({} bytes)", blobId, size);
+            return size;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Returns a resource over the decrypted blob, or empty if it does not exist. Skipping in its input stream
+     * seeks the ciphertext, so reading a range only decrypts the segments that overlap it.
+     *
+     * @throws IllegalArgumentException if the blob ID is not a valid identifier
+     */
+    public Optional<Resource> read(String blobId) throws GeneralSecurityException, IOException {
+        Path file = resolve(blobId);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(new DecryptedBlobResource(file, blobId, plaintextSize(file, blobId)));
+    }
+
+    private Path resolve(String blobId) {
+        if (!isValidBlobId(blobId)) {
+            throw new IllegalArgumentException("Invalid blob ID");
+        }
+        return directory.resolve(blobId + SUFFIX);
+    }
+
+    private SeekableByteChannel open(Path file, String blobId) throws GeneralSecurityException, IOException {
+        FileChannel ciphertext = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return streamingAeadHolder.primitive().newSeekableDecryptingChannel(ciphertext, associatedData(blobId));
+        } catch (GeneralSecurityException | IOException | RuntimeException e) {
+            ciphertext.close();
+            throw e;
+        }
+    }
+
+    /**
+     * A keyset's seekable channel only knows the plaintext size once a read has picked the matching key, so
+     * this decrypts the first segment. An empty blob yields no byte to read and is counted by streaming it.
+     */
+    private long plaintextSize(Path file, String blobId) throws GeneralSecurityException, IOException {
+        try (SeekableByteChannel channel = open(file, blobId)) {
+            if (channel.read(ByteBuffer.allocate(1)) > 0) {
+                return channel.size();
+            }
+        }
+        try (InputStream decrypting = streamingAeadHolder.primitive().newDecryptingStream(Files.newInputStream(file), associatedData(blobId))) {
+            return decrypting.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static byte[] associatedData(String blobId) {
+        return blobId.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private final class DecryptedBlobResource extends AbstractResource {
+
+        private final Path file;
+        private final String blobId;
+        private final long size;
+
+        DecryptedBlobResource(Path file, String blobId, long size) {
+            this.file = file;
+            this.blobId = blobId;
+            this.size = size;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            try {
+                // Channels.newInputStream implements skip() by moving the channel position
+                return Channels.newInputStream(new KnownSizeChannel(open(file, blobId), size));
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Cannot decrypt blob " + blobId, e);
+            }
+        }
+
+        @Override
+        public boolean exists() {
+            return Files.isRegularFile(file);
+        }
+
+        @Override
+        public long contentLength() {
+            return size;
+        }
+
+        @Override
+        public String getFilename() {
+            return blobId;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Encrypted blob [" + blobId + "]";
+        }
+    }
+
+    /**
+     * Reports the plaintext size and position itself, which the keyset channel cannot do before its first
+     * read picks the matching key, and signals end of stream from them.
+     */
+    private static final class KnownSizeChannel implements SeekableByteChannel {
+
+        private final SeekableByteChannel delegate;
+        private final long size;
+        private long position;
+
+        KnownSizeChannel(SeekableByteChannel delegate, long size) {
+            this.delegate = delegate;
+            this.size = size;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            // At the end of an empty blob the keyset channel returns 0 rather than -1
+            if (position >= size) {
+                return -1;
+            }
+            int read = delegate.read(dst);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public long position() {
+            return position;
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            position = newPosition;
+            return this;
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package dev.jaderss.encrypt.service;
+
+import dev.jaderss.encrypt.csv.CsvColumns;
+import dev.jaderss.encrypt.csv.CsvFormatException;
+import dev.jaderss.encrypt.csv.CsvReader;
+import dev.jaderss.encrypt.csv.CsvRecord;
+import dev.jaderss.encrypt.csv.CsvWriter;
+import dev.jaderss.encrypt.pipeline.OrderedChunkPipeline;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Encrypts or decrypts selected CSV columns while the file streams through. Records are read on the calling
+ * thread, transformed in chunks on a worker pool and written back in input order, so all cores stay busy while
+ * memory is bounded by the chunks in flight. A chunk is closed early once its records reach its share of
+ * {@code maxBytesInFlight}, so wide records cannot multiply the memory held by the pipeline. Each selected cell
+ * becomes the Base64 ciphertext of its bytes, the same value {@code /encrypt} returns for it; other cells, and the
+ * header, are copied unchanged.
+ */
+@Service
+public class CsvTokenizationService {
+
+    private final SecurityService securityService;
+    private final OrderedChunkPipeline<CsvRecord, byte[]> pipeline;
+    private final int maxRecordSize;
+    private final long maxBytesInFlight;
+
+    public CsvTokenizationService(SecurityService securityService,
+                                  @Qualifier("batchPool") ForkJoinPool batchPool,
+                                  @Value("${encrypt.csv.chunk-size:1000}") int chunkSize,
+                                  @Value("${encrypt.csv.max-record-size:1048576}") int maxRecordSize,
+                                  @Value("${encrypt.csv.max-bytes-in-flight:67108864}") long maxBytesInFlight) {
+        if (maxBytesInFlight < 1) {
+            throw new IllegalArgumentException("CSV bytes in flight must be positive");
+        }
+        this.securityService = securityService;
+        this.maxRecordSize = maxRecordSize;
+        this.maxBytesInFlight = maxBytesInFlight;
+        this.pipeline = pipeline(batchPool, batchPool.getParallelism(), chunkSize);
+    }
+
+    /**
+     * Creates a pipeline on {@code workers} that holds at most two chunks per worker, and together at most
+     * {@code maxBytesInFlight} bytes of records plus one record per chunk.
+     */
+    public OrderedChunkPipeline<CsvRecord, byte[]> pipeline(final ExecutorService workers, final int parallelism,
+                                                            final int chunkSize) {
+        int maxInFlight = 2 * parallelism;
+        return new OrderedChunkPipeline<>(workers, chunkSize, maxInFlight, Math.max(1, maxBytesInFlight / maxInFlight),
+                CsvRecord::size);
+    }
+
+    /**
+     * Parses a delimiter given as a single character, e.g. {@code ,}, {@code ;} or a tab.
+     *
+     * @throws IllegalArgumentException if it is not one ASCII character other than a quote or line break
+     */
+    public static byte delimiter(String value) {
+        if (value == null || value.length() != 1 || value.charAt(0) > 0x7F || "\"\r\n".indexOf(value.charAt(0)) >= 0) {
+            throw new IllegalArgumentException("Delimiter must be one ASCII character other than a quote or line break");
+        }
+        return (byte) value.charAt(0);
+    }
+
+    /**
+     * @return number of records transformed, not counting the header
+     * @throws CsvFormatException       if the input is not valid CSV
+     * @throws IllegalArgumentException if a column cannot be resolved
+     */
+    public long encrypt(final InputStream csv, final OutputStream out, final CsvColumns columns, final byte delimiter,
+                        final boolean header) throws GeneralSecurityException, IOException {
+        return transform(csv, out, columns, delimiter, header, Mode.ENCRYPT, pipeline);
+    }
+
+    /**
+     * @return number of records transformed, not counting the header
+     * @throws CsvFormatException       if the input is not valid CSV or a selected cell is not Base64
+     * @throws IllegalArgumentException if a column cannot be resolved
+     */
+    public long decrypt(final InputStream csv, final OutputStream out, final CsvColumns columns, final byte delimiter,
+                        final boolean header) throws GeneralSecurityException, IOException {
+        return transform(csv, out, columns, delimiter, header, Mode.DECRYPT, pipeline);
+    }
+
+    /**
+     * Runs on the given pipeline instead of the shared batch pool, e.g. for the command-line mode; see
+     * {@link #pipeline(ExecutorService, int, int)}.
+     */
+    public long transform(final InputStream csv, final OutputStream out, final CsvColumns columns, final byte delimiter,
+                          final boolean header, final Mode mode, final OrderedChunkPipeline<CsvRecord, byte[]> pipeline)
+            throws GeneralSecurityException, IOException {
+        CsvReader reader = new CsvReader(csv, delimiter, maxRecordSize);
+        CsvRecord headerRecord = header ? reader.next() : null;
+        int[] indexes = columns.resolve(headerRecord);
+        if (headerRecord != null) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            new CsvWriter(delimiter, reader.lineEnd()).write(headerRecord.fields(), buffer);
+            buffer.writeTo(out);
+        }
+        try {
+            // The reader has seen the first line end before any chunk is submitted, so workers can read it
+            return pipeline.run(reader::next, chunk -> List.of(process(chunk, indexes, mode, new CsvWriter(delimiter, reader.lineEnd()))),
+                    results -> {
+                        for (byte[] result : results) {
+                            out.write(result);
+                        }
+                    });
+        } catch (IOException e) {
+            if (e.getCause() instanceof CellFailure failure) {
+                failure.rethrow();
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("CSV transformation interrupted");
+        }
+    }
+
+    private byte[] process(List<CsvRecord> chunk, int[] indexes, Mode mode, CsvWriter writer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(chunk.size() * 128);
+        for (CsvRecord record : chunk) {
+            byte[][] fields = record.fields();
+            for (int index : indexes) {
+                if (index < fields.length) {
+                    fields[index] = transform(fields[index], mode, record.number(), index);
+                }
+            }
+            writer.write(fields, out);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] transform(byte[] cell, Mode mode, long record, int index) {
+        try {
+            return mode == Mode.ENCRYPT
+                    ? Base64.getEncoder().encode(securityService.encrypt(cell))
+                    : securityService.decryptUncached(Base64.getDecoder().decode(cell));
+        } catch (GeneralSecurityException e) {
+            throw new CellFailure(new GeneralSecurityException("Record " + record + ", column " + (index + 1) + ": " + e.getMessage(), e));
+        } catch (IllegalArgumentException e) {
+            throw new CellFailure(new CsvFormatException("Record " + record + ", column " + (index + 1) + " is not Base64"));
+        }
+    }
+
+    public enum Mode {
+        ENCRYPT, DECRYPT
+    }
+
+    /**
+     * Carries a checked cell failure out of a worker, whose processor cannot throw one.
+     */
+    private static final class CellFailure extends RuntimeException {
+
+        CellFailure(Exception cause) {
+            super(cause.getMessage(), cause, false, false);
+        }
+
+        void rethrow() throws GeneralSecurityException, IOException {
+            if (getCause() instanceof GeneralSecurityException e) {
+                throw e;
+            }
+            throw (IOException) getCause();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package dev.jaderss.encrypt.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.crypto.tink.DeterministicAead;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+@Slf4j
+@Service
+public class DeterministicSecurityService {
+
+    private static final byte[] EMPTY_ASSOCIATED_DATA = new byte[0];
+
+    private final PrimitiveHolder<DeterministicAead> deterministicAeadHolder;
+    private final Cache<String, CachedCiphertext> cache;
+
+    public DeterministicSecurityService(PrimitiveHolder<DeterministicAead> deterministicAeadHolder,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${encrypt.deterministic.cache.max-size:0}") long cacheMaxSize,
+                                        @Value("${encrypt.deterministic.cache.max-bytes:16777216}") long cacheMaxBytes) {
+        this.deterministicAeadHolder = deterministicAeadHolder;
+        if (cacheMaxSize > 0) {
+            // Entries hold client-supplied values of any size, so bound bytes as well; as in DecryptCache, every
+            // entry weighs at least maxBytes / maxSize so the entry count bound still holds
+            long minWeight = Math.max(1, (cacheMaxBytes + cacheMaxSize - 1) / cacheMaxSize);
+            this.cache = Caffeine.newBuilder()
+                    .maximumWeight(cacheMaxBytes)
+                    .weigher((String plaintext, CachedCiphertext cached) -> (int) Math.min(Integer.MAX_VALUE,
+                            Math.max(minWeight, 2L * plaintext.length() + cached.ciphertext().length)))
+                    // Evict on the writing thread, so the byte bound holds as soon as put returns
+                    .executor(Runnable::run)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "deterministic.encrypt");
+        } else {
+            this.cache = null;
+        }
+    }
+
+    public byte[] encrypt(final String plaintext) throws GeneralSecurityException {
+        PrimitiveHolder.Snapshot<DeterministicAead> snapshot = deterministicAeadHolder.snapshot();
+        if (cache != null) {
+            CachedCiphertext cached = cache.getIfPresent(plaintext);
+            if (cached != null && cached.keysetVersion() == snapshot.version()) {
+                return cached.ciphertext().clone();
+            }
+        }
+        byte[] ciphertext = snapshot.primitive().encryptDeterministically(plaintext.getBytes(StandardCharsets.UTF_8), EMPTY_ASSOCIATED_DATA);
+        if (cache != null) {
+            cache.put(plaintext, new CachedCiphertext(snapshot.version(), ciphertext.clone()));
+        }
+        return ciphertext;
+    }
+
+    public String decrypt(final byte[] ciphertext) throws GeneralSecurityException {
+        byte[] plaintext = deterministicAeadHolder.primitive().decryptDeterministically(ciphertext, EMPTY_ASSOCIATED_DATA);
+        return new String(plaintext, StandardCharsets.UTF_8);
+    }
+
+    private record CachedCiphertext(long keysetVersion, byte[] ciphertext) {
+    }
+}
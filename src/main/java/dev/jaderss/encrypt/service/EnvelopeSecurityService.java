@@ -0,0 +1,123 @@
+package dev.jaderss.encrypt.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.TinkProtoKeysetFormat;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envelope encryption: data encryption keys (DEKs) are generated per scope, wrapped with the configured keyset as
+ * key encryption key (KEK) and carried in the ciphertext header:
+ * <pre>
+ * [version:1][wrapped DEK length:4][wrapped DEK][Tink AEAD ciphertext, associated data = header]
+ * </pre>
+ * DEKs are reused until they expire or reach the usage limit, and unwrapped DEKs are cached for decryption.
+ */
+@Slf4j
+@Service
+public class EnvelopeSecurityService {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int HEADER_PREFIX_SIZE = 5;
+    private static final byte[] WRAP_ASSOCIATED_DATA = "envelope-dek".getBytes(StandardCharsets.US_ASCII);
+
+    private final PrimitiveHolder<Aead> aeadHolder;
+    private final long maxUses;
+    private final Cache<String, DataKey> encryptionKeys;
+    private final Cache<ByteBuffer, Aead> decryptionKeys;
+
+    public EnvelopeSecurityService(PrimitiveHolder<Aead> aeadHolder,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${encrypt.envelope.dek-ttl:10m}") Duration dekTtl,
+                                   @Value("${encrypt.envelope.dek-max-uses:100000}") long maxUses,
+                                   @Value("${encrypt.envelope.cache.max-size:1000}") long cacheMaxSize) {
+        this.aeadHolder = aeadHolder;
+        this.maxUses = maxUses;
+        // Scopes come from clients; an evicted scope simply gets a fresh DEK on its next use
+        this.encryptionKeys = Caffeine.newBuilder().maximumSize(cacheMaxSize).expireAfterWrite(dekTtl).recordStats().build();
+        this.decryptionKeys = Caffeine.newBuilder().maximumSize(cacheMaxSize).expireAfterAccess(dekTtl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, encryptionKeys, "envelope.dek.encrypt");
+        CaffeineCacheMetrics.monitor(meterRegistry, decryptionKeys, "envelope.dek.decrypt");
+    }
+
+    public byte[] encrypt(final String scope, final byte[] plaintext) throws GeneralSecurityException {
+        DataKey dataKey = acquire(scope);
+        byte[] ciphertext = dataKey.aead().encrypt(plaintext, dataKey.header());
+        return ByteBuffer.allocate(dataKey.header().length + ciphertext.length)
+                .put(dataKey.header())
+                .put(ciphertext)
+                .array();
+    }
+
+    public byte[] decrypt(final byte[] envelope) throws GeneralSecurityException {
+        if (envelope.length < HEADER_PREFIX_SIZE || envelope[0] != FORMAT_VERSION) {
+            throw new GeneralSecurityException("Unsupported envelope format");
+        }
+        int wrappedLength = ByteBuffer.wrap(envelope, 1, 4).getInt();
+        if (wrappedLength <= 0 || wrappedLength > envelope.length - HEADER_PREFIX_SIZE) {
+            throw new GeneralSecurityException("Invalid envelope header");
+        }
+        int headerLength = HEADER_PREFIX_SIZE + wrappedLength;
+        byte[] wrappedDek = Arrays.copyOfRange(envelope, HEADER_PREFIX_SIZE, headerLength);
+        Aead dek = decryptionKeys.getIfPresent(ByteBuffer.wrap(wrappedDek));
+        if (dek == null) {
+            dek = unwrap(wrappedDek);
+            decryptionKeys.put(ByteBuffer.wrap(wrappedDek), dek);
+        }
+        return dek.decrypt(Arrays.copyOfRange(envelope, headerLength, envelope.length), Arrays.copyOf(envelope, headerLength));
+    }
+
+    private DataKey acquire(String scope) throws GeneralSecurityException {
+        while (true) {
+            DataKey dataKey = encryptionKeys.getIfPresent(scope);
+            if (dataKey == null) {
+                DataKey created = newDataKey();
+                dataKey = encryptionKeys.asMap().putIfAbsent(scope, created);
+                if (dataKey == null) {
+                    dataKey = created;
+                }
+            }
+            if (dataKey.uses().incrementAndGet() <= maxUses) {
+                return dataKey;
+            }
+            encryptionKeys.asMap().remove(scope, dataKey);
+        }
+    }
+
+    private DataKey newDataKey() throws GeneralSecurityException {
+        KeysetHandle dek = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+        byte[] wrappedDek = TinkProtoKeysetFormat.serializeEncryptedKeyset(dek, aeadHolder.primitive(), WRAP_ASSOCIATED_DATA);
+        Aead aead = dek.getPrimitive(Aead.class);
+        decryptionKeys.put(ByteBuffer.wrap(wrappedDek), aead);
+        byte[] header = ByteBuffer.allocate(HEADER_PREFIX_SIZE + wrappedDek.length)
+                .put(FORMAT_VERSION)
+                .putInt(wrappedDek.length)
+                .put(wrappedDek)
+                .array();
+        log.debug("Generated new data encryption key");
+        return new DataKey(aead, header, new AtomicLong());
+    }
+
+    private Aead unwrap(byte[] wrappedDek) throws GeneralSecurityException {
+        return TinkProtoKeysetFormat.parseEncryptedKeyset(wrappedDek, aeadHolder.primitive(), WRAP_ASSOCIATED_DATA)
+                .getPrimitive(Aead.class);
+    }
+
+    private record DataKey(Aead aead, byte[] header, AtomicLong uses) {
+    }
+}
@@ -0,0 +1,119 @@
+package dev.jaderss.encrypt.service;
+
+import com.google.crypto.tink.StreamingAead;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+
+/**
+ * Encrypts and decrypts files with the streaming keyset, in the same format as {@code /encrypt/stream}.
+ * Large plaintext files are mapped into memory window by window and handed to Tink without a copy into the
+ * heap; output goes to a temporary sibling that is moved into place only once it is complete, so an
+ * interrupted run never leaves a truncated file under the final name.
+ */
+@Slf4j
+@Service
+public class FileCryptoService {
+
+    public static final String PART_SUFFIX = ".part";
+
+    private static final byte[] ASSOCIATED_DATA = new byte[0];
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final PrimitiveHolder<StreamingAead> streamingAeadHolder;
+    private final long mapThreshold;
+    private final long mapWindowSize;
+
+    public FileCryptoService(PrimitiveHolder<StreamingAead> streamingAeadHolder,
+                             @Value("${encrypt.cli.map-threshold:1048576}") long mapThreshold,
+                             @Value("${encrypt.cli.map-window-size:67108864}") long mapWindowSize) {
+        if (mapWindowSize < 1 || mapWindowSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Map window size must be between 1 byte and 2 GiB");
+        }
+        this.streamingAeadHolder = streamingAeadHolder;
+        this.mapThreshold = mapThreshold;
+        this.mapWindowSize = mapWindowSize;
+    }
+
+    /**
+     * @return the number of plaintext bytes read
+     */
+    public long encrypt(Path source, Path target) throws GeneralSecurityException, IOException {
+        Path part = partFile(target);
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = openPart(part);
+             WritableByteChannel encrypting = streamingAeadHolder.primitive().newEncryptingChannel(out, ASSOCIATED_DATA)) {
+            long size = in.size();
+            if (size >= mapThreshold) {
+                for (long position = 0; position < size; position += mapWindowSize) {
+                    MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, position, Math.min(mapWindowSize, size - position));
+                    writeFully(encrypting, window);
+                }
+            } else {
+                copy(in, encrypting);
+            }
+        } catch (GeneralSecurityException | IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        return publish(part, target, Files.size(source));
+    }
+
+    /**
+     * @return the number of ciphertext bytes read
+     */
+    public long decrypt(Path source, Path target) throws GeneralSecurityException, IOException {
+        Path part = partFile(target);
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             ReadableByteChannel decrypting = streamingAeadHolder.primitive().newDecryptingChannel(in, ASSOCIATED_DATA);
+             FileChannel out = openPart(part)) {
+            copy(decrypting, out);
+        } catch (GeneralSecurityException | IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        return publish(part, target, Files.size(source));
+    }
+
+    public static Path partFile(Path target) {
+        return target.resolveSibling(target.getFileName() + PART_SUFFIX);
+    }
+
+    private static FileChannel openPart(Path part) throws IOException {
+        Files.createDirectories(part.getParent());
+        return FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    private static long publish(Path part, Path target, long bytesRead) throws IOException {
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return bytesRead;
+    }
+
+    private static void copy(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        while (in.read(buffer) >= 0) {
+            buffer.flip();
+            writeFully(out, buffer);
+            buffer.clear();
+        }
+    }
+
+    private static void writeFully(WritableByteChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+}
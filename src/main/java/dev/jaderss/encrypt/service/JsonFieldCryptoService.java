@@ -0,0 +1,132 @@
+package dev.jaderss.encrypt.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Encrypts or decrypts selected scalar fields of a JSON document in one streaming pass, copying everything else
+ * token by token. Memory use depends on nesting depth and the size of a single value, not on the document.
+ *
+ * <p>A selected field is replaced by a Base64 string holding the ciphertext of its JSON text, e.g. {@code "alice"}
+ * with quotes or {@code 42}, so decryption restores strings, numbers, booleans and {@code null} with their type.
+ * Ciphertexts come from {@link SecurityService}, with the same keyset, compression and metrics as {@code /encrypt}.
+ */
+@Service
+@RequiredArgsConstructor
+public class JsonFieldCryptoService {
+
+    private static final JsonFactory JSON = JsonFactory.builder()
+            .disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            // Leave committing the response to the caller, which may still need to send an error status
+            .disable(StreamWriteFeature.FLUSH_PASSED_TO_STREAM)
+            .build();
+
+    private final SecurityService securityService;
+
+    /**
+     * @return number of fields encrypted
+     * @throws JsonParseException if the document is malformed or a path selects an object or array
+     */
+    public long encrypt(final InputStream json, final OutputStream out, final JsonFieldPaths paths) throws GeneralSecurityException, IOException {
+        return transform(json, out, paths, true);
+    }
+
+    /**
+     * @return number of fields decrypted
+     * @throws JsonParseException if the document is malformed or a selected field is not a Base64 string
+     */
+    public long decrypt(final InputStream json, final OutputStream out, final JsonFieldPaths paths) throws GeneralSecurityException, IOException {
+        return transform(json, out, paths, false);
+    }
+
+    private long transform(InputStream json, OutputStream out, JsonFieldPaths paths, boolean encrypt) throws GeneralSecurityException, IOException {
+        long fields = 0;
+        // Trie nodes of each open container; NONE below unselected containers, which are then only copied
+        Deque<List<JsonFieldPaths.Node>> containers = new ArrayDeque<>();
+        try (JsonParser parser = JSON.createParser(json); JsonGenerator generator = JSON.createGenerator(out)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.FIELD_NAME) {
+                    generator.copyCurrentEvent(parser);
+                    continue;
+                }
+                if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+                    containers.pop();
+                    generator.copyCurrentEvent(parser);
+                    continue;
+                }
+                List<JsonFieldPaths.Node> nodes = containers.isEmpty() ? paths.root() : step(containers.peek(), parser, token);
+                if (token.isStructStart()) {
+                    if (JsonFieldPaths.selected(nodes)) {
+                        throw new JsonParseException(parser, "Field " + parser.getParsingContext().pathAsPointer() + " is not a scalar");
+                    }
+                    containers.push(nodes);
+                    generator.copyCurrentEvent(parser);
+                } else if (!JsonFieldPaths.selected(nodes)) {
+                    generator.copyCurrentEventExact(parser);
+                } else if (encrypt) {
+                    generator.writeBinary(securityService.encrypt(jsonText(parser, token)));
+                    fields++;
+                } else {
+                    writeDecrypted(parser, token, generator);
+                    fields++;
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static List<JsonFieldPaths.Node> step(List<JsonFieldPaths.Node> parents, JsonParser parser, JsonToken token) {
+        // At the start of an object or array the parser is already in the new container's context
+        JsonStreamContext context = token.isStructStart() ? parser.getParsingContext().getParent() : parser.getParsingContext();
+        return JsonFieldPaths.step(parents, context.inArray() ? null : context.getCurrentName(), context.getCurrentIndex());
+    }
+
+    private static byte[] jsonText(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.VALUE_STRING) {
+            return parser.getText().getBytes(StandardCharsets.US_ASCII);
+        }
+        byte[] escaped = JsonStringEncoder.getInstance().quoteAsUTF8(parser.getText());
+        byte[] text = new byte[escaped.length + 2];
+        text[0] = '"';
+        System.arraycopy(escaped, 0, text, 1, escaped.length);
+        text[text.length - 1] = '"';
+        return text;
+    }
+
+    private void writeDecrypted(JsonParser parser, JsonToken token, JsonGenerator generator) throws GeneralSecurityException, IOException {
+        if (token != JsonToken.VALUE_STRING) {
+            throw new JsonParseException(parser, "Field " + parser.getParsingContext().pathAsPointer() + " is not an encrypted value");
+        }
+        byte[] plaintext = securityService.decryptUncached(parser.getBinaryValue());
+        try (JsonParser value = JSON.createParser(plaintext)) {
+            JsonToken valueToken = value.nextToken();
+            if (valueToken == null || !valueToken.isScalarValue()) {
+                throw new JsonParseException(parser, "Field " + parser.getParsingContext().pathAsPointer() + " did not decrypt to a JSON scalar");
+            }
+            generator.copyCurrentEventExact(value);
+            if (value.nextToken() != null) {
+                throw new JsonParseException(parser, "Field " + parser.getParsingContext().pathAsPointer() + " did not decrypt to a JSON scalar");
+            }
+        }
+    }
+}
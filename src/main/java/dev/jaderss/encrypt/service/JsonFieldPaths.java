@@ -0,0 +1,135 @@
+package dev.jaderss.encrypt.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set of JSON Pointers (RFC 6901) naming the fields to encrypt, where a {@code *} segment matches any object
+ * member or array element, e.g. {@code /cards/*}{@code /number}; a member literally named {@code *} can only be
+ * reached through the wildcard. The pointers are compiled into a trie, so a streaming pass only needs the trie
+ * nodes of the enclosing containers to tell whether a value is selected.
+ */
+public final class JsonFieldPaths {
+
+    private static final String WILDCARD = "*";
+
+    /** Matches nothing; the state of every container outside the selected paths. */
+    static final List<Node> NONE = List.of();
+
+    private final Node root = new Node();
+    private final List<String> pointers;
+
+    private JsonFieldPaths(List<String> pointers) {
+        this.pointers = List.copyOf(pointers);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the list is empty or a pointer is not a non-empty JSON Pointer
+     */
+    public static JsonFieldPaths parse(List<String> pointers) {
+        if (pointers == null || pointers.isEmpty()) {
+            throw new IllegalArgumentException("At least one field path is required");
+        }
+        JsonFieldPaths paths = new JsonFieldPaths(pointers);
+        for (String pointer : pointers) {
+            if (pointer == null || pointer.length() < 2 || pointer.charAt(0) != '/') {
+                throw new IllegalArgumentException("Field path must be a JSON Pointer below the root, e.g. /user/email: " + pointer);
+            }
+            Node node = paths.root;
+            for (String segment : pointer.substring(1).split("/", -1)) {
+                node = WILDCARD.equals(segment) ? node.wildcard() : node.child(unescape(segment, pointer));
+            }
+            node.selected = true;
+        }
+        return paths;
+    }
+
+    public List<String> pointers() {
+        return pointers;
+    }
+
+    List<Node> root() {
+        return List.of(root);
+    }
+
+    /**
+     * Nodes reached from {@code parents} by the member {@code name}, or by the array element at {@code index} when
+     * {@code name} is {@code null}.
+     */
+    static List<Node> step(List<Node> parents, String name, int index) {
+        if (parents.isEmpty()) {
+            return NONE;
+        }
+        List<Node> reached = null;
+        for (Node parent : parents) {
+            Node named = parent.children.isEmpty() ? null
+                    : parent.children.get(name != null ? name : Integer.toString(index));
+            reached = add(reached, named);
+            reached = add(reached, parent.wildcard);
+        }
+        return reached == null ? NONE : reached;
+    }
+
+    static boolean selected(List<Node> nodes) {
+        for (Node node : nodes) {
+            if (node.selected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Node> add(List<Node> nodes, Node node) {
+        if (node == null) {
+            return nodes;
+        }
+        if (nodes == null) {
+            nodes = new ArrayList<>(2);
+        }
+        nodes.add(node);
+        return nodes;
+    }
+
+    private static String unescape(String segment, String pointer) {
+        if (segment.indexOf('~') < 0) {
+            return segment;
+        }
+        StringBuilder unescaped = new StringBuilder(segment.length());
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c != '~') {
+                unescaped.append(c);
+            } else if (i + 1 < segment.length() && (segment.charAt(i + 1) == '0' || segment.charAt(i + 1) == '1')) {
+                unescaped.append(segment.charAt(++i) == '0' ? '~' : '/');
+            } else {
+                throw new IllegalArgumentException("Invalid escape in field path " + pointer);
+            }
+        }
+        return unescaped.toString();
+    }
+
+    static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private Node wildcard;
+        private boolean selected;
+
+        private Node child(String name) {
+            return children.computeIfAbsent(name, ignored -> new Node());
+        }
+
+        private Node wildcard() {
+            if (wildcard == null) {
+                wildcard = new Node();
+            }
+            return wildcard;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return pointers.toString();
+    }
+}
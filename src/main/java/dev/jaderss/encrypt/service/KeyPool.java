@@ -0,0 +1,145 @@
+package dev.jaderss.encrypt.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pool of pre-generated, serialized keysets for {@code /key/generate}. When a take leaves fewer than the low
+ * watermark, a background thread refills the pool up to the high watermark. When the pool is empty, keys are
+ * generated inline, so callers never wait on the refill.
+ */
+@Slf4j
+@Service
+public class KeyPool {
+
+    private final SecurityService securityService;
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final int maxCount;
+    private final BlockingQueue<String> keys;
+    private final ExecutorService refiller;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter generated;
+
+    public KeyPool(SecurityService securityService,
+                   MeterRegistry meterRegistry,
+                   @Value("${encrypt.key-pool.low-watermark:100}") int lowWatermark,
+                   @Value("${encrypt.key-pool.high-watermark:1000}") int highWatermark,
+                   @Value("${encrypt.key-pool.max-count:10000}") int maxCount) {
+        if (lowWatermark < 0 || lowWatermark > highWatermark) {
+            throw new IllegalArgumentException("Key pool watermarks must satisfy 0 <= low <= high");
+        }
+        this.securityService = securityService;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.maxCount = maxCount;
+        this.keys = new ArrayBlockingQueue<>(Math.max(highWatermark, 1));
+        this.refiller = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "key-pool-refill");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("key.pool.size", keys, BlockingQueue::size)
+                .description("Pre-generated keysets ready to hand out")
+                .register(meterRegistry);
+        this.hits = Counter.builder("key.pool.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("key.pool.requests").tag("result", "miss").register(meterRegistry);
+        this.generated = Counter.builder("key.pool.generated").register(meterRegistry);
+    }
+
+    /**
+     * Pre-fills the pool once a web server is up. Command-line runs start none, so they generate no keys.
+     */
+    @EventListener(WebServerInitializedEvent.class)
+    void start() {
+        scheduleRefill();
+    }
+
+    @PreDestroy
+    void stop() {
+        refiller.shutdownNow();
+    }
+
+    public boolean exceedsMaxCount(int count) {
+        return count > maxCount;
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    public String take() throws GeneralSecurityException, IOException {
+        String key = keys.poll();
+        if (key != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            key = generate();
+        }
+        refillIfLow();
+        return key;
+    }
+
+    public List<String> take(int count) throws GeneralSecurityException, IOException {
+        List<String> result = new ArrayList<>(count);
+        int pooled = keys.drainTo(result, count);
+        hits.increment(pooled);
+        misses.increment(count - pooled);
+        while (result.size() < count) {
+            result.add(generate());
+        }
+        refillIfLow();
+        return result;
+    }
+
+    private void refillIfLow() {
+        if (keys.size() < lowWatermark) {
+            scheduleRefill();
+        }
+    }
+
+    private void scheduleRefill() {
+        if (highWatermark > 0 && refilling.compareAndSet(false, true)) {
+            refiller.execute(this::refill);
+        }
+    }
+
+    private void refill() {
+        try {
+            while (keys.size() < highWatermark && !Thread.currentThread().isInterrupted()) {
+                if (!keys.offer(generate())) {
+                    break;
+                }
+            }
+        } catch (GeneralSecurityException | IOException e) {
+            log.error("Key pool refill failed", e);
+        } finally {
+            refilling.set(false);
+        }
+    }
+
+    private String generate() throws GeneralSecurityException, IOException {
+        String key = securityService.generateKey();
+        generated.increment();
+        return key;
+    }
+}
@@ -4,40 +4,236 @@ import com.google.crypto.tink.Aead;
 import com.google.crypto.tink.BinaryKeysetWriter;
 import com.google.crypto.tink.CleartextKeysetHandle;
 import com.google.crypto.tink.KeysetHandle;
-import com.google.crypto.tink.aead.AeadConfig;
-import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.AeadAlgorithm;
+import dev.jaderss.encrypt.crypto.AlgorithmKeysets;
+import dev.jaderss.encrypt.crypto.CiphertextEncoding;
+import dev.jaderss.encrypt.crypto.DecryptCache;
+import dev.jaderss.encrypt.crypto.PayloadCompression;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.crypto.TinkKeyIds;
+import dev.jaderss.encrypt.metrics.CryptoMetrics;
+import dev.jaderss.encrypt.metrics.CryptoMetrics.ErrorCause;
+import dev.jaderss.encrypt.metrics.CryptoMetrics.Operation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Optional;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class SecurityService {
 
-    private final KeysetHandle keysetHandle;
+    private static final byte[] EMPTY_ASSOCIATED_DATA = new byte[0];
+
+    private final PrimitiveHolder<Aead> aeadHolder;
+    private final CryptoMetrics cryptoMetrics;
+    private final PayloadCompression payloadCompression;
+    private final DecryptCache decryptCache;
+    private final AlgorithmKeysets algorithmKeysets;
+
+    public SecurityService(PrimitiveHolder<Aead> aeadHolder, CryptoMetrics cryptoMetrics) {
+        this(aeadHolder, cryptoMetrics, PayloadCompression.disabled(), DecryptCache.disabled(), AlgorithmKeysets.none());
+    }
 
     public String encrypt(final String plaintext) throws GeneralSecurityException {
-        Aead aead = keysetHandle.getPrimitive(Aead.class);
-        byte[] ciphertext = aead.encrypt(plaintext.getBytes(StandardCharsets.UTF_8), new byte[0]);
+        byte[] ciphertext = encrypt(plaintext.getBytes(StandardCharsets.UTF_8));
         return Base64.getEncoder().encodeToString(ciphertext);
     }
 
     public String decrypt(final String ciphertext) throws GeneralSecurityException {
-        Aead aead = keysetHandle.getPrimitive(Aead.class);
-        byte[] decrypted = aead.decrypt(Base64.getDecoder().decode(ciphertext), new byte[0]);
+        byte[] decrypted = decrypt(ciphertext, CiphertextEncoding.BASE64);
         return new String(decrypted, StandardCharsets.UTF_8);
     }
 
+    public byte[] decrypt(final String ciphertext, final CiphertextEncoding encoding) throws GeneralSecurityException {
+        byte[] decoded;
+        try {
+            decoded = encoding.decode(ciphertext);
+        } catch (IllegalArgumentException e) {
+            cryptoMetrics.recordError(Operation.DECRYPT, ErrorCause.BAD_ENCODING);
+            throw e;
+        }
+        return decrypt(decoded);
+    }
+
+    /**
+     * Decodes and decrypts the remaining bytes of {@code encoded} without first turning them into a {@code String}.
+     */
+    public byte[] decrypt(final ByteBuffer encoded, final CiphertextEncoding encoding) throws GeneralSecurityException {
+        byte[] decoded;
+        try {
+            decoded = encoding.decode(encoded);
+        } catch (IllegalArgumentException e) {
+            cryptoMetrics.recordError(Operation.DECRYPT, ErrorCause.BAD_ENCODING);
+            throw e;
+        }
+        return decrypt(decoded);
+    }
+
+    public byte[] encrypt(final byte[] plaintext) throws GeneralSecurityException {
+        return encrypt(aeadHolder, plaintext);
+    }
+
+    /**
+     * Decrypts with the default keyset, or with the algorithm keyset that holds the ciphertext's key ID. Repeated
+     * ciphertexts of the default keyset are served from the {@link DecryptCache} when it is enabled. Cache hits are
+     * not recorded as crypto operations; the cache has its own meters.
+     */
+    public byte[] decrypt(final byte[] ciphertext) throws GeneralSecurityException {
+        return decrypt(ciphertext, decryptCache.isEnabled());
+    }
+
+    /**
+     * Decrypts like {@link #decrypt(byte[])} but bypasses the {@link DecryptCache}, for bulk jobs whose values
+     * rarely repeat and would only evict the entries of interactive callers.
+     */
+    public byte[] decryptUncached(final byte[] ciphertext) throws GeneralSecurityException {
+        return decrypt(ciphertext, false);
+    }
+
+    private byte[] decrypt(final byte[] ciphertext, final boolean cached) throws GeneralSecurityException {
+        long keyId = keyIdOf(ciphertext);
+        PrimitiveHolder<Aead> algorithmHolder = keyId == TinkKeyIds.NO_KEY_ID ? null : algorithmKeysets.holderForKeyId(keyId);
+        if (algorithmHolder != null && !aeadHolder.snapshot().containsKeyId(keyId)) {
+            return decrypt(algorithmHolder, ciphertext);
+        }
+        try {
+            if (!cached) {
+                return decrypt(aeadHolder, ciphertext);
+            }
+            return decryptCache.decrypt(ciphertext, aeadHolder.snapshot().version(), () -> decrypt(aeadHolder, ciphertext));
+        } catch (GeneralSecurityException e) {
+            // Startup rejects shared key IDs, but a reloaded default keyset can still reuse an algorithm key's ID
+            if (algorithmHolder == null) {
+                throw e;
+            }
+            return decrypt(algorithmHolder, ciphertext);
+        }
+    }
+
+    /**
+     * Returns the keyset that encrypts with {@code algorithm}: its configured algorithm keyset, or the default
+     * keyset if that one's primary key already uses the algorithm.
+     *
+     * @throws IllegalArgumentException if no keyset is configured for the algorithm
+     */
+    public PrimitiveHolder<Aead> keysetFor(final AeadAlgorithm algorithm) {
+        Optional<PrimitiveHolder<Aead>> holder = algorithmKeysets.holder(algorithm);
+        if (holder.isPresent()) {
+            return holder.get();
+        }
+        if (aeadHolder.keysetHandle().getPrimary().getKey().getParameters().equals(algorithm.parameters())) {
+            return aeadHolder;
+        }
+        throw new IllegalArgumentException("No keyset configured for " + algorithm);
+    }
+
+    /**
+     * Encrypts with the given keyset instead of the default one, e.g. a tenant's keyset.
+     */
+    public byte[] encrypt(final PrimitiveHolder<Aead> holder, final byte[] plaintext) throws GeneralSecurityException {
+        long start = System.nanoTime();
+        PrimitiveHolder.Snapshot<Aead> snapshot = holder.snapshot();
+        try {
+            PayloadCompression.Compressed compressed = payloadCompression.compress(plaintext);
+            byte[] ciphertext = compressed == null
+                    ? snapshot.primitive().encrypt(plaintext, EMPTY_ASSOCIATED_DATA)
+                    : withHeader(compressed.header(), snapshot.primitive().encrypt(compressed.body(), compressed.header()));
+            cryptoMetrics.recordSuccess(Operation.ENCRYPT, start, plaintext.length, snapshot.primaryKeyId());
+            return ciphertext;
+        } catch (GeneralSecurityException e) {
+            cryptoMetrics.recordError(Operation.ENCRYPT, ErrorCause.OTHER);
+            throw e;
+        }
+    }
+
+    public byte[] decrypt(final PrimitiveHolder<Aead> holder, final byte[] ciphertext) throws GeneralSecurityException {
+        long start = System.nanoTime();
+        PrimitiveHolder.Snapshot<Aead> snapshot = holder.snapshot();
+        boolean compressed = PayloadCompression.hasHeader(ciphertext);
+        long keyId = keyIdOf(ciphertext);
+        try {
+            byte[] plaintext = compressed
+                    ? decryptCompressed(snapshot.primitive(), ciphertext)
+                    : snapshot.primitive().decrypt(ciphertext, EMPTY_ASSOCIATED_DATA);
+            // A RAW key accepts any prefix, so only IDs of the keyset become meter tags
+            long knownKeyId = keyId == TinkKeyIds.NO_KEY_ID || snapshot.containsKeyId(keyId) ? keyId : CryptoMetrics.UNKNOWN_KEY_ID;
+            cryptoMetrics.recordSuccess(Operation.DECRYPT, start, ciphertext.length, knownKeyId);
+            return plaintext;
+        } catch (GeneralSecurityException e) {
+            boolean unknownKey = keyId != TinkKeyIds.NO_KEY_ID && !snapshot.containsKeyId(keyId);
+            cryptoMetrics.recordError(Operation.DECRYPT, unknownKey ? ErrorCause.UNKNOWN_KEY_ID : ErrorCause.AUTH_FAILURE);
+            throw e;
+        }
+    }
+
+    /**
+     * Re-encrypts {@code ciphertext} under the current primary key, for key rotation. Every record is
+     * authenticated first; ciphertext whose prefix names the primary key and that decrypts is returned as is.
+     *
+     * @return the new ciphertext, or {@code ciphertext} itself if it is already current
+     * @throws GeneralSecurityException if {@code ciphertext} does not decrypt, including under the primary key
+     */
+    public byte[] reencrypt(final byte[] ciphertext) throws GeneralSecurityException {
+        long primaryKeyId = aeadHolder.snapshot().primaryKeyId();
+        byte[] plaintext = decrypt(aeadHolder, ciphertext);
+        if (TinkKeyIds.of(ciphertext) == primaryKeyId) {
+            return ciphertext;
+        }
+        return encrypt(aeadHolder, plaintext);
+    }
+
+    private byte[] decryptCompressed(Aead aead, byte[] ciphertext) throws GeneralSecurityException {
+        byte[] header = Arrays.copyOf(ciphertext, PayloadCompression.HEADER_SIZE);
+        byte[] body;
+        try {
+            body = aead.decrypt(Arrays.copyOfRange(ciphertext, PayloadCompression.HEADER_SIZE, ciphertext.length), header);
+        } catch (GeneralSecurityException e) {
+            // A RAW-key ciphertext in the legacy format can start with the header bytes by chance
+            try {
+                return aead.decrypt(ciphertext, EMPTY_ASSOCIATED_DATA);
+            } catch (GeneralSecurityException legacyFailure) {
+                throw e;
+            }
+        }
+        return payloadCompression.decompress(header, body);
+    }
+
+    private static long keyIdOf(byte[] ciphertext) {
+        return PayloadCompression.hasHeader(ciphertext)
+                ? TinkKeyIds.of(Arrays.copyOfRange(ciphertext, PayloadCompression.HEADER_SIZE, ciphertext.length))
+                : TinkKeyIds.of(ciphertext);
+    }
+
+    private static byte[] withHeader(byte[] header, byte[] ciphertext) {
+        byte[] framed = Arrays.copyOf(header, header.length + ciphertext.length);
+        System.arraycopy(ciphertext, 0, framed, header.length, ciphertext.length);
+        return framed;
+    }
+
+    /**
+     * Generates a fresh AES256-GCM keyset. AEAD types are already registered, since this service cannot be built
+     * without an {@link Aead} primitive. Prefer {@link KeyPool} on the request path.
+     */
     public String generateKey() throws GeneralSecurityException, IOException {
-        AeadConfig.register();
-        KeysetHandle handle = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+        return generateKey(AeadAlgorithm.DEFAULT);
+    }
+
+    /**
+     * Generates a fresh single-key keyset for {@code algorithm}, serialized like {@code encrypt.key}.
+     */
+    public String generateKey(final AeadAlgorithm algorithm) throws GeneralSecurityException, IOException {
+        KeysetHandle handle = KeysetHandle.generateNew(algorithm.parameters());
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         CleartextKeysetHandle.write(handle, BinaryKeysetWriter.withOutputStream(outputStream));
         return Base64.getEncoder().encodeToString(outputStream.toByteArray());
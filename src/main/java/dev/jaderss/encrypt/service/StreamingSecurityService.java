@@ -0,0 +1,52 @@
+package dev.jaderss.encrypt.service;
+
+import com.google.crypto.tink.StreamingAead;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StreamingSecurityService {
+
+    private static final byte[] ASSOCIATED_DATA = new byte[0];
+
+    private final PrimitiveHolder<StreamingAead> streamingAeadHolder;
+
+    public long encrypt(final InputStream plaintext, final OutputStream ciphertext) throws GeneralSecurityException, IOException {
+        try (OutputStream encrypting = streamingAeadHolder.primitive().newEncryptingStream(new NonClosingOutputStream(ciphertext), ASSOCIATED_DATA)) {
+            return plaintext.transferTo(encrypting);
+        }
+    }
+
+    public long decrypt(final InputStream ciphertext, final OutputStream plaintext) throws GeneralSecurityException, IOException {
+        try (InputStream decrypting = streamingAeadHolder.primitive().newDecryptingStream(ciphertext, ASSOCIATED_DATA)) {
+            return decrypting.transferTo(plaintext);
+        }
+    }
+
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package dev.jaderss.encrypt.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.aead.AeadConfig;
+import dev.jaderss.encrypt.crypto.KeysetFileWatcher;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
+
+/**
+ * Loads per-tenant keysets lazily from {@code <encrypt.tenants.dir>/<tenantId>.json} and keeps the parsed
+ * primitives in a bounded LRU cache, so only the first request for a tenant pays the parse cost.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty("encrypt.tenants.dir")
+public class TenantKeysetRegistry {
+
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]{0,63}");
+
+    private final Path directory;
+    private final LoadingCache<String, PrimitiveHolder<Aead>> holders;
+
+    public TenantKeysetRegistry(@Value("${encrypt.tenants.dir}") Path directory,
+                                @Value("${encrypt.tenants.cache.max-size:1000}") long maxSize,
+                                MeterRegistry meterRegistry) throws GeneralSecurityException {
+        AeadConfig.register();
+        this.directory = directory.toAbsolutePath().normalize();
+        this.holders = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, holders, "tenant.keysets");
+    }
+
+    public static boolean isValidTenantId(String tenantId) {
+        return tenantId != null && TENANT_ID.matcher(tenantId).matches();
+    }
+
+    /**
+     * Returns the tenant's keyset, or empty if the tenant has no keyset file.
+     *
+     * @throws IllegalArgumentException if the tenant ID is not a valid identifier
+     * @throws GeneralSecurityException if the tenant's keyset file cannot be read or parsed
+     */
+    public Optional<PrimitiveHolder<Aead>> holder(String tenantId) throws GeneralSecurityException {
+        if (!isValidTenantId(tenantId)) {
+            throw new IllegalArgumentException("Invalid tenant ID");
+        }
+        try {
+            return Optional.ofNullable(holders.get(tenantId));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof GeneralSecurityException cause) {
+                throw cause;
+            }
+            throw new GeneralSecurityException("Cannot load keyset for tenant " + tenantId, e.getCause());
+        }
+    }
+
+    private PrimitiveHolder<Aead> load(String tenantId) throws GeneralSecurityException, IOException {
+        Path keyFile = directory.resolve(tenantId + ".json");
+        if (!Files.isRegularFile(keyFile)) {
+            return null;
+        }
+        log.info("Loading keyset for tenant {}", tenantId);
+        return new PrimitiveHolder<>(KeysetFileWatcher.read(keyFile), Aead.class);
+    }
+}
@@ -0,0 +1,418 @@
+package dev.jaderss.encrypt.sidecar;
+
+import dev.jaderss.encrypt.service.SecurityService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.GeneralSecurityException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Length-prefixed binary encrypt/decrypt protocol over NIO, for sidecar deployments where the HTTP stack
+ * costs more than the crypto itself. Listens on TCP and/or Unix domain socket addresses.
+ *
+ * <p>Request frame: {@code int length | byte opcode | payload}, where {@code length} counts the opcode
+ * and payload. Response frame: {@code int length | byte status | payload}. Clients may pipeline requests;
+ * responses come back in request order on the same connection.
+ *
+ * <p>One selector thread does all socket I/O and hands each frame to a bounded worker pool, so a large payload
+ * does not stall other connections. Finished frames are written back in request order. A connection stops being
+ * read while it has too many frames in flight or too much unsent output. Each connection keeps its read and write
+ * buffers for its lifetime, and they only grow when a larger frame arrives.
+ */
+@Slf4j
+public class SidecarServer implements AutoCloseable {
+
+    public static final byte OP_ENCRYPT = 1;
+    public static final byte OP_DECRYPT = 2;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_CRYPTO_ERROR = 1;
+    public static final byte STATUS_BAD_REQUEST = 2;
+    public static final byte STATUS_BUSY = 3;
+
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    private static final int MAX_IN_FLIGHT_PER_CONNECTION = 64;
+    private static final int SOCKET_FILE_TYPE_MASK = 0170000;
+    private static final int SOCKET_FILE_TYPE = 0140000;
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final SecurityService securityService;
+    private final List<SocketAddress> bindAddresses;
+    private final int maxFrameSize;
+    private final int maxPendingOutput;
+    private final int workerThreads;
+    private final int queueSize;
+    private final List<ServerSocketChannel> serverChannels = new ArrayList<>();
+    private final List<SocketAddress> localAddresses = new ArrayList<>();
+    // Connections with frames finished by a worker, drained by the selector thread
+    private final Queue<Connection> completed = new ConcurrentLinkedQueue<>();
+
+    private Selector selector;
+    private ThreadPoolExecutor workers;
+    private Thread thread;
+    private volatile boolean running;
+
+    public SidecarServer(SecurityService securityService, List<SocketAddress> bindAddresses, int maxFrameSize) {
+        this(securityService, bindAddresses, maxFrameSize, Runtime.getRuntime().availableProcessors(), 1024);
+    }
+
+    /**
+     * @param workerThreads threads running the crypto
+     * @param queueSize     frames waiting for a worker; further frames are answered with {@link #STATUS_BUSY}
+     */
+    public SidecarServer(SecurityService securityService, List<SocketAddress> bindAddresses, int maxFrameSize,
+                         int workerThreads, int queueSize) {
+        if (bindAddresses.isEmpty()) {
+            throw new IllegalArgumentException("Sidecar needs at least one listen address");
+        }
+        if (workerThreads < 1 || queueSize < 1) {
+            throw new IllegalArgumentException("Sidecar worker threads and queue size must be positive");
+        }
+        this.securityService = securityService;
+        this.bindAddresses = List.copyOf(bindAddresses);
+        this.maxFrameSize = maxFrameSize;
+        this.maxPendingOutput = Math.max(4 * maxFrameSize, INITIAL_BUFFER_SIZE);
+        this.workerThreads = workerThreads;
+        this.queueSize = queueSize;
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        selector = Selector.open();
+        for (SocketAddress address : bindAddresses) {
+            ServerSocketChannel serverChannel;
+            if (address instanceof UnixDomainSocketAddress unixAddress) {
+                deleteStaleSocket(unixAddress);
+                serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            } else {
+                serverChannel = ServerSocketChannel.open();
+            }
+            serverChannel.bind(address);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+            serverChannels.add(serverChannel);
+            localAddresses.add(serverChannel.getLocalAddress());
+            log.info("Sidecar listening on {}", serverChannel.getLocalAddress());
+        }
+        AtomicInteger workerCount = new AtomicInteger();
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), task -> {
+            Thread worker = new Thread(task, "sidecar-worker-" + workerCount.incrementAndGet());
+            worker.setDaemon(true);
+            return worker;
+        });
+        running = true;
+        thread = new Thread(this::run, "sidecar-io");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Addresses actually bound, e.g. with the ephemeral port resolved.
+     */
+    public synchronized List<SocketAddress> localAddresses() {
+        return List.copyOf(localAddresses);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdownNow();
+        completed.clear();
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+        for (SocketAddress address : localAddresses) {
+            if (address instanceof UnixDomainSocketAddress unixAddress) {
+                Files.deleteIfExists(unixAddress.getPath());
+            }
+        }
+        serverChannels.clear();
+        localAddresses.clear();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+                Connection connection;
+                while ((connection = completed.poll()) != null) {
+                    connection.onCompleted();
+                }
+            } catch (ClosedSelectorException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.error("Sidecar selector failed", e);
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        try {
+            if (!key.isValid()) {
+                return;
+            }
+            if (key.isAcceptable()) {
+                accept((ServerSocketChannel) key.channel());
+                return;
+            }
+            Connection connection = (Connection) key.attachment();
+            if (key.isReadable()) {
+                connection.onReadable();
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (key.channel() instanceof ServerSocketChannel) {
+                // Keep listening; a failed accept only loses that client
+                log.warn("Sidecar failed to accept a connection", e);
+                return;
+            }
+            // Only this connection is affected; the selector thread keeps serving the others
+            log.debug("Closing sidecar connection", e);
+            closeQuietly(key);
+        }
+    }
+
+    /**
+     * Removes a socket file left behind by a previous process, which would make bind fail. Anything else at the
+     * path, or a socket another process still listens on, is left alone and fails startup.
+     */
+    private static void deleteStaleSocket(UnixDomainSocketAddress address) throws IOException {
+        Path path = address.getPath();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        if (!isSocket(path, attributes)) {
+            throw new IOException("Sidecar socket path " + path + " exists and is not a socket");
+        }
+        if (isListening(address)) {
+            throw new IOException("Sidecar socket " + path + " is in use by another process");
+        }
+        Files.delete(path);
+    }
+
+    private static boolean isListening(UnixDomainSocketAddress address) {
+        try {
+            SocketChannel.open(address).close();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean isSocket(Path path, BasicFileAttributes attributes) throws IOException {
+        try {
+            int mode = (Integer) Files.getAttribute(path, "unix:mode", LinkOption.NOFOLLOW_LINKS);
+            return (mode & SOCKET_FILE_TYPE_MASK) == SOCKET_FILE_TYPE;
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            return attributes.isOther();
+        }
+    }
+
+    private void accept(ServerSocketChannel serverChannel) throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Connection(channel, key));
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            log.debug("Failed to close sidecar connection", e);
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int minCapacity) {
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(minCapacity, buffer.capacity() * 2));
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        // Both buffers stay in write mode between events
+        private ByteBuffer in = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        private ByteBuffer out = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        // Frames in request order, touched by the selector thread only
+        private final ArrayDeque<Frame> inFlight = new ArrayDeque<>();
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        void onReadable() throws IOException {
+            if (channel.read(in) < 0) {
+                closeQuietly(key);
+                return;
+            }
+            dispatch();
+            flush();
+        }
+
+        void onCompleted() {
+            if (!key.isValid()) {
+                return;
+            }
+            try {
+                while (!inFlight.isEmpty() && inFlight.peek().response != null) {
+                    write(inFlight.poll());
+                }
+                // Frames left in the buffer while the connection was at its in-flight limit
+                dispatch();
+                flush();
+            } catch (IOException | RuntimeException e) {
+                log.debug("Closing sidecar connection", e);
+                closeQuietly(key);
+            }
+        }
+
+        void flush() throws IOException {
+            out.flip();
+            channel.write(out);
+            out.compact();
+            int ops = out.position() > 0 ? SelectionKey.OP_WRITE : 0;
+            // Stop reading while the client is not draining its responses or too many frames are in flight
+            if (out.position() < maxPendingOutput && inFlight.size() < MAX_IN_FLIGHT_PER_CONNECTION) {
+                ops |= SelectionKey.OP_READ;
+            }
+            key.interestOps(ops);
+        }
+
+        private void dispatch() throws IOException {
+            in.flip();
+            int needed = 0;
+            while (in.remaining() >= LENGTH_BYTES && inFlight.size() < MAX_IN_FLIGHT_PER_CONNECTION) {
+                int length = in.getInt(in.position());
+                if (length < 1 || length > maxFrameSize + 1) {
+                    // The stream cannot be resynchronised after a bad length
+                    throw new IOException("Invalid frame length " + length);
+                }
+                if (in.remaining() < LENGTH_BYTES + length) {
+                    needed = LENGTH_BYTES + length;
+                    break;
+                }
+                in.position(in.position() + LENGTH_BYTES);
+                byte opcode = in.get();
+                byte[] payload = new byte[length - 1];
+                in.get(payload);
+                submit(new Frame(opcode, payload));
+            }
+            in.compact();
+            if (needed > in.capacity()) {
+                in = grow(in, needed);
+            }
+        }
+
+        private void submit(Frame frame) {
+            inFlight.add(frame);
+            try {
+                workers.execute(() -> {
+                    frame.response = respond(frame.opcode, frame.payload);
+                    completed.add(this);
+                    selector.wakeup();
+                });
+            } catch (RejectedExecutionException e) {
+                frame.response = new Response(STATUS_BUSY, EMPTY);
+                completed.add(this);
+            }
+        }
+
+        private void write(Frame frame) {
+            Response response = frame.response;
+            int frameBytes = LENGTH_BYTES + 1 + response.payload().length;
+            if (out.remaining() < frameBytes) {
+                out = grow(out, out.position() + frameBytes);
+            }
+            out.putInt(1 + response.payload().length).put(response.status()).put(response.payload());
+        }
+    }
+
+    private Response respond(byte opcode, byte[] payload) {
+        try {
+            return switch (opcode) {
+                case OP_ENCRYPT -> new Response(STATUS_OK, securityService.encrypt(payload));
+                case OP_DECRYPT -> new Response(STATUS_OK, securityService.decrypt(payload));
+                default -> new Response(STATUS_BAD_REQUEST, EMPTY);
+            };
+        } catch (GeneralSecurityException e) {
+            return new Response(STATUS_CRYPTO_ERROR, EMPTY);
+        } catch (RuntimeException e) {
+            log.debug("Rejecting sidecar frame with opcode {}", opcode, e);
+            return new Response(STATUS_BAD_REQUEST, EMPTY);
+        }
+    }
+
+    private static final class Frame {
+
+        private final byte opcode;
+        private final byte[] payload;
+        // Set by a worker and read by the selector thread
+        private volatile Response response;
+
+        Frame(byte opcode, byte[] payload) {
+            this.opcode = opcode;
+            this.payload = payload;
+        }
+    }
+
+    private record Response(byte status, byte[] payload) {
+    }
+}
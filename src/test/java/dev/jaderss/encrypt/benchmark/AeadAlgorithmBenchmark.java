@@ -0,0 +1,66 @@
+package dev.jaderss.encrypt.benchmark;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import dev.jaderss.encrypt.crypto.AeadAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encrypt and decrypt cost of each {@link AeadAlgorithm} on this machine. AES256_GCM_SIV is left out of the default
+ * parameters because a stock JDK cannot run it; add it with {@code -p algorithm=AES256_GCM_SIV} when Conscrypt is on
+ * the classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AeadAlgorithmBenchmark {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    @Param({"AES128_GCM", "AES256_GCM", "CHACHA20_POLY1305", "XCHACHA20_POLY1305"})
+    private AeadAlgorithm algorithm;
+
+    @Param({"64", "1024", "16384"})
+    private int payloadSize;
+
+    private Aead aead;
+    private byte[] plaintext;
+    private byte[] ciphertext;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        AeadConfig.register();
+        aead = KeysetHandle.generateNew(algorithm.parameters()).getPrimitive(Aead.class);
+        plaintext = new byte[payloadSize];
+        ThreadLocalRandom.current().nextBytes(plaintext);
+        ciphertext = aead.encrypt(plaintext, EMPTY);
+    }
+
+    @Benchmark
+    public byte[] encrypt() throws GeneralSecurityException {
+        return aead.encrypt(plaintext, EMPTY);
+    }
+
+    @Benchmark
+    public byte[] decrypt() throws GeneralSecurityException {
+        return aead.decrypt(ciphertext, EMPTY);
+    }
+}
@@ -0,0 +1,59 @@
+package dev.jaderss.encrypt.benchmark;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AeadPrimitiveBenchmark {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    @Param({"16", "1024"})
+    private int payloadSize;
+
+    private KeysetHandle keysetHandle;
+    private PrimitiveHolder<Aead> holder;
+    private byte[] plaintext;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        AeadConfig.register();
+        keysetHandle = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+        holder = new PrimitiveHolder<>(keysetHandle, Aead.class);
+        plaintext = new byte[payloadSize];
+        ThreadLocalRandom.current().nextBytes(plaintext);
+    }
+
+    @Benchmark
+    public byte[] encryptWithPrimitivePerCall() throws GeneralSecurityException {
+        return keysetHandle.getPrimitive(Aead.class).encrypt(plaintext, EMPTY);
+    }
+
+    @Benchmark
+    public byte[] encryptWithCachedPrimitive() throws GeneralSecurityException {
+        return holder.primitive().encrypt(plaintext, EMPTY);
+    }
+}
@@ -0,0 +1,73 @@
+package dev.jaderss.encrypt.benchmark;
+
+import dev.jaderss.encrypt.crypto.CiphertextEncoding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class Base64Benchmark {
+
+    @Param({"16", "1024", "65536", "1048576", "16777216"})
+    private int payloadSize;
+
+    private byte[] raw;
+    private String encoded;
+    private byte[] encodedBytes;
+    private byte[] scratch;
+
+    @Setup
+    public void setUp() {
+        raw = new byte[payloadSize];
+        new Random(payloadSize).nextBytes(raw);
+        encoded = Base64.getEncoder().encodeToString(raw);
+        encodedBytes = encoded.getBytes(StandardCharsets.US_ASCII);
+        scratch = new byte[CiphertextEncoding.BASE64.encodedLength(payloadSize)];
+    }
+
+    @Benchmark
+    public String encode() {
+        return Base64.getEncoder().encodeToString(raw);
+    }
+
+    @Benchmark
+    public byte[] decode() {
+        return Base64.getDecoder().decode(encoded);
+    }
+
+    /**
+     * Encoding used by the text {@code /encrypt} path: into a reused buffer, no {@code String}.
+     */
+    @Benchmark
+    public int encodeIntoBuffer() {
+        return CiphertextEncoding.BASE64.encode(raw, scratch);
+    }
+
+    /**
+     * Decoding used by the text {@code /decrypt} path: straight from the request body bytes.
+     */
+    @Benchmark
+    public byte[] decodeFromBytes() {
+        return CiphertextEncoding.BASE64.decode(ByteBuffer.wrap(encodedBytes));
+    }
+}
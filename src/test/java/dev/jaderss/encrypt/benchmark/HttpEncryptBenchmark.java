@@ -0,0 +1,84 @@
+package dev.jaderss.encrypt.benchmark;
+
+import dev.jaderss.encrypt.EncryptApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpEncryptBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int payloadSize;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest encryptRequest;
+    private HttpRequest decryptRequest;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        context = SpringApplication.run(EncryptApplication.class,
+                "--server.port=0", "--spring.main.banner-mode=off", "--logging.level.root=WARN");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        encryptRequest = textRequest(port, "/encrypt", "a".repeat(payloadSize));
+        String ciphertext = client.send(encryptRequest, HttpResponse.BodyHandlers.ofString()).body();
+        decryptRequest = textRequest(port, "/decrypt", ciphertext);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String encrypt() throws IOException, InterruptedException {
+        return client.send(encryptRequest, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String decrypt() throws IOException, InterruptedException {
+        return client.send(decryptRequest, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String encryptAllThreads() throws IOException, InterruptedException {
+        return client.send(encryptRequest, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static HttpRequest textRequest(int port, String path, String body) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "text/plain")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
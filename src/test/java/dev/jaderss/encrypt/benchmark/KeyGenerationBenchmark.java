@@ -0,0 +1,55 @@
+package dev.jaderss.encrypt.benchmark;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.metrics.CryptoMetrics;
+import dev.jaderss.encrypt.service.SecurityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyGenerationBenchmark {
+
+    private SecurityService securityService;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        AeadConfig.register();
+        KeysetHandle keysetHandle = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+        securityService = new SecurityService(new PrimitiveHolder<>(keysetHandle, Aead.class), new CryptoMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String generateKey() throws GeneralSecurityException, IOException {
+        return securityService.generateKey();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generateKeyAllThreads() throws GeneralSecurityException, IOException {
+        return securityService.generateKey();
+    }
+}
@@ -0,0 +1,96 @@
+package dev.jaderss.encrypt.benchmark;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.metrics.CryptoMetrics;
+import dev.jaderss.encrypt.service.SecurityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SecurityServiceBenchmark {
+
+    @Param({"16", "1024", "65536", "1048576", "16777216"})
+    private int payloadSize;
+
+    private SecurityService securityService;
+    private byte[] plaintext;
+    private byte[] ciphertext;
+    private String plaintextText;
+    private String ciphertextText;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        AeadConfig.register();
+        KeysetHandle keysetHandle = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+        securityService = new SecurityService(new PrimitiveHolder<>(keysetHandle, Aead.class), new CryptoMetrics(new SimpleMeterRegistry()));
+        plaintext = new byte[payloadSize];
+        Random random = new Random(payloadSize);
+        for (int i = 0; i < plaintext.length; i++) {
+            plaintext[i] = (byte) ('a' + random.nextInt(26));
+        }
+        ciphertext = securityService.encrypt(plaintext);
+        plaintextText = new String(plaintext, StandardCharsets.UTF_8);
+        ciphertextText = securityService.encrypt(plaintextText);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] encryptBytes() throws GeneralSecurityException {
+        return securityService.encrypt(plaintext);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] decryptBytes() throws GeneralSecurityException {
+        return securityService.decrypt(ciphertext);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String encryptText() throws GeneralSecurityException {
+        return securityService.encrypt(plaintextText);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String decryptText() throws GeneralSecurityException {
+        return securityService.decrypt(ciphertextText);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public byte[] encryptBytesAllThreads() throws GeneralSecurityException {
+        return securityService.encrypt(plaintext);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public byte[] decryptBytesAllThreads() throws GeneralSecurityException {
+        return securityService.decrypt(ciphertext);
+    }
+}
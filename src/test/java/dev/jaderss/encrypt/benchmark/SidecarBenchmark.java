@@ -0,0 +1,101 @@
+package dev.jaderss.encrypt.benchmark;
+
+import dev.jaderss.encrypt.EncryptApplication;
+import dev.jaderss.encrypt.sidecar.SidecarServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round-trip latency of the sidecar protocol, for comparison with {@link HttpEncryptBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SidecarBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    private int payloadSize;
+
+    @Param({"tcp", "unix"})
+    private String transport;
+
+    private ConfigurableApplicationContext context;
+    private SocketChannel channel;
+    private ByteBuffer request;
+    private ByteBuffer response;
+    private Path socketDir;
+
+    @Setup
+    public void setUp() throws IOException {
+        socketDir = Files.createTempDirectory("sidecar-bench");
+        Path socketPath = socketDir.resolve("encrypt.sock");
+        context = SpringApplication.run(EncryptApplication.class,
+                "--server.port=0", "--spring.main.banner-mode=off", "--logging.level.root=WARN",
+                "--encrypt.sidecar.enabled=true", "--encrypt.sidecar.port=0",
+                "--encrypt.sidecar.socket-path=" + socketPath);
+        SidecarServer server = context.getBean(SidecarServer.class);
+        if (transport.equals("unix")) {
+            channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+        } else {
+            channel = SocketChannel.open(server.localAddresses().get(0));
+        }
+        request = ByteBuffer.allocate(Integer.BYTES + 1 + payloadSize)
+                .putInt(1 + payloadSize).put(SidecarServer.OP_ENCRYPT).put(new byte[payloadSize]);
+        response = ByteBuffer.allocate(payloadSize + 1024);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        channel.close();
+        context.close();
+        Files.deleteIfExists(socketDir);
+    }
+
+    @Benchmark
+    public int encrypt() throws IOException {
+        request.rewind();
+        while (request.hasRemaining()) {
+            channel.write(request);
+        }
+        response.clear().limit(Integer.BYTES);
+        readFully();
+        int length = response.getInt(0);
+        response.clear().limit(length);
+        readFully();
+        return length;
+    }
+
+    private void readFully() throws IOException {
+        while (response.hasRemaining()) {
+            if (channel.read(response) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package dev.jaderss.encrypt.cli;
+
+import dev.jaderss.encrypt.EncryptApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CliModeTest {
+
+    @Test
+    void parse_ShouldIgnoreCaseAndWhitespace() {
+        // When & Then
+        assertThat(CliMode.parse("Reencrypt")).isEqualTo(CliMode.REENCRYPT);
+        assertThat(CliMode.parse(" CSV-Encrypt ")).isEqualTo(CliMode.CSV_ENCRYPT);
+        assertThat(CliMode.parse("decrypt")).isEqualTo(CliMode.DECRYPT);
+    }
+
+    @Test
+    void isRequested_ShouldDetectModeAndRejectUnknownOnes() {
+        // When & Then
+        assertThat(CliMode.isRequested(new MockEnvironment().withProperty("encrypt.cli.mode", "encrypt"))).isTrue();
+        assertThat(CliMode.isRequested(new MockEnvironment().withProperty("server.port", "0"))).isFalse();
+        assertThat(CliMode.isRequested(new MockEnvironment().withProperty("encrypt.cli.mode", " "))).isFalse();
+        assertThatThrownBy(() -> CliMode.isRequested(new MockEnvironment().withProperty("encrypt.cli.mode", "reencrpyt")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("reencrpyt")
+                .hasMessageContaining("reencrypt");
+    }
+
+    @Test
+    void run_ShouldFailStartup_WhenModeIsUnknown() {
+        // Given
+        SpringApplication application = new SpringApplication(EncryptApplication.class);
+        application.addListeners(new CliModeListener());
+
+        // When & Then: the exception escapes main, so the JVM exits with a non-zero status
+        assertThatThrownBy(() -> application.run("--encrypt.cli.mode=reencrpyt"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown encrypt.cli.mode 'reencrpyt'");
+    }
+}
@@ -0,0 +1,117 @@
+package dev.jaderss.encrypt.cli;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.metrics.CryptoMetrics;
+import dev.jaderss.encrypt.service.CsvTokenizationService;
+import dev.jaderss.encrypt.service.FileCryptoService;
+import dev.jaderss.encrypt.service.SecurityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CsvTokenizationRunnerTest {
+
+    private static final int RECORDS = 2000;
+
+    @TempDir
+    Path dir;
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+    private CsvTokenizationService csvTokenizationService;
+    private Path source;
+    private List<String> lines;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AeadConfig.register();
+        PrimitiveHolder<Aead> holder = new PrimitiveHolder<>(KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM), Aead.class);
+        SecurityService securityService = new SecurityService(holder, new CryptoMetrics(new SimpleMeterRegistry()));
+        csvTokenizationService = new CsvTokenizationService(securityService, pool, 1000, 1 << 20, 64 << 20);
+        source = dir.resolve("customers.csv");
+        lines = new ArrayList<>();
+        lines.add("id,name,email");
+        for (int i = 0; i < RECORDS; i++) {
+            lines.add(i + ",Customer " + i + ",c" + i + "@example.com");
+        }
+        Files.write(source, lines);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void execute_ShouldEncryptColumnsAndDecryptThemBack() throws Exception {
+        // Given
+        Path encrypted = dir.resolve("customers.enc.csv");
+        Path decrypted = dir.resolve("customers.dec.csv");
+
+        // When
+        CsvTokenizationRunner.Summary summary = runner("csv-encrypt", source, encrypted).execute();
+        runner("csv-decrypt", encrypted, decrypted).execute();
+
+        // Then
+        assertThat(summary.records()).isEqualTo(RECORDS);
+        List<String> output = Files.readAllLines(encrypted);
+        assertThat(output).hasSize(RECORDS + 1);
+        assertThat(output.get(0)).isEqualTo("id,name,email");
+        assertThat(output.get(RECORDS)).startsWith((RECORDS - 1) + ",Customer " + (RECORDS - 1) + ",").doesNotContain("@example.com");
+        assertThat(Files.readAllLines(decrypted)).isEqualTo(lines);
+        assertThat(dir.resolve("customers.enc.csv" + FileCryptoService.PART_SUFFIX)).doesNotExist();
+    }
+
+    @Test
+    void run_ShouldExitWithFailureAndLeaveNoOutput_WhenDecryptionFails() throws Exception {
+        // Given
+        Path target = dir.resolve("customers.dec.csv");
+        CsvTokenizationRunner runner = runner("csv-decrypt", source, target);
+
+        // When
+        runner.run(null);
+
+        // Then
+        assertThat(runner.getExitCode()).isEqualTo(1);
+        assertThat(target).doesNotExist();
+        assertThat(dir.resolve("customers.dec.csv" + FileCryptoService.PART_SUFFIX)).doesNotExist();
+    }
+
+    @Test
+    void run_ShouldExitWithFailure_WhenTransformationThrowsUnexpectedly() throws Exception {
+        // Given
+        CsvTokenizationService failing = mock(CsvTokenizationService.class);
+        when(failing.pipeline(any(), anyInt(), anyInt())).thenThrow(new IllegalStateException("worker pool broken"));
+        Path target = dir.resolve("customers.enc.csv");
+        CsvTokenizationRunner runner = new CsvTokenizationRunner(failing, "csv-encrypt", source, target, List.of("email"), ",", true, 2, 100);
+
+        // When
+        runner.run(null);
+
+        // Then
+        assertThat(runner.getExitCode()).isEqualTo(1);
+        assertThat(target).doesNotExist();
+        assertThat(dir.resolve("customers.enc.csv" + FileCryptoService.PART_SUFFIX)).doesNotExist();
+    }
+
+    private CsvTokenizationRunner runner(String mode, Path from, Path to) {
+        return new CsvTokenizationRunner(csvTokenizationService, mode, from, to, List.of("email"), ",", true, 2, 100);
+    }
+}
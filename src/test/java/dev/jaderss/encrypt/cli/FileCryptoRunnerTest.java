@@ -0,0 +1,145 @@
+package dev.jaderss.encrypt.cli;
+
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.StreamingAead;
+import com.google.crypto.tink.streamingaead.PredefinedStreamingAeadParameters;
+import com.google.crypto.tink.streamingaead.StreamingAeadConfig;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.service.FileCryptoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultBootstrapContext;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.env.SystemEnvironmentPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class FileCryptoRunnerTest {
+
+    @TempDir
+    Path dir;
+
+    private FileCryptoService fileCryptoService;
+    private Path plain;
+    private Path encrypted;
+    private Path decrypted;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StreamingAeadConfig.register();
+        KeysetHandle keysetHandle = KeysetHandle.generateNew(PredefinedStreamingAeadParameters.AES128_GCM_HKDF_4KB);
+        fileCryptoService = new FileCryptoService(new PrimitiveHolder<>(keysetHandle, StreamingAead.class), 1024, 4096);
+        plain = Files.createDirectories(dir.resolve("plain"));
+        encrypted = dir.resolve("encrypted");
+        decrypted = dir.resolve("decrypted");
+        Files.writeString(plain.resolve("a.txt"), "alpha");
+        Files.createDirectories(plain.resolve("nested/deeper"));
+        Files.writeString(plain.resolve("nested/b.json"), "{\"b\":1}".repeat(1000));
+        Files.writeString(plain.resolve("nested/deeper/c.log"), "gamma\n".repeat(5000));
+    }
+
+    @Test
+    void execute_ShouldEncryptAndDecryptDirectoryTree() throws Exception {
+        // When
+        FileCryptoRunner.Summary encryption = runner("encrypt", plain, encrypted).execute();
+        FileCryptoRunner.Summary decryption = runner("decrypt", encrypted, decrypted).execute();
+
+        // Then
+        assertThat(encryption.processed()).isEqualTo(3);
+        assertThat(encryption.bytes()).isEqualTo(5 + 7000 + 30000);
+        assertThat(encrypted.resolve("nested/deeper/c.log.enc")).exists();
+        assertThat(decryption.processed()).isEqualTo(3);
+        assertThat(decryption.failed()).isZero();
+        assertThat(Files.readString(decrypted.resolve("a.txt"))).isEqualTo("alpha");
+        assertThat(Files.readString(decrypted.resolve("nested/deeper/c.log"))).isEqualTo("gamma\n".repeat(5000));
+    }
+
+    @Test
+    void execute_ShouldResumeBySkippingCompletedFilesAndRedoingPartialOnes() throws Exception {
+        // Given
+        runner("encrypt", plain, encrypted).execute();
+        Path interrupted = encrypted.resolve("nested/b.json.enc");
+        Files.delete(interrupted);
+        Files.writeString(FileCryptoService.partFile(interrupted), "half written");
+
+        // When
+        FileCryptoRunner.Summary summary = runner("encrypt", plain, encrypted).execute();
+
+        // Then
+        assertThat(summary.processed()).isEqualTo(1);
+        assertThat(summary.skipped()).isEqualTo(2);
+        assertThat(interrupted).exists();
+        assertThat(FileCryptoService.partFile(interrupted)).doesNotExist();
+    }
+
+    @Test
+    void execute_ShouldCountFailures_AndReportExitCode() throws Exception {
+        // Given
+        runner("encrypt", plain, encrypted).execute();
+        Files.writeString(encrypted.resolve("garbage.enc"), "not a ciphertext", StandardCharsets.UTF_8);
+        FileCryptoRunner runner = runner("decrypt", encrypted, decrypted);
+
+        // When
+        runner.run(null);
+
+        // Then
+        assertThat(runner.getExitCode()).isEqualTo(1);
+        assertThat(decrypted.resolve("garbage")).doesNotExist();
+        assertThat(decrypted.resolve("a.txt")).exists();
+    }
+
+    @Test
+    void constructor_ShouldRejectNestedDirectoriesAndUnknownMode() {
+        // When & Then
+        assertThatThrownBy(() -> runner("encrypt", plain, plain.resolve("out")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> runner("shred", plain, encrypted))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cliModeListener_ShouldDisableWebServer_WhenModeIsSetByEnvironmentVariable() {
+        // Given
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SystemEnvironmentPropertySource(
+                StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME, Map.of("ENCRYPT_CLI_MODE", "encrypt")));
+        SpringApplication application = new SpringApplication();
+        application.setWebApplicationType(WebApplicationType.SERVLET);
+
+        // When
+        new CliModeListener().onApplicationEvent(
+                new ApplicationEnvironmentPreparedEvent(new DefaultBootstrapContext(), application, new String[0], environment));
+
+        // Then
+        assertThat(application.getWebApplicationType()).isEqualTo(WebApplicationType.NONE);
+    }
+
+    @Test
+    void execute_ShouldCountRuntimeFailuresAsFailedFiles() throws Exception {
+        // Given
+        FileCryptoService failing = mock(FileCryptoService.class);
+        when(failing.encrypt(any(), any())).thenThrow(new IllegalStateException("Unexpected"));
+
+        // When
+        FileCryptoRunner.Summary summary = new FileCryptoRunner(failing, "encrypt", plain, encrypted, 2).execute();
+
+        // Then
+        assertThat(summary.failed()).isEqualTo(3);
+        assertThat(summary.processed()).isZero();
+    }
+
+    private FileCryptoRunner runner(String mode, Path source, Path target) {
+        return new FileCryptoRunner(fileCryptoService, mode, source, target, 2);
+    }
+}
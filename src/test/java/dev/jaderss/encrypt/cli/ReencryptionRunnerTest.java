@@ -0,0 +1,185 @@
+package dev.jaderss.encrypt.cli;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.crypto.TinkKeyIds;
+import dev.jaderss.encrypt.metrics.CryptoMetrics;
+import dev.jaderss.encrypt.service.SecurityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+class ReencryptionRunnerTest {
+
+    private static final int RECORDS = 500;
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PrimitiveHolder<Aead> holder;
+    private SecurityService securityService;
+    private long oldKeyId;
+    private long newKeyId;
+    private Path source;
+    private Path target;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AeadConfig.register();
+        KeysetHandle oldKeyset = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+        holder = new PrimitiveHolder<>(oldKeyset, Aead.class);
+        securityService = new SecurityService(holder, new CryptoMetrics(new SimpleMeterRegistry()));
+        source = dir.resolve("ciphertexts.txt");
+        target = dir.resolve("rotated.txt");
+
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < RECORDS; i++) {
+            lines.add(securityService.encrypt("record-" + i));
+        }
+        Files.write(source, lines);
+
+        oldKeyId = holder.snapshot().primaryKeyId();
+        holder.update(KeysetHandle.newBuilder(oldKeyset)
+                .addEntry(KeysetHandle.generateEntryFromParameters(PredefinedAeadParameters.AES256_GCM).withRandomId().makePrimary())
+                .build());
+        newKeyId = holder.snapshot().primaryKeyId();
+    }
+
+    @Test
+    void execute_ShouldReencryptEveryLineUnderNewPrimaryKey() throws Exception {
+        // When
+        ReencryptionRunner.Summary summary = runner(securityService, "lines", 1000).execute();
+
+        // Then
+        List<String> output = Files.readAllLines(target);
+        assertThat(newKeyId).isNotEqualTo(oldKeyId);
+        assertThat(summary.reencrypted()).isEqualTo(RECORDS);
+        assertThat(output).hasSize(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+            byte[] ciphertext = Base64.getDecoder().decode(output.get(i));
+            assertThat(TinkKeyIds.of(ciphertext)).isEqualTo(newKeyId);
+            assertThat(securityService.decrypt(output.get(i))).isEqualTo("record-" + i);
+        }
+        assertThat(dir.resolve("rotated.txt.checkpoint")).doesNotExist();
+    }
+
+    @Test
+    void execute_ShouldKeepCurrentRecordsAndCopyFailedOnes() throws Exception {
+        // Given
+        String current = securityService.encrypt("already rotated");
+        Files.write(source, List.of(current, "not base64!", ""), StandardOpenOption.APPEND);
+        ReencryptionRunner runner = runner(securityService, "lines", 1000);
+
+        // When
+        runner.run(null);
+
+        // Then
+        List<String> output = Files.readAllLines(target);
+        assertThat(output).hasSize(RECORDS + 3);
+        assertThat(output.get(RECORDS)).isEqualTo(current);
+        assertThat(output.get(RECORDS + 1)).isEqualTo("not base64!");
+        assertThat(output.get(RECORDS + 2)).isEmpty();
+        assertThat(runner.getExitCode()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_ShouldCountTamperedRecordUnderPrimaryKeyAsFailed() throws Exception {
+        // Given
+        byte[] tampered = Base64.getDecoder().decode(securityService.encrypt("already rotated"));
+        tampered[tampered.length - 1] ^= 1;
+        String line = Base64.getEncoder().encodeToString(tampered);
+        Files.write(source, List.of(line), StandardOpenOption.APPEND);
+
+        // When
+        ReencryptionRunner.Summary summary = runner(securityService, "lines", 1000).execute();
+
+        // Then
+        assertThat(TinkKeyIds.of(tampered)).isEqualTo(newKeyId);
+        assertThat(summary.current()).isZero();
+        assertThat(summary.failed()).isEqualTo(1);
+        assertThat(Files.readAllLines(target).get(RECORDS)).isEqualTo(line);
+    }
+
+    @Test
+    void execute_ShouldRewriteFieldOfNdjsonRecords() throws Exception {
+        // Given
+        List<String> lines = new ArrayList<>();
+        for (String ciphertext : Files.readAllLines(source)) {
+            lines.add("{\"id\":" + lines.size() + ",\"ciphertext\":\"" + ciphertext + "\",\"note\":\"kept\"}");
+        }
+        Files.write(source, lines);
+
+        // When
+        ReencryptionRunner.Summary summary = runner(securityService, "ndjson", 1000).execute();
+
+        // Then
+        List<String> output = Files.readAllLines(target);
+        assertThat(summary.reencrypted()).isEqualTo(RECORDS);
+        JsonNode last = objectMapper.readTree(output.get(RECORDS - 1));
+        assertThat(last.get("id").asInt()).isEqualTo(RECORDS - 1);
+        assertThat(last.get("note").asText()).isEqualTo("kept");
+        assertThat(securityService.decrypt(last.get("ciphertext").asText())).isEqualTo("record-" + (RECORDS - 1));
+    }
+
+    @Test
+    void execute_ShouldResumeFromCheckpoint_AfterCrash() throws Exception {
+        // Given
+        SecurityService crashing = spy(securityService);
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (calls.incrementAndGet() == 300) {
+                throw new IllegalStateException("simulated crash");
+            }
+            return invocation.callRealMethod();
+        }).when(crashing).reencrypt(any(byte[].class));
+        assertThatThrownBy(() -> runner(crashing, "lines", 50).execute())
+                .hasRootCauseMessage("simulated crash");
+        Checkpoint checkpoint = Checkpoint.load(dir.resolve("rotated.txt.checkpoint")).orElseThrow();
+
+        // When
+        ReencryptionRunner.Summary summary = runner(securityService, "lines", 50).execute();
+
+        // Then
+        assertThat(checkpoint.records()).isBetween(50L, RECORDS - 1L);
+        assertThat(summary.reencrypted()).isEqualTo(RECORDS - checkpoint.records());
+        List<String> output = Files.readAllLines(target);
+        assertThat(output).hasSize(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+            assertThat(securityService.decrypt(output.get(i))).isEqualTo("record-" + i);
+        }
+    }
+
+    @Test
+    void execute_ShouldRefuseCheckpointOfDifferentInput() throws Exception {
+        // Given
+        new Checkpoint(1, 1, 1, 1).save(dir.resolve("rotated.txt.checkpoint"));
+
+        // When & Then
+        assertThatThrownBy(() -> runner(securityService, "lines", 50).execute())
+                .hasMessageContaining("different input");
+    }
+
+    private ReencryptionRunner runner(SecurityService service, String format, long checkpointInterval) {
+        return new ReencryptionRunner(service, objectMapper, source, target, format, "ciphertext", 2, 10, checkpointInterval);
+    }
+}
@@ -0,0 +1,69 @@
+package dev.jaderss.encrypt.config;
+
+import com.google.crypto.tink.CleartextKeysetHandle;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.Parameters;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.daead.DeterministicAeadConfig;
+import com.google.crypto.tink.daead.PredefinedDeterministicAeadParameters;
+import com.google.crypto.tink.proto.Keyset;
+import com.google.crypto.tink.proto.KeysetInfo;
+import com.google.crypto.tink.streamingaead.PredefinedStreamingAeadParameters;
+import com.google.crypto.tink.streamingaead.StreamingAeadConfig;
+import dev.jaderss.encrypt.crypto.AeadAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TinkRuntimeHintsTest {
+
+    @Test
+    void registerHints_ShouldRegisterProtoMessagesAndNestedTypes() {
+        // Given
+        RuntimeHints hints = new RuntimeHints();
+
+        // When
+        new TinkRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Then
+        for (Class<?> type : TinkRuntimeHints.PROTO_TYPES) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(type)).as(type.getName()).accepts(hints);
+        }
+        assertThat(RuntimeHintsPredicates.reflection().onType(Keyset.Key.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(Keyset.Builder.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(KeysetInfo.KeyInfo.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(Keyset.class, "getPrimaryKeyId")).accepts(hints);
+    }
+
+    @Test
+    void registerHints_ShouldCoverKeyTypeOfEveryKeysetTheServiceCreates() throws Exception {
+        // Given
+        AeadConfig.register();
+        StreamingAeadConfig.register();
+        DeterministicAeadConfig.register();
+        List<Parameters> parameters = new ArrayList<>();
+        for (AeadAlgorithm algorithm : AeadAlgorithm.values()) {
+            parameters.add(algorithm.parameters());
+        }
+        parameters.add(PredefinedStreamingAeadParameters.AES256_GCM_HKDF_1MB);
+        parameters.add(PredefinedDeterministicAeadParameters.AES256_SIV);
+        RuntimeHints hints = new RuntimeHints();
+
+        // When
+        new TinkRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Then
+        for (Parameters keyParameters : parameters) {
+            Keyset keyset = CleartextKeysetHandle.getKeyset(KeysetHandle.generateNew(keyParameters));
+            String typeUrl = keyset.getKey(0).getKeyData().getTypeUrl();
+            // type.googleapis.com/google.crypto.tink.AesGcmKey -> com.google.crypto.tink.proto.AesGcmKey
+            Class<?> keyType = Class.forName("com.google.crypto.tink.proto." + typeUrl.substring(typeUrl.lastIndexOf('.') + 1));
+            assertThat(RuntimeHintsPredicates.reflection().onType(keyType)).as(typeUrl).accepts(hints);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package dev.jaderss.encrypt.controller;
+
+import dev.jaderss.encrypt.service.BlobStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisabledInAotMode // @MockBean is not supported in AOT mode or in native tests
+@WebMvcTest(controllers = BlobController.class, properties = "encrypt.blobs.dir=target/blobs")
+class BlobControllerTest {
+
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BlobStore blobStore;
+
+    @Test
+    void put_ShouldStoreBlob() throws Exception {
+        // Given
+        when(blobStore.write(eq("page.log"), any(InputStream.class))).thenReturn((long) CONTENT.length);
+
+        // When & Then
+        mockMvc.perform(put("/blobs/page.log")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(CONTENT))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void get_ShouldReturnWholeBlob_WithoutRangeHeader() throws Exception {
+        // Given
+        when(blobStore.read("page.log")).thenReturn(Optional.of(new ByteArrayResource(CONTENT)));
+
+        // When & Then
+        mockMvc.perform(get("/blobs/page.log"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void get_ShouldReturnPartialContent_ForRangeRequest() throws Exception {
+        // Given
+        when(blobStore.read("page.log")).thenReturn(Optional.of(new ByteArrayResource(CONTENT)));
+
+        // When & Then
+        mockMvc.perform(get("/blobs/page.log").header(HttpHeaders.RANGE, "bytes=10-14"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-14/20"))
+                .andExpect(content().string("abcde"));
+    }
+
+    @Test
+    void get_ShouldReturnRangeNotSatisfiable_WhenRangeIsPastEnd() throws Exception {
+        // Given
+        when(blobStore.read("page.log")).thenReturn(Optional.of(new ByteArrayResource(CONTENT)));
+
+        // When & Then
+        mockMvc.perform(get("/blobs/page.log").header(HttpHeaders.RANGE, "bytes=100-200"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+    }
+
+    @Test
+    void get_ShouldReturnNotFound_WhenBlobDoesNotExist() throws Exception {
+        // Given
+        when(blobStore.read("missing")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/blobs/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void get_ShouldReturnBadRequest_WhenBlobIdIsInvalid() throws Exception {
+        // Given
+        when(blobStore.read("bad!id")).thenThrow(new IllegalArgumentException("Invalid blob ID"));
+
+        // When & Then
+        mockMvc.perform(get("/blobs/bad!id"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void get_ShouldReturnInternalServerError_WhenBlobCannotBeOpened() throws Exception {
+        // Given
+        when(blobStore.read("page.log")).thenThrow(new IOException("disk error"));
+
+        // When & Then
+        mockMvc.perform(get("/blobs/page.log"))
+                .andExpect(status().isInternalServerError());
+    }
+}
@@ -0,0 +1,110 @@
+package dev.jaderss.encrypt.controller;
+
+import dev.jaderss.encrypt.csv.CsvColumns;
+import dev.jaderss.encrypt.csv.CsvFormatException;
+import dev.jaderss.encrypt.service.CsvTokenizationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyByte;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisabledInAotMode // @MockBean is not supported in AOT mode or in native tests
+@WebMvcTest(CsvController.class)
+class CsvControllerTest {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(CsvController.TEXT_CSV_VALUE);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CsvTokenizationService csvTokenizationService;
+
+    @Test
+    void encrypt_ShouldStreamServiceOutput_WithRequestedOptions() throws Exception {
+        // Given
+        when(csvTokenizationService.encrypt(any(InputStream.class), any(OutputStream.class), any(CsvColumns.class), anyByte(), anyBoolean()))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(0, InputStream.class).readAllBytes();
+                    invocation.getArgument(1, OutputStream.class).write("1;AQID\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        // When & Then
+        mockMvc.perform(post("/encrypt/csv")
+                        .param("columns", "2")
+                        .param("header", "false")
+                        .param("delimiter", ";")
+                        .contentType(TEXT_CSV)
+                        .content("1;secret\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TEXT_CSV))
+                .andExpect(content().string("1;AQID\n"));
+
+        verify(csvTokenizationService).encrypt(any(), any(), argThat(columns -> columns.columns().equals(List.of("2"))), eq((byte) ';'), eq(false));
+    }
+
+    @Test
+    void encrypt_ShouldReturnBadRequest_WhenColumnsOrDelimiterAreInvalid() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/encrypt/csv")
+                        .contentType(TEXT_CSV)
+                        .content("id\n1\n"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/encrypt/csv")
+                        .param("columns", "id")
+                        .param("delimiter", "\"")
+                        .contentType(TEXT_CSV)
+                        .content("id\n1\n"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(csvTokenizationService);
+    }
+
+    @Test
+    void decrypt_ShouldReturnBadRequest_WhenCsvIsRejected() throws Exception {
+        // Given
+        when(csvTokenizationService.decrypt(any(InputStream.class), any(OutputStream.class), any(CsvColumns.class), anyByte(), anyBoolean()))
+                .thenThrow(new CsvFormatException("Record 2, column 2 is not Base64"));
+
+        // When & Then
+        mockMvc.perform(post("/decrypt/csv")
+                        .param("columns", "email")
+                        .contentType(TEXT_CSV)
+                        .content("id,email\n1,plain\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void decrypt_ShouldReturnInternalServerError_WhenDecryptionFails() throws Exception {
+        // Given
+        when(csvTokenizationService.decrypt(any(InputStream.class), any(OutputStream.class), any(CsvColumns.class), anyByte(), anyBoolean()))
+                .thenThrow(new GeneralSecurityException("Record 2, column 2: decryption failed"));
+
+        // When & Then
+        mockMvc.perform(post("/decrypt/csv")
+                        .param("columns", "email")
+                        .contentType(TEXT_CSV)
+                        .content("id,email\n1,AQID\n"))
+                .andExpect(status().isInternalServerError());
+    }
+}
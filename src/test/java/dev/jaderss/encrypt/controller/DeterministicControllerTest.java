@@ -0,0 +1,117 @@
+package dev.jaderss.encrypt.controller;
+
+import dev.jaderss.encrypt.service.DeterministicSecurityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.security.GeneralSecurityException;
+
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisabledInAotMode // @MockBean is not supported in AOT mode or in native tests
+@WebMvcTest(DeterministicController.class)
+class DeterministicControllerTest {
+
+    private static final byte[] CIPHERTEXT = {1, 2, 3, (byte) 0xfb, (byte) 0xff};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DeterministicSecurityService deterministicSecurityService;
+
+    @Test
+    void encrypt_ShouldTrimInputAndReturnBase64Ciphertext() throws Exception {
+        // Given
+        when(deterministicSecurityService.encrypt("Hello World!")).thenReturn(CIPHERTEXT);
+
+        // When & Then
+        mockMvc.perform(post("/deterministic/encrypt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("  Hello World!  "))
+                .andExpect(status().isOk())
+                .andExpect(content().string("AQID+/8="));
+    }
+
+    @Test
+    void encrypt_ShouldUseEncodingFromAcceptHeader() throws Exception {
+        // Given
+        when(deterministicSecurityService.encrypt("Hello World!")).thenReturn(CIPHERTEXT);
+
+        // When & Then
+        mockMvc.perform(post("/deterministic/encrypt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .accept("text/plain;encoding=hex")
+                        .content("Hello World!"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("010203fbff"));
+    }
+
+    @Test
+    void decrypt_ShouldReturnPlaintext() throws Exception {
+        // Given
+        when(deterministicSecurityService.decrypt(aryEq(CIPHERTEXT))).thenReturn("Hello World!");
+
+        // When & Then
+        mockMvc.perform(post("/deterministic/decrypt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("AQID+/8="))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Hello World!"));
+    }
+
+    @Test
+    void decrypt_ShouldReturnInternalServerError_WhenServiceThrowsException() throws Exception {
+        // Given
+        when(deterministicSecurityService.decrypt(any(byte[].class))).thenThrow(new GeneralSecurityException("Decryption failed"));
+
+        // When & Then
+        mockMvc.perform(post("/deterministic/decrypt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("AQID+/8="))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void decrypt_ShouldReturn400_WhenCiphertextIsNotBase64() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/deterministic/decrypt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("not base64!"))
+                .andExpect(status().isBadRequest());
+
+        verify(deterministicSecurityService, never()).decrypt(any(byte[].class));
+    }
+
+    @Test
+    void decrypt_ShouldReturn415_WhenEncodingIsUnsupported() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/deterministic/decrypt")
+                        .contentType("text/plain;encoding=base32")
+                        .content("AQID+/8="))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verify(deterministicSecurityService, never()).decrypt(any(byte[].class));
+    }
+
+    @Test
+    void encrypt_ShouldReturn400_WhenNoBodyProvided() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/deterministic/encrypt")
+                        .contentType(MediaType.TEXT_PLAIN))
+                .andExpect(status().isBadRequest());
+
+        verify(deterministicSecurityService, never()).encrypt(anyString());
+    }
+}
@@ -0,0 +1,100 @@
+package dev.jaderss.encrypt.controller;
+
+import dev.jaderss.encrypt.service.EnvelopeSecurityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisabledInAotMode // @MockBean is not supported in AOT mode or in native tests
+@WebMvcTest(EnvelopeController.class)
+class EnvelopeControllerTest {
+
+    private static final byte[] ENVELOPE = {1, 2, 3, (byte) 0xfb, (byte) 0xff};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EnvelopeSecurityService envelopeSecurityService;
+
+    @Test
+    void encrypt_ShouldUseScopeAndReturnBase64Envelope() throws Exception {
+        // Given
+        when(envelopeSecurityService.encrypt(eq("orders"), aryEq(utf8("Hello World!")))).thenReturn(ENVELOPE);
+
+        // When & Then
+        mockMvc.perform(post("/envelope/encrypt")
+                        .param("scope", "orders")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("  Hello World!  "))
+                .andExpect(status().isOk())
+                .andExpect(content().string("AQID+/8="));
+    }
+
+    @Test
+    void encrypt_ShouldReturnBadRequest_WhenScopeIsBlank() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/envelope/encrypt")
+                        .param("scope", " ")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("Hello World!"))
+                .andExpect(status().isBadRequest());
+
+        verify(envelopeSecurityService, never()).encrypt(anyString(), any());
+    }
+
+    @Test
+    void decrypt_ShouldReturnPlaintext() throws Exception {
+        // Given
+        when(envelopeSecurityService.decrypt(aryEq(ENVELOPE))).thenReturn(utf8("Hello World!"));
+
+        // When & Then
+        mockMvc.perform(post("/envelope/decrypt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("AQID+/8="))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Hello World!"));
+    }
+
+    @Test
+    void decrypt_ShouldReturnInternalServerError_WhenDecryptionFails() throws Exception {
+        // Given
+        when(envelopeSecurityService.decrypt(any())).thenThrow(new GeneralSecurityException("bad envelope"));
+
+        // When & Then
+        mockMvc.perform(post("/envelope/decrypt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("AQID+/8="))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void decrypt_ShouldReturnBadRequest_WhenEnvelopeIsNotBase64() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/envelope/decrypt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("not base64!"))
+                .andExpect(status().isBadRequest());
+
+        verify(envelopeSecurityService, never()).decrypt(any());
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
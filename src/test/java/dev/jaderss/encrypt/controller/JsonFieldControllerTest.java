@@ -0,0 +1,102 @@
+package dev.jaderss.encrypt.controller;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import dev.jaderss.encrypt.service.JsonFieldCryptoService;
+import dev.jaderss.encrypt.service.JsonFieldPaths;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisabledInAotMode // @MockBean is not supported in AOT mode or in native tests
+@WebMvcTest(JsonFieldController.class)
+class JsonFieldControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JsonFieldCryptoService jsonFieldCryptoService;
+
+    @Test
+    void encrypt_ShouldStreamServiceOutput_WithRequestedPaths() throws Exception {
+        // Given
+        when(jsonFieldCryptoService.encrypt(any(InputStream.class), any(OutputStream.class), any(JsonFieldPaths.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, InputStream.class).readAllBytes();
+            invocation.getArgument(1, OutputStream.class).write("{\"ssn\":\"AQID\"}".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        // When & Then
+        mockMvc.perform(post("/encrypt/json")
+                        .param("fields", "/ssn", "/cards/*/number")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ssn\":\"123-45-6789\"}"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("{\"ssn\":\"AQID\"}"));
+
+        verify(jsonFieldCryptoService).encrypt(any(), any(),
+                argThat(paths -> paths.pointers().equals(List.of("/ssn", "/cards/*/number"))));
+    }
+
+    @Test
+    void encrypt_ShouldReturnBadRequest_WhenFieldsAreMissingOrInvalid() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/encrypt/json")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/encrypt/json")
+                        .param("fields", "ssn")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(jsonFieldCryptoService);
+    }
+
+    @Test
+    void decrypt_ShouldReturnBadRequest_WhenDocumentIsRejected() throws Exception {
+        // Given
+        when(jsonFieldCryptoService.decrypt(any(InputStream.class), any(OutputStream.class), any(JsonFieldPaths.class)))
+                .thenThrow(new JsonParseException(null, "Field /ssn is not an encrypted value"));
+
+        // When & Then
+        mockMvc.perform(post("/decrypt/json")
+                        .param("fields", "/ssn")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ssn\":1}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void decrypt_ShouldReturnInternalServerError_WhenDecryptionFails() throws Exception {
+        // Given
+        when(jsonFieldCryptoService.decrypt(any(InputStream.class), any(OutputStream.class), any(JsonFieldPaths.class)))
+                .thenThrow(new GeneralSecurityException("decryption failed"));
+
+        // When & Then
+        mockMvc.perform(post("/decrypt/json")
+                        .param("fields", "/ssn")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ssn\":\"AQID\"}"))
+                .andExpect(status().isInternalServerError());
+    }
+}
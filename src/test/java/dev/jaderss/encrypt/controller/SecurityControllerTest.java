@@ -1,46 +1,75 @@
 package dev.jaderss.encrypt.controller;
 
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.AeadAlgorithm;
+import dev.jaderss.encrypt.crypto.CiphertextEncoding;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.model.BatchResult;
+import dev.jaderss.encrypt.service.BatchService;
+import dev.jaderss.encrypt.service.KeyPool;
 import dev.jaderss.encrypt.service.SecurityService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
+import java.util.List;
 
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+@DisabledInAotMode // @MockBean is not supported in AOT mode or in native tests
 @WebMvcTest(SecurityController.class)
 class SecurityControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    private static final byte[] CIPHERTEXT = {1, 2, 3, (byte) 0xfb, (byte) 0xff};
+    private static final String CIPHERTEXT_BASE64 = "AQID+/8=";
+
     @MockBean
     private SecurityService securityService;
 
+    @MockBean
+    private BatchService batchService;
+
+    @MockBean
+    private KeyPool keyPool;
+
     @Test
     void encrypt_ShouldReturnEncryptedText_WhenGivenValidPlaintext() throws Exception {
         // Given
         String plaintext = "Hello World!";
-        String expectedEncrypted = "encrypted-base64-string";
-        when(securityService.encrypt(plaintext)).thenReturn(expectedEncrypted);
+        when(securityService.encrypt(aryEq(utf8(plaintext)))).thenReturn(CIPHERTEXT);
 
         // When & Then
         mockMvc.perform(post("/encrypt")
                         .contentType(MediaType.TEXT_PLAIN)
                         .content(plaintext))
                 .andExpect(status().isOk())
-                .andExpect(content().string(expectedEncrypted));
+                .andExpect(content().string(CIPHERTEXT_BASE64));
 
-        verify(securityService).encrypt(plaintext);
+        verify(securityService).encrypt(aryEq(utf8(plaintext)));
     }
 
     @Test
@@ -48,17 +77,31 @@ class SecurityControllerTest {
         // Given
         String plaintextWithSpaces = "  Hello World!  ";
         String trimmedPlaintext = "Hello World!";
-        String expectedEncrypted = "encrypted-base64-string";
-        when(securityService.encrypt(trimmedPlaintext)).thenReturn(expectedEncrypted);
+        when(securityService.encrypt(aryEq(utf8(trimmedPlaintext)))).thenReturn(CIPHERTEXT);
 
         // When & Then
         mockMvc.perform(post("/encrypt")
                         .contentType(MediaType.TEXT_PLAIN)
                         .content(plaintextWithSpaces))
                 .andExpect(status().isOk())
-                .andExpect(content().string(expectedEncrypted));
+                .andExpect(content().string(CIPHERTEXT_BASE64));
+
+        verify(securityService).encrypt(aryEq(utf8(trimmedPlaintext)));
+    }
 
-        verify(securityService).encrypt(trimmedPlaintext);
+    @Test
+    void encrypt_ShouldWriteTextResponseWithExactLength() throws Exception {
+        // Given
+        when(securityService.encrypt(aryEq(utf8("Hello World!")))).thenReturn(CIPHERTEXT);
+
+        // When & Then
+        mockMvc.perform(post("/encrypt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("Hello World!\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/plain;charset=UTF-8"))
+                .andExpect(header().longValue("Content-Length", CIPHERTEXT_BASE64.length()))
+                .andExpect(content().string(CIPHERTEXT_BASE64));
     }
 
     @Test
@@ -72,14 +115,14 @@ class SecurityControllerTest {
                         .content(emptyString))
                 .andExpect(status().isBadRequest());
 
-        securityService.encrypt(emptyString);
+        verify(securityService, never()).encrypt(any(byte[].class));
     }
 
     @Test
     void encrypt_ShouldReturnInternalServerError_WhenServiceThrowsException() throws Exception {
         // Given
         String plaintext = "Hello World!";
-        when(securityService.encrypt(anyString())).thenThrow(new GeneralSecurityException("Encryption failed"));
+        when(securityService.encrypt(any(byte[].class))).thenThrow(new GeneralSecurityException("Encryption failed"));
 
         // When & Then
         mockMvc.perform(post("/encrypt")
@@ -87,7 +130,7 @@ class SecurityControllerTest {
                         .content(plaintext))
                 .andExpect(status().isInternalServerError());
 
-        verify(securityService).encrypt(plaintext);
+        verify(securityService).encrypt(aryEq(utf8(plaintext)));
     }
 
     @Test
@@ -95,7 +138,7 @@ class SecurityControllerTest {
         // Given
         String ciphertext = "encrypted-base64-string";
         String expectedDecrypted = "Hello World!";
-        when(securityService.decrypt(ciphertext)).thenReturn(expectedDecrypted);
+        when(securityService.decrypt(encoded(ciphertext), eq(CiphertextEncoding.BASE64))).thenReturn(utf8(expectedDecrypted));
 
         // When & Then
         mockMvc.perform(post("/decrypt")
@@ -104,7 +147,7 @@ class SecurityControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string(expectedDecrypted));
 
-        verify(securityService).decrypt(ciphertext);
+        verify(securityService).decrypt(encoded(ciphertext), eq(CiphertextEncoding.BASE64));
     }
 
     @Test
@@ -113,7 +156,7 @@ class SecurityControllerTest {
         String ciphertextWithSpaces = "  encrypted-base64-string  ";
         String trimmedCiphertext = "encrypted-base64-string";
         String expectedDecrypted = "Hello World!";
-        when(securityService.decrypt(trimmedCiphertext)).thenReturn(expectedDecrypted);
+        when(securityService.decrypt(encoded(trimmedCiphertext), eq(CiphertextEncoding.BASE64))).thenReturn(utf8(expectedDecrypted));
 
         // When & Then
         mockMvc.perform(post("/decrypt")
@@ -122,14 +165,14 @@ class SecurityControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string(expectedDecrypted));
 
-        verify(securityService).decrypt(trimmedCiphertext);
+        verify(securityService).decrypt(encoded(trimmedCiphertext), eq(CiphertextEncoding.BASE64));
     }
 
     @Test
     void decrypt_ShouldReturnInternalServerError_WhenServiceThrowsException() throws Exception {
         // Given
         String ciphertext = "invalid-ciphertext";
-        when(securityService.decrypt(anyString())).thenThrow(new GeneralSecurityException("Decryption failed"));
+        when(securityService.decrypt(any(ByteBuffer.class), any(CiphertextEncoding.class))).thenThrow(new GeneralSecurityException("Decryption failed"));
 
         // When & Then
         mockMvc.perform(post("/decrypt")
@@ -137,45 +180,79 @@ class SecurityControllerTest {
                         .content(ciphertext))
                 .andExpect(status().isInternalServerError());
 
-        verify(securityService).decrypt(ciphertext);
+        verify(securityService).decrypt(encoded(ciphertext), eq(CiphertextEncoding.BASE64));
     }
 
     @Test
     void generateKey_ShouldReturnNewKey_WhenCalled() throws Exception {
         // Given
         String expectedKey = "new-generated-key-base64";
-        when(securityService.generateKey()).thenReturn(expectedKey);
+        when(keyPool.take()).thenReturn(expectedKey);
 
         // When & Then
         mockMvc.perform(post("/key/generate"))
                 .andExpect(status().isOk())
                 .andExpect(content().string(expectedKey));
 
-        verify(securityService).generateKey();
+        verify(keyPool).take();
     }
 
     @Test
     void generateKey_ShouldReturnInternalServerError_WhenServiceThrowsGeneralSecurityException() throws Exception {
         // Given
-        when(securityService.generateKey()).thenThrow(new GeneralSecurityException("Key generation failed"));
+        when(keyPool.take()).thenThrow(new GeneralSecurityException("Key generation failed"));
 
         // When & Then
         mockMvc.perform(post("/key/generate"))
                 .andExpect(status().isInternalServerError());
 
-        verify(securityService).generateKey();
+        verify(keyPool).take();
     }
 
     @Test
     void generateKey_ShouldReturnInternalServerError_WhenServiceThrowsIOException() throws Exception {
         // Given
-        when(securityService.generateKey()).thenThrow(new IOException("IO error during key generation"));
+        when(keyPool.take()).thenThrow(new IOException("IO error during key generation"));
 
         // When & Then
         mockMvc.perform(post("/key/generate"))
                 .andExpect(status().isInternalServerError());
 
-        verify(securityService).generateKey();
+        verify(keyPool).take();
+    }
+
+    @Test
+    void generateKeys_ShouldReturnRequestedNumberOfKeys() throws Exception {
+        // Given
+        when(keyPool.take(3)).thenReturn(List.of("key-1", "key-2", "key-3"));
+
+        // When & Then
+        mockMvc.perform(post("/key/generate").param("count", "3"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0]").value("key-1"));
+    }
+
+    @Test
+    void generateKeys_ShouldReturn400_WhenCountIsNotPositive() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/key/generate").param("count", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(keyPool, never()).take(anyInt());
+    }
+
+    @Test
+    void generateKeys_ShouldReturn413_WhenCountExceedsMaximum() throws Exception {
+        // Given
+        when(keyPool.exceedsMaxCount(20000)).thenReturn(true);
+
+        // When & Then
+        mockMvc.perform(post("/key/generate").param("count", "20000"))
+                .andExpect(status().isPayloadTooLarge());
+
+        verify(keyPool, never()).take(anyInt());
     }
 
     @Test
@@ -185,7 +262,7 @@ class SecurityControllerTest {
                         .contentType(MediaType.TEXT_PLAIN))
                 .andExpect(status().isBadRequest());
 
-        verify(securityService, never()).encrypt(anyString());
+        verify(securityService, never()).encrypt(any(byte[].class));
     }
 
     @Test
@@ -195,7 +272,7 @@ class SecurityControllerTest {
                         .contentType(MediaType.TEXT_PLAIN))
                 .andExpect(status().isBadRequest());
 
-        verify(securityService, never()).decrypt(anyString());
+        verify(securityService, never()).decrypt(any(ByteBuffer.class), any(CiphertextEncoding.class));
     }
 
     @Test
@@ -206,7 +283,7 @@ class SecurityControllerTest {
                         .content("{\"text\":\"Hello World!\"}"))
                 .andExpect(status().isUnsupportedMediaType());
 
-        verify(securityService, never()).encrypt(anyString());
+        verify(securityService, never()).encrypt(any(byte[].class));
     }
 
     @Test
@@ -217,40 +294,324 @@ class SecurityControllerTest {
                         .content("{\"text\":\"encrypted-text\"}"))
                 .andExpect(status().isUnsupportedMediaType());
 
-        verify(securityService, never()).decrypt(anyString());
+        verify(securityService, never()).decrypt(any(ByteBuffer.class), any(CiphertextEncoding.class));
     }
 
     @Test
     void encrypt_ShouldHandleSpecialCharacters() throws Exception {
         // Given
         String specialChars = "Special chars: !@#$%^&*()_+-=[]{}|;':\",./<>?";
-        String expectedEncrypted = "encrypted-special-chars";
-        when(securityService.encrypt(specialChars)).thenReturn(expectedEncrypted);
+        when(securityService.encrypt(aryEq(utf8(specialChars)))).thenReturn(CIPHERTEXT);
 
         // When & Then
         mockMvc.perform(post("/encrypt")
                         .contentType(MediaType.TEXT_PLAIN)
                         .content(specialChars))
                 .andExpect(status().isOk())
-                .andExpect(content().string(expectedEncrypted));
+                .andExpect(content().string(CIPHERTEXT_BASE64));
 
-        verify(securityService).encrypt(specialChars);
+        verify(securityService).encrypt(aryEq(utf8(specialChars)));
     }
 
     @Test
     void encrypt_ShouldHandleUnicodeCharacters() throws Exception {
         // Given
         String unicodeText = "Unicode: 你好世界 🌍 émojis";
-        String expectedEncrypted = "encrypted-unicode-text";
-        when(securityService.encrypt(unicodeText)).thenReturn(expectedEncrypted);
+        when(securityService.encrypt(aryEq(utf8(unicodeText)))).thenReturn(CIPHERTEXT);
 
         // When & Then
         mockMvc.perform(post("/encrypt")
                         .contentType(MediaType.TEXT_PLAIN)
                         .content(unicodeText))
                 .andExpect(status().isOk())
-                .andExpect(content().string(expectedEncrypted));
+                .andExpect(content().string(CIPHERTEXT_BASE64));
+
+        verify(securityService).encrypt(aryEq(utf8(unicodeText)));
+    }
+
+    @Test
+    void encryptBatch_ShouldReturnResultsInOrder() throws Exception {
+        // Given
+        List<String> values = List.of("first", "second");
+        when(batchService.encrypt(values))
+                .thenReturn(List.of(BatchResult.success("enc-1"), BatchResult.failure("Encryption failed")));
+
+        // When & Then
+        mockMvc.perform(post("/encrypt/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"first\",\"second\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].value").value("enc-1"))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].error").value("Encryption failed"));
+
+        verify(batchService).encrypt(values);
+    }
+
+    @Test
+    void decryptBatch_ShouldReturnResultsInOrder() throws Exception {
+        // Given
+        List<String> values = List.of("enc-1", "enc-2");
+        when(batchService.decrypt(values))
+                .thenReturn(List.of(BatchResult.success("first"), BatchResult.success("second")));
+
+        // When & Then
+        mockMvc.perform(post("/decrypt/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"enc-1\",\"enc-2\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].value").value("first"))
+                .andExpect(jsonPath("$[1].value").value("second"));
+
+        verify(batchService).decrypt(values);
+    }
+
+    @Test
+    void encryptBatch_ShouldReturn400_WhenNoBodyProvided() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/encrypt/batch")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(batchService, never()).encrypt(any());
+    }
+
+    @Test
+    void decryptBatch_ShouldReturn413_WhenBatchExceedsMaxSize() throws Exception {
+        // Given
+        when(batchService.exceedsMaxSize(anyList())).thenReturn(true);
+
+        // When & Then
+        mockMvc.perform(post("/decrypt/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"enc-1\"]"))
+                .andExpect(status().isPayloadTooLarge());
+
+        verify(batchService, never()).decrypt(any());
+    }
+
+    @Test
+    void encrypt_ShouldUseEncodingFromAcceptHeader() throws Exception {
+        // Given
+        when(securityService.encrypt(any(byte[].class))).thenReturn(CIPHERTEXT);
+
+        // When & Then
+        mockMvc.perform(post("/encrypt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .accept("text/plain;encoding=hex")
+                        .content("Hello World!"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("010203fbff"));
+
+        mockMvc.perform(post("/encrypt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .accept("text/plain;encoding=base64url")
+                        .content("Hello World!"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("AQID-_8"));
+    }
+
+    @Test
+    void encrypt_ShouldSendBase64Text_WhenOctetStreamIsPreferredOverText() throws Exception {
+        // Given
+        when(securityService.encrypt(any(byte[].class))).thenReturn(CIPHERTEXT);
+
+        // When & Then
+        mockMvc.perform(post("/encrypt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .accept("application/octet-stream, text/plain;q=0.1")
+                        .content("Hello World!"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+                .andExpect(content().string("AQID+/8="));
+    }
+
+    @Test
+    void encrypt_ShouldReturn406_WhenAcceptedEncodingIsUnknown() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/encrypt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .accept("text/plain;encoding=rot13")
+                        .content("Hello World!"))
+                .andExpect(status().isNotAcceptable());
+
+        verify(securityService, never()).encrypt(any(byte[].class));
+    }
+
+    @Test
+    void encryptBinary_ShouldReturnRawCiphertext_ByDefault() throws Exception {
+        // Given
+        byte[] plaintext = {0, 1, 2, (byte) 0xff};
+        when(securityService.encrypt(aryEq(plaintext))).thenReturn(CIPHERTEXT);
+
+        // When & Then
+        mockMvc.perform(post("/encrypt")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(plaintext))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(content().bytes(CIPHERTEXT));
+    }
+
+    @Test
+    void encryptBinary_ShouldReturnBase64_WhenTextIsAccepted() throws Exception {
+        // Given
+        byte[] plaintext = {0, 1, 2, (byte) 0xff};
+        when(securityService.encrypt(aryEq(plaintext))).thenReturn(CIPHERTEXT);
+
+        // When & Then
+        mockMvc.perform(post("/encrypt")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .accept(MediaType.TEXT_PLAIN)
+                        .content(plaintext))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+                .andExpect(content().string(CIPHERTEXT_BASE64));
+    }
+
+    @Test
+    void decrypt_ShouldReturn415_WhenEncodingIsUnsupported() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/decrypt")
+                        .contentType("text/plain;encoding=base32")
+                        .content("AEBAGBA="))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verify(securityService, never()).decrypt(any(ByteBuffer.class), any(CiphertextEncoding.class));
+    }
+
+    @Test
+    void decrypt_ShouldReturn400_WhenCiphertextIsNotEncodedProperly() throws Exception {
+        // Given
+        when(securityService.decrypt(any(ByteBuffer.class), any(CiphertextEncoding.class))).thenThrow(new IllegalArgumentException("Illegal base64 character"));
+
+        // When & Then
+        mockMvc.perform(post("/decrypt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("not base64!"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void encrypt_ShouldReencodeBodyAsUtf8_WhenCharsetIsGiven() throws Exception {
+        // Given
+        when(securityService.encrypt(any(byte[].class))).thenReturn(CIPHERTEXT);
+
+        // When & Then
+        mockMvc.perform(post("/encrypt")
+                        .contentType("text/plain;charset=ISO-8859-1")
+                        .content("Grüße".getBytes(StandardCharsets.ISO_8859_1)))
+                .andExpect(status().isOk());
+
+        verify(securityService).encrypt(aryEq(utf8("Grüße")));
+    }
+
+    @Test
+    void encrypt_ShouldReturn415_WhenCharsetIsUnknown() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/encrypt")
+                        .contentType("text/plain;charset=no-such-charset")
+                        .content("Hello World!"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verify(securityService, never()).encrypt(any(byte[].class));
+    }
+
+    @Test
+    void decrypt_ShouldUseEncodingFromContentType() throws Exception {
+        // Given
+        when(securityService.decrypt(encoded("010203FBFF"), eq(CiphertextEncoding.HEX))).thenReturn(utf8("Hello World!"));
+
+        // When & Then
+        mockMvc.perform(post("/decrypt")
+                        .contentType("text/plain;encoding=hex")
+                        .content("010203FBFF"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Hello World!"));
+    }
+
+    @Test
+    void decryptBinary_ShouldReturnRawPlaintext() throws Exception {
+        // Given
+        byte[] plaintext = {0, 1, 2, (byte) 0xff};
+        when(securityService.decrypt(aryEq(CIPHERTEXT))).thenReturn(plaintext);
+
+        // When & Then
+        mockMvc.perform(post("/decrypt")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(CIPHERTEXT))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(content().bytes(plaintext));
+    }
+
+    @Test
+    void decryptBinary_ShouldReturnInternalServerError_WhenServiceThrowsException() throws Exception {
+        // Given
+        when(securityService.decrypt(any(byte[].class))).thenThrow(new GeneralSecurityException("Decryption failed"));
+
+        // When & Then
+        mockMvc.perform(post("/decrypt")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(CIPHERTEXT))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void generateKey_ShouldGenerateRequestedAlgorithm_WithoutThePool() throws Exception {
+        // Given
+        when(securityService.generateKey(AeadAlgorithm.XCHACHA20_POLY1305)).thenReturn("xchacha-key");
+
+        // When & Then
+        mockMvc.perform(post("/key/generate").param("algorithm", "xchacha20-poly1305"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("xchacha-key"));
+
+        verify(keyPool, never()).take();
+    }
+
+    @Test
+    void generateKey_ShouldReturn400_WhenAlgorithmIsUnknown() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/key/generate").param("algorithm", "DES"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void encrypt_ShouldUseAlgorithmKeyset_WhenAlgorithmIsRequested() throws Exception {
+        // Given
+        AeadConfig.register();
+        PrimitiveHolder<Aead> keyset = new PrimitiveHolder<>(KeysetHandle.generateNew(PredefinedAeadParameters.CHACHA20_POLY1305), Aead.class);
+        when(securityService.keysetFor(AeadAlgorithm.CHACHA20_POLY1305)).thenReturn(keyset);
+        when(securityService.encrypt(eq(keyset), aryEq(utf8("Hello World!")))).thenReturn(CIPHERTEXT);
+
+        // When & Then
+        mockMvc.perform(post("/encrypt").param("algorithm", "CHACHA20_POLY1305")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("Hello World!"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CIPHERTEXT_BASE64));
+
+        verify(securityService, never()).encrypt(any(byte[].class));
+    }
+
+    @Test
+    void encrypt_ShouldReturn400_WhenAlgorithmHasNoKeyset() throws Exception {
+        // Given
+        when(securityService.keysetFor(AeadAlgorithm.AES128_GCM)).thenThrow(new IllegalArgumentException("No keyset configured"));
+
+        // When & Then
+        mockMvc.perform(post("/encrypt").param("algorithm", "AES128_GCM")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(CIPHERTEXT))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static ByteBuffer encoded(String body) {
+        return eq(ByteBuffer.wrap(body.getBytes(StandardCharsets.US_ASCII)));
+    }
 
-        verify(securityService).encrypt(unicodeText);
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
     }
 }
@@ -0,0 +1,87 @@
+package dev.jaderss.encrypt.controller;
+
+import dev.jaderss.encrypt.service.StreamingSecurityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisabledInAotMode // @MockBean is not supported in AOT mode or in native tests
+@WebMvcTest(StreamingController.class)
+class StreamingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StreamingSecurityService streamingSecurityService;
+
+    @Test
+    void encrypt_ShouldStreamServiceOutputToResponse() throws Exception {
+        // Given
+        when(streamingSecurityService.encrypt(any(InputStream.class), any(OutputStream.class))).thenAnswer(invocation -> {
+            byte[] input = invocation.getArgument(0, InputStream.class).readAllBytes();
+            invocation.getArgument(1, OutputStream.class).write(new byte[]{1, 2, 3});
+            return (long) input.length;
+        });
+
+        // When & Then
+        mockMvc.perform(post("/encrypt/stream")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(new byte[]{9, 9}))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(content().bytes(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    void decrypt_ShouldReturnInternalServerError_WhenServiceFailsBeforeWriting() throws Exception {
+        // Given
+        when(streamingSecurityService.decrypt(any(InputStream.class), any(OutputStream.class)))
+                .thenThrow(new IOException("Authentication failed"));
+
+        // When & Then
+        mockMvc.perform(post("/decrypt/stream")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(new byte[]{1, 2, 3}))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void encrypt_ShouldReturnInternalServerError_WhenServiceThrowsGeneralSecurityException() throws Exception {
+        // Given
+        when(streamingSecurityService.encrypt(any(InputStream.class), any(OutputStream.class)))
+                .thenThrow(new GeneralSecurityException("Encryption failed"));
+
+        // When & Then
+        mockMvc.perform(post("/encrypt/stream")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(new byte[]{1}))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void encrypt_ShouldReturn415_WhenWrongContentType() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/encrypt/stream")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("Hello World!"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verify(streamingSecurityService, never()).encrypt(any(), any());
+    }
+}
@@ -0,0 +1,138 @@
+package dev.jaderss.encrypt.controller;
+
+import com.google.crypto.tink.Aead;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.service.BatchService;
+import dev.jaderss.encrypt.service.KeyPool;
+import dev.jaderss.encrypt.service.SecurityService;
+import dev.jaderss.encrypt.service.TenantKeysetRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisabledInAotMode // @MockBean is not supported in AOT mode or in native tests
+@WebMvcTest(controllers = {TenantController.class, SecurityController.class}, properties = "encrypt.tenants.dir=target/tenants")
+class TenantControllerTest {
+
+    private static final byte[] CIPHERTEXT = {1, 2, 3, (byte) 0xfb, (byte) 0xff};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TenantKeysetRegistry tenantKeysetRegistry;
+
+    @MockBean
+    private SecurityService securityService;
+
+    @MockBean
+    private BatchService batchService;
+
+    @MockBean
+    private KeyPool keyPool;
+
+    @SuppressWarnings("unchecked")
+    private final PrimitiveHolder<Aead> tenantHolder = mock(PrimitiveHolder.class);
+
+    @Test
+    void encrypt_ShouldUseTenantKeysetFromPath() throws Exception {
+        // Given
+        when(tenantKeysetRegistry.holder("acme")).thenReturn(Optional.of(tenantHolder));
+        when(securityService.encrypt(same(tenantHolder), aryEq(utf8("Hello World!")))).thenReturn(CIPHERTEXT);
+
+        // When & Then
+        mockMvc.perform(post("/tenants/acme/encrypt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("  Hello World!  "))
+                .andExpect(status().isOk())
+                .andExpect(content().string("AQID+/8="));
+    }
+
+    @Test
+    void encrypt_ShouldRouteToTenantKeyset_WhenTenantHeaderIsPresent() throws Exception {
+        // Given
+        when(tenantKeysetRegistry.holder("acme")).thenReturn(Optional.of(tenantHolder));
+        when(securityService.encrypt(same(tenantHolder), aryEq(utf8("Hello World!")))).thenReturn(CIPHERTEXT);
+
+        // When & Then
+        mockMvc.perform(post("/encrypt")
+                        .header("X-Tenant-Id", "acme")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("Hello World!"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("AQID+/8="));
+
+        verify(securityService, never()).encrypt(any(byte[].class));
+    }
+
+    @Test
+    void encrypt_ShouldRejectBinaryBody_WhenTenantHeaderIsPresent() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/encrypt")
+                        .header("X-Tenant-Id", "acme")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(utf8("Hello World!")))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(securityService);
+    }
+
+    @Test
+    void decrypt_ShouldUseTenantKeysetFromHeader() throws Exception {
+        // Given
+        when(tenantKeysetRegistry.holder("acme")).thenReturn(Optional.of(tenantHolder));
+        when(securityService.decrypt(same(tenantHolder), aryEq(CIPHERTEXT))).thenReturn(utf8("Hello World!"));
+
+        // When & Then
+        mockMvc.perform(post("/decrypt")
+                        .header("X-Tenant-Id", "acme")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("AQID+/8="))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Hello World!"));
+    }
+
+    @Test
+    void encrypt_ShouldReturnNotFound_WhenTenantHasNoKeyset() throws Exception {
+        // Given
+        when(tenantKeysetRegistry.holder("unknown")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(post("/tenants/unknown/encrypt")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("Hello World!"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void encrypt_ShouldReturnBadRequest_WhenTenantIdIsInvalid() throws Exception {
+        // Given
+        when(tenantKeysetRegistry.holder(anyString())).thenThrow(new IllegalArgumentException("Invalid tenant ID"));
+
+        // When & Then
+        mockMvc.perform(post("/encrypt")
+                        .header("X-Tenant-Id", "../etc")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("Hello World!"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,46 @@
+package dev.jaderss.encrypt.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TextBodiesTest {
+
+    @Test
+    void trim_ShouldReturnSameArray_WhenNothingToTrim() {
+        byte[] body = utf8("Hello World!");
+        assertThat(TextBodies.trim(body)).isSameAs(body);
+    }
+
+    @Test
+    void trim_ShouldMatchStringTrim() {
+        for (String text : new String[]{"  Hello World!  ", "\t\r\nHéllo wörld 🌍\n", "   ", "", " a"}) {
+            assertThat(TextBodies.trim(utf8(text))).as(text).isEqualTo(utf8(text.trim()));
+        }
+    }
+
+    @Test
+    void trimmedView_ShouldShareBodyArray() {
+        byte[] body = utf8("  AQID+/8=\n");
+        ByteBuffer view = TextBodies.trimmedView(body);
+        assertThat(view.array()).isSameAs(body);
+        assertThat(view).isEqualTo(ByteBuffer.wrap(utf8("AQID+/8=")));
+    }
+
+    @Test
+    void toUtf8_ShouldReencodeOtherCharsets() {
+        byte[] utf8 = utf8("Grüße");
+        assertThat(TextBodies.toUtf8(utf8, MediaType.TEXT_PLAIN)).isSameAs(utf8);
+        assertThat(TextBodies.toUtf8(utf8, MediaType.parseMediaType("text/plain;charset=UTF-8"))).isSameAs(utf8);
+        assertThat(TextBodies.toUtf8("Grüße".getBytes(StandardCharsets.UTF_16), MediaType.parseMediaType("text/plain;charset=UTF-16")))
+                .isEqualTo(utf8);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,54 @@
+package dev.jaderss.encrypt.crypto;
+
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AeadAlgorithmTest {
+
+    @BeforeAll
+    static void register() throws GeneralSecurityException {
+        AeadConfig.register();
+    }
+
+    @Test
+    void parse_ShouldAcceptEnumAndPropertyNames() {
+        assertThat(AeadAlgorithm.parse("XCHACHA20_POLY1305")).isEqualTo(AeadAlgorithm.XCHACHA20_POLY1305);
+        assertThat(AeadAlgorithm.parse("aes256-gcm-siv")).isEqualTo(AeadAlgorithm.AES256_GCM_SIV);
+        assertThat(AeadAlgorithm.parse(" aes128_gcm ")).isEqualTo(AeadAlgorithm.AES128_GCM);
+        assertThat(AeadAlgorithm.CHACHA20_POLY1305.propertyName()).isEqualTo("chacha20-poly1305");
+    }
+
+    @Test
+    void parse_ShouldRejectUnknownNames() {
+        assertThatThrownBy(() -> AeadAlgorithm.parse("AES256_CBC"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("AES256_CBC");
+    }
+
+    @Test
+    void parameters_ShouldGenerateKeysWithTinkPrefix() throws GeneralSecurityException {
+        for (AeadAlgorithm algorithm : AeadAlgorithm.values()) {
+            // When
+            KeysetHandle keysetHandle = KeysetHandle.generateNew(algorithm.parameters());
+
+            // Then
+            assertThat(keysetHandle.getPrimary().getKey().getIdRequirementOrNull()).as(algorithm.name()).isNotNull();
+            assertThat(keysetHandle.getPrimary().getKey().getParameters()).isEqualTo(algorithm.parameters());
+        }
+    }
+
+    @Test
+    void isAvailable_ShouldBeTrue_ForAlgorithmsTheJdkSupports() {
+        for (AeadAlgorithm algorithm : List.of(AeadAlgorithm.AES128_GCM, AeadAlgorithm.AES256_GCM,
+                AeadAlgorithm.CHACHA20_POLY1305, AeadAlgorithm.XCHACHA20_POLY1305)) {
+            assertThat(algorithm.isAvailable()).as(algorithm.name()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package dev.jaderss.encrypt.crypto;
+
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.ChaCha20Poly1305Parameters;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+class AlgorithmKeysetsTest {
+
+    @BeforeAll
+    static void register() throws GeneralSecurityException {
+        AeadConfig.register();
+    }
+
+    @Test
+    void holderForKeyId_ShouldFindKeysetOfEveryKey() throws GeneralSecurityException {
+        // Given
+        KeysetHandle chacha = KeysetHandle.generateNew(PredefinedAeadParameters.CHACHA20_POLY1305);
+        KeysetHandle xchacha = KeysetHandle.newBuilder(KeysetHandle.generateNew(PredefinedAeadParameters.XCHACHA20_POLY1305))
+                .addEntry(KeysetHandle.generateEntryFromParameters(PredefinedAeadParameters.XCHACHA20_POLY1305).withRandomId().makePrimary())
+                .build();
+
+        // When
+        AlgorithmKeysets keysets = new AlgorithmKeysets(Map.of(
+                AeadAlgorithm.CHACHA20_POLY1305, chacha, AeadAlgorithm.XCHACHA20_POLY1305, xchacha));
+
+        // Then
+        assertThat(keysets.algorithms()).containsExactly(AeadAlgorithm.CHACHA20_POLY1305, AeadAlgorithm.XCHACHA20_POLY1305);
+        PrimitiveHolder<?> xchachaHolder = keysets.holder(AeadAlgorithm.XCHACHA20_POLY1305).orElseThrow();
+        for (int i = 0; i < xchacha.size(); i++) {
+            assertThat(keysets.holderForKeyId(Integer.toUnsignedLong(xchacha.getAt(i).getId()))).isSameAs(xchachaHolder);
+        }
+        assertThat(keysets.holderForKeyId(Integer.toUnsignedLong(chacha.getPrimary().getId())))
+                .isSameAs(keysets.holder(AeadAlgorithm.CHACHA20_POLY1305).orElseThrow());
+        assertThat(keysets.holder(AeadAlgorithm.AES128_GCM)).isEmpty();
+        assertThat(keysets.holderForKeyId(TinkKeyIds.NO_KEY_ID)).isNull();
+    }
+
+    @Test
+    void constructor_ShouldReject_WhenPrimaryKeyUsesAnotherAlgorithm() throws GeneralSecurityException {
+        // Given
+        KeysetHandle aesGcm = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+
+        // When & Then
+        assertThatThrownBy(() -> new AlgorithmKeysets(Map.of(AeadAlgorithm.CHACHA20_POLY1305, aesGcm)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("CHACHA20_POLY1305");
+    }
+
+    @Test
+    void constructor_ShouldReject_WhenKeyIdIsUsedByDefaultKeyset() throws GeneralSecurityException {
+        // Given
+        KeysetHandle chacha = KeysetHandle.generateNew(PredefinedAeadParameters.CHACHA20_POLY1305);
+        KeysetHandle defaultKeyset = KeysetHandle.newBuilder()
+                .addEntry(KeysetHandle.generateEntryFromParameters(PredefinedAeadParameters.AES256_GCM)
+                        .withFixedId(chacha.getPrimary().getId()).makePrimary())
+                .build();
+
+        // When & Then
+        assertThat(AlgorithmKeysets.keyIds(defaultKeyset)).containsExactly(Integer.toUnsignedLong(chacha.getPrimary().getId()));
+        assertThatThrownBy(() -> new AlgorithmKeysets(Map.of(AeadAlgorithm.CHACHA20_POLY1305, chacha), AlgorithmKeysets.keyIds(defaultKeyset)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("default keyset");
+        assertThatCode(() -> new AlgorithmKeysets(Map.of(AeadAlgorithm.CHACHA20_POLY1305, chacha), Set.of()))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void constructor_ShouldReject_WhenKeyHasNoPrefix() throws GeneralSecurityException {
+        // Given
+        KeysetHandle withRawKey = KeysetHandle.newBuilder(KeysetHandle.generateNew(PredefinedAeadParameters.CHACHA20_POLY1305))
+                .addEntry(KeysetHandle.generateEntryFromParameters(
+                        ChaCha20Poly1305Parameters.create(ChaCha20Poly1305Parameters.Variant.NO_PREFIX)).withRandomId())
+                .build();
+
+        // When & Then
+        assertThatThrownBy(() -> new AlgorithmKeysets(Map.of(AeadAlgorithm.CHACHA20_POLY1305, withRawKey)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("prefix");
+    }
+
+    @Test
+    void constructor_ShouldFail_WhenAlgorithmIsNotAvailable() throws GeneralSecurityException {
+        // Given
+        assumeThat(AeadAlgorithm.AES256_GCM_SIV.isAvailable()).isFalse();
+        KeysetHandle gcmSiv = KeysetHandle.generateNew(AeadAlgorithm.AES256_GCM_SIV.parameters());
+
+        // When & Then
+        assertThatThrownBy(() -> new AlgorithmKeysets(Map.of(AeadAlgorithm.AES256_GCM_SIV, gcmSiv)))
+                .isInstanceOf(GeneralSecurityException.class)
+                .hasMessageContaining("not available");
+    }
+}
@@ -0,0 +1,203 @@
+package dev.jaderss.encrypt.crypto;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.CipherSpi;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.ShortBufferException;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.Security;
+import java.security.spec.AlgorithmParameterSpec;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CipherProviderSelectorTest {
+
+    private final String defaultProvider = CipherProviderSelector.candidates().get(0).getName();
+    private Provider[] providers;
+
+    @BeforeEach
+    void saveProviders() {
+        providers = Security.getProviders();
+    }
+
+    /**
+     * Selecting a provider reorders the JVM-wide list, so put back exactly what the other tests in this JVM expect.
+     */
+    @AfterEach
+    void restoreProviders() {
+        for (Provider provider : Security.getProviders()) {
+            Security.removeProvider(provider.getName());
+        }
+        for (Provider provider : providers) {
+            Security.addProvider(provider);
+        }
+    }
+
+    @Test
+    void select_ShouldKeepProviderOrder_WhenBenchmarkIsDisabled() throws GeneralSecurityException {
+        // When
+        CipherProviderSelector.Selection selection = new CipherProviderSelector(false, List.of(64), Duration.ofMillis(5), "").select();
+
+        // Then
+        assertThat(selection.provider()).isEqualTo(defaultProvider);
+        assertThat(selection.reason()).isEqualTo(CipherProviderSelector.Reason.DEFAULT);
+        assertThat(selection.throughputMegabytesPerSecond()).isEmpty();
+    }
+
+    @Test
+    void select_ShouldMeasureEveryCandidate_WhenBenchmarkIsEnabled() throws GeneralSecurityException {
+        // Given
+        Security.addProvider(new DelegatingProvider());
+
+        // When
+        CipherProviderSelector.Selection selection = new CipherProviderSelector(true, List.of(64, 4096), Duration.ofMillis(5), "").select();
+
+        // Then
+        assertThat(selection.reason()).isEqualTo(CipherProviderSelector.Reason.BENCHMARK);
+        assertThat(selection.candidates()).contains(defaultProvider, DelegatingProvider.NAME);
+        assertThat(selection.throughputMegabytesPerSecond()).containsOnlyKeys(selection.candidates());
+        assertThat(selection.throughputMegabytesPerSecond().get(DelegatingProvider.NAME))
+                .containsOnlyKeys(64, 4096)
+                .allSatisfy((size, throughput) -> assertThat(throughput).isPositive());
+        assertThat(CipherProviderSelector.candidates().get(0).getName()).isEqualTo(selection.provider());
+    }
+
+    @Test
+    void select_ShouldMoveConfiguredProviderToFront() throws GeneralSecurityException {
+        // Given
+        Security.addProvider(new DelegatingProvider());
+
+        // When
+        CipherProviderSelector.Selection selection = new CipherProviderSelector(true, List.of(64), Duration.ofMillis(5), DelegatingProvider.NAME).select();
+
+        // Then
+        assertThat(selection.provider()).isEqualTo(DelegatingProvider.NAME);
+        assertThat(selection.reason()).isEqualTo(CipherProviderSelector.Reason.CONFIGURED);
+        assertThat(selection.throughputMegabytesPerSecond()).isEmpty();
+        assertThat(Cipher.getInstance(CipherProviderSelector.TRANSFORMATION).getProvider().getName()).isEqualTo(DelegatingProvider.NAME);
+    }
+
+    @Test
+    void select_ShouldFail_WhenConfiguredProviderDoesNotImplementAesGcm() {
+        // Given
+        CipherProviderSelector selector = new CipherProviderSelector(false, List.of(64), Duration.ofMillis(5), "NoSuchProvider");
+
+        // When & Then
+        assertThatThrownBy(selector::select)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("NoSuchProvider");
+    }
+
+    @Test
+    void register_ShouldSkipClassesThatAreNotOnTheClasspath() {
+        // When
+        CipherProviderSelector.register(List.of("org.example.MissingProvider", DelegatingProvider.class.getName()));
+
+        // Then
+        assertThat(Security.getProvider(DelegatingProvider.NAME)).isNotNull();
+    }
+
+    /**
+     * Second AES-GCM provider that forwards to the default one, so there is a real choice to make.
+     */
+    public static class DelegatingProvider extends Provider {
+
+        static final String NAME = "TestDelegatingGcm";
+
+        public DelegatingProvider() {
+            super(NAME, "1.0", "AES-GCM forwarding to the default provider");
+            put("Cipher." + CipherProviderSelector.TRANSFORMATION, DelegatingCipherSpi.class.getName());
+        }
+    }
+
+    public static class DelegatingCipherSpi extends CipherSpi {
+
+        private final Cipher delegate;
+
+        public DelegatingCipherSpi() throws GeneralSecurityException {
+            delegate = Cipher.getInstance(CipherProviderSelector.TRANSFORMATION, "SunJCE");
+        }
+
+        @Override
+        protected void engineSetMode(String mode) {
+        }
+
+        @Override
+        protected void engineSetPadding(String padding) {
+        }
+
+        @Override
+        protected int engineGetBlockSize() {
+            return delegate.getBlockSize();
+        }
+
+        @Override
+        protected int engineGetOutputSize(int inputLen) {
+            return delegate.getOutputSize(inputLen);
+        }
+
+        @Override
+        protected byte[] engineGetIV() {
+            return delegate.getIV();
+        }
+
+        @Override
+        protected AlgorithmParameters engineGetParameters() {
+            return delegate.getParameters();
+        }
+
+        @Override
+        protected void engineInit(int opmode, Key key, SecureRandom random) throws InvalidKeyException {
+            delegate.init(opmode, key, random);
+        }
+
+        @Override
+        protected void engineInit(int opmode, Key key, AlgorithmParameterSpec params, SecureRandom random) throws InvalidKeyException, InvalidAlgorithmParameterException {
+            delegate.init(opmode, key, params, random);
+        }
+
+        @Override
+        protected void engineInit(int opmode, Key key, AlgorithmParameters params, SecureRandom random) throws InvalidKeyException, InvalidAlgorithmParameterException {
+            delegate.init(opmode, key, params, random);
+        }
+
+        @Override
+        protected byte[] engineUpdate(byte[] input, int inputOffset, int inputLen) {
+            return delegate.update(input, inputOffset, inputLen);
+        }
+
+        @Override
+        protected int engineUpdate(byte[] input, int inputOffset, int inputLen, byte[] output, int outputOffset) throws ShortBufferException {
+            return delegate.update(input, inputOffset, inputLen, output, outputOffset);
+        }
+
+        @Override
+        protected void engineUpdateAAD(byte[] src, int offset, int len) {
+            delegate.updateAAD(src, offset, len);
+        }
+
+        @Override
+        protected byte[] engineDoFinal(byte[] input, int inputOffset, int inputLen) throws IllegalBlockSizeException, BadPaddingException {
+            return delegate.doFinal(input, inputOffset, inputLen);
+        }
+
+        @Override
+        protected int engineDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output, int outputOffset)
+                throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
+            return delegate.doFinal(input, inputOffset, inputLen, output, outputOffset);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package dev.jaderss.encrypt.crypto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CiphertextEncodingTest {
+
+    private static final byte[] CIPHERTEXT = {1, 2, 3, (byte) 0xfb, (byte) 0xff};
+
+    @Test
+    void encodeDecode_ShouldRoundTrip_ForEveryEncoding() {
+        for (CiphertextEncoding encoding : CiphertextEncoding.values()) {
+            assertThat(encoding.decode(encoding.encode(CIPHERTEXT))).as(encoding.name()).isEqualTo(CIPHERTEXT);
+        }
+    }
+
+    @Test
+    void encodeIntoBuffer_ShouldMatchEncodedLengthAndArrayEncoding() {
+        byte[] dst = new byte[64];
+        for (CiphertextEncoding encoding : CiphertextEncoding.values()) {
+            for (int length = 0; length <= 20; length++) {
+                byte[] ciphertext = Arrays.copyOf(CIPHERTEXT, length);
+                int written = encoding.encode(ciphertext, dst);
+                assertThat(written).as("%s/%d", encoding, length).isEqualTo(encoding.encodedLength(length));
+                assertThat(Arrays.copyOf(dst, written)).as("%s/%d", encoding, length).isEqualTo(encoding.encode(ciphertext));
+            }
+        }
+    }
+
+    @Test
+    void decodeByteBuffer_ShouldDecodeOnlyRemainingBytes() {
+        for (CiphertextEncoding encoding : CiphertextEncoding.values()) {
+            byte[] encoded = encoding.encode(CIPHERTEXT);
+            byte[] body = new byte[encoded.length + 4];
+            System.arraycopy(encoded, 0, body, 2, encoded.length);
+            assertThat(encoding.decode(ByteBuffer.wrap(body, 2, encoded.length))).as(encoding.name()).isEqualTo(CIPHERTEXT);
+        }
+        assertThatThrownBy(() -> CiphertextEncoding.HEX.decode(ByteBuffer.wrap(new byte[]{'a'})))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CiphertextEncoding.HEX.decode(ByteBuffer.wrap(new byte[]{'z', 'z'})))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void writeTo_ShouldWriteEncodedCiphertext() throws IOException {
+        for (CiphertextEncoding encoding : CiphertextEncoding.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            encoding.writeTo(CIPHERTEXT, out);
+            assertThat(out.toByteArray()).as(encoding.name()).isEqualTo(encoding.encode(CIPHERTEXT));
+        }
+    }
+
+    @Test
+    void writeTo_ShouldHandleCiphertextLargerThanPooledBuffer() throws IOException {
+        byte[] large = new byte[ScratchBuffers.MAX_POOLED_SIZE];
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CiphertextEncoding.BASE64.writeTo(large, out);
+        assertThat(out.toByteArray()).isEqualTo(CiphertextEncoding.BASE64.encode(large));
+    }
+
+    @Test
+    void encodeToString_ShouldUseExpectedAlphabet() {
+        assertThat(CiphertextEncoding.BASE64.encodeToString(CIPHERTEXT)).isEqualTo("AQID+/8=");
+        assertThat(CiphertextEncoding.BASE64URL.encodeToString(CIPHERTEXT)).isEqualTo("AQID-_8");
+        assertThat(CiphertextEncoding.HEX.encodeToString(CIPHERTEXT)).isEqualTo("010203fbff");
+    }
+
+    @Test
+    void of_ShouldResolveEncodingFromMediaType() {
+        assertThat(CiphertextEncoding.of(null)).isEqualTo(CiphertextEncoding.BASE64);
+        assertThat(CiphertextEncoding.of(MediaType.TEXT_PLAIN)).isEqualTo(CiphertextEncoding.BASE64);
+        assertThat(CiphertextEncoding.of(MediaType.APPLICATION_OCTET_STREAM)).isEqualTo(CiphertextEncoding.RAW);
+        assertThat(CiphertextEncoding.of(MediaType.parseMediaType("text/plain;encoding=HEX"))).isEqualTo(CiphertextEncoding.HEX);
+        assertThatThrownBy(() -> CiphertextEncoding.of(MediaType.parseMediaType("text/plain;encoding=raw")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void negotiate_ShouldPreferHighestQuality_AndFallBackToDefault() {
+        assertThat(CiphertextEncoding.negotiate(List.of(), CiphertextEncoding.RAW)).isEqualTo(CiphertextEncoding.RAW);
+        assertThat(CiphertextEncoding.negotiate(List.of(MediaType.ALL), CiphertextEncoding.BASE64)).isEqualTo(CiphertextEncoding.BASE64);
+        assertThat(CiphertextEncoding.negotiate(
+                MediaType.parseMediaTypes("application/octet-stream;q=0.5, text/plain;encoding=base64url"), CiphertextEncoding.RAW))
+                .isEqualTo(CiphertextEncoding.BASE64URL);
+        assertThat(CiphertextEncoding.negotiate(
+                MediaType.parseMediaTypes("application/json, application/octet-stream"), CiphertextEncoding.BASE64))
+                .isEqualTo(CiphertextEncoding.RAW);
+    }
+
+    @Test
+    void negotiateText_ShouldIgnoreOctetStream() {
+        assertThat(CiphertextEncoding.negotiateText(MediaType.parseMediaTypes("application/octet-stream, text/plain;q=0.1")))
+                .isEqualTo(CiphertextEncoding.BASE64);
+        assertThat(CiphertextEncoding.negotiateText(
+                MediaType.parseMediaTypes("application/octet-stream, text/plain;encoding=hex;q=0.1")))
+                .isEqualTo(CiphertextEncoding.HEX);
+        assertThat(CiphertextEncoding.negotiateText(List.of())).isEqualTo(CiphertextEncoding.BASE64);
+    }
+}
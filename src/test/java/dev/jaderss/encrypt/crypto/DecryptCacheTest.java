@@ -0,0 +1,155 @@
+package dev.jaderss.encrypt.crypto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DecryptCacheTest {
+
+    private static final byte[] CIPHERTEXT = "ciphertext".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PLAINTEXT = "session-token".getBytes(StandardCharsets.UTF_8);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void decrypt_ShouldCallLoaderOnce_WhenCiphertextRepeats() throws GeneralSecurityException {
+        // Given
+        DecryptCache cache = new DecryptCache(100, 1024 * 1024, 4096, Duration.ofMinutes(5), true, meterRegistry);
+
+        // When
+        byte[] first = cache.decrypt(CIPHERTEXT, 1, this::load);
+        byte[] second = cache.decrypt(CIPHERTEXT, 1, this::load);
+
+        // Then
+        assertThat(first).isEqualTo(PLAINTEXT);
+        assertThat(second).isEqualTo(PLAINTEXT);
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("decrypt.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "decrypt.results").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void decrypt_ShouldReturnIndependentCopies_WhenCallerModifiesResult() throws GeneralSecurityException {
+        // Given
+        DecryptCache cache = new DecryptCache(100, 1024 * 1024, 4096, Duration.ofMinutes(5), false, meterRegistry);
+        byte[] first = cache.decrypt(CIPHERTEXT, 1, this::load);
+
+        // When
+        first[0] = 'X';
+
+        // Then
+        assertThat(cache.decrypt(CIPHERTEXT, 1, this::load)).isEqualTo(PLAINTEXT);
+    }
+
+    @Test
+    void decrypt_ShouldCallLoaderAgain_WhenKeysetVersionChanges() throws GeneralSecurityException {
+        // Given
+        DecryptCache cache = new DecryptCache(100, 1024 * 1024, 4096, Duration.ofMinutes(5), true, meterRegistry);
+        cache.decrypt(CIPHERTEXT, 1, this::load);
+
+        // When
+        cache.decrypt(CIPHERTEXT, 2, this::load);
+        cache.decrypt(CIPHERTEXT, 2, this::load);
+
+        // Then
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void decrypt_ShouldNotCache_WhenPlaintextExceedsMaxEntrySize() throws GeneralSecurityException {
+        // Given
+        DecryptCache cache = new DecryptCache(100, 1024 * 1024, PLAINTEXT.length - 1, Duration.ofMinutes(5), true, meterRegistry);
+
+        // When
+        cache.decrypt(CIPHERTEXT, 1, this::load);
+        cache.decrypt(CIPHERTEXT, 1, this::load);
+
+        // Then
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void decrypt_ShouldNotCache_WhenLoaderFails() {
+        // Given
+        DecryptCache cache = new DecryptCache(100, 1024 * 1024, 4096, Duration.ofMinutes(5), true, meterRegistry);
+        DecryptCache.Loader failing = () -> {
+            loads.incrementAndGet();
+            throw new GeneralSecurityException("decryption failed");
+        };
+
+        // When & Then
+        assertThatThrownBy(() -> cache.decrypt(CIPHERTEXT, 1, failing)).isInstanceOf(GeneralSecurityException.class);
+        assertThatThrownBy(() -> cache.decrypt(CIPHERTEXT, 1, failing)).isInstanceOf(GeneralSecurityException.class);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void decrypt_ShouldBoundEntryCount_WhenEntriesAreSmallerThanTheirShareOfBytes() throws GeneralSecurityException {
+        // Given
+        DecryptCache cache = new DecryptCache(10, 1024 * 1024, 4096, Duration.ofMinutes(5), true, meterRegistry);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            cache.decrypt(("ciphertext-" + i).getBytes(StandardCharsets.UTF_8), 1, this::load);
+        }
+
+        // Then
+        assertThat(meterRegistry.get("cache.size").tag("cache", "decrypt.results").gauge().value()).isLessThanOrEqualTo(10);
+        assertThat(meterRegistry.get("decrypt.cache.weighted.size").gauge().value()).isLessThanOrEqualTo(1024 * 1024);
+    }
+
+    @Test
+    void decrypt_ShouldBoundBytes_WhenEntriesAreLarge() throws GeneralSecurityException {
+        // Given
+        DecryptCache cache = new DecryptCache(1000, 8 * 1024, 4096, Duration.ofMinutes(5), true, meterRegistry);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            cache.decrypt(("ciphertext-" + i).getBytes(StandardCharsets.UTF_8), 1, () -> new byte[4096]);
+        }
+
+        // Then
+        assertThat(meterRegistry.get("decrypt.cache.weighted.size").gauge().value()).isLessThanOrEqualTo(8 * 1024);
+        assertThat(meterRegistry.get("cache.size").tag("cache", "decrypt.results").gauge().value()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void decrypt_ShouldCallLoaderAgain_WhenEntryExpired() throws Exception {
+        // Given
+        DecryptCache cache = new DecryptCache(100, 1024 * 1024, 4096, Duration.ofMillis(20), true, meterRegistry);
+        cache.decrypt(CIPHERTEXT, 1, this::load);
+
+        // When
+        Thread.sleep(200);
+        cache.decrypt(CIPHERTEXT, 1, this::load);
+
+        // Then
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void decrypt_ShouldAlwaysCallLoader_WhenDisabled() throws GeneralSecurityException {
+        // Given
+        DecryptCache cache = DecryptCache.disabled();
+
+        // When
+        cache.decrypt(CIPHERTEXT, 1, this::load);
+        cache.decrypt(CIPHERTEXT, 1, this::load);
+
+        // Then
+        assertThat(cache.isEnabled()).isFalse();
+        assertThat(loads).hasValue(2);
+    }
+
+    private byte[] load() {
+        loads.incrementAndGet();
+        return PLAINTEXT.clone();
+    }
+}
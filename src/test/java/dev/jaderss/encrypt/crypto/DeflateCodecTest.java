@@ -0,0 +1,68 @@
+package dev.jaderss.encrypt.crypto;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DeflateCodecTest {
+
+    private final DeflateCodec codec = new DeflateCodec();
+
+    @Test
+    void compress_ShouldRoundTripAndShrinkRepetitiveText() throws IOException {
+        // Given
+        byte[] json = "{\"name\":\"value\",\"items\":[1,2,3]},".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+        // When
+        byte[] compressed = codec.compress(json);
+        byte[] decompressed = codec.decompress(compressed, json.length);
+
+        // Then
+        assertThat(compressed.length).isLessThan(json.length / 10);
+        assertThat(decompressed).isEqualTo(json);
+    }
+
+    @Test
+    void decompress_ShouldRoundTripEmptyInput() throws IOException {
+        // When
+        byte[] decompressed = codec.decompress(codec.compress(new byte[0]), 1);
+
+        // Then
+        assertThat(decompressed).isEmpty();
+    }
+
+    @Test
+    void decompress_ShouldFail_WhenOutputExceedsLimit() {
+        // Given
+        byte[] zeros = new byte[1024 * 1024];
+        byte[] compressed = codec.compress(zeros);
+
+        // When & Then
+        assertThat(compressed.length).isLessThan(2048);
+        assertThatThrownBy(() -> codec.decompress(compressed, zeros.length - 1))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("exceeds");
+    }
+
+    @Test
+    void decompress_ShouldFail_WhenStreamIsTruncated() {
+        // Given
+        byte[] compressed = codec.compress("truncated deflate stream ".repeat(50).getBytes(StandardCharsets.UTF_8));
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+
+        // When & Then
+        assertThatThrownBy(() -> codec.decompress(truncated, Integer.MAX_VALUE))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidLevel() {
+        // When & Then
+        assertThatThrownBy(() -> new DeflateCodec(10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,123 @@
+package dev.jaderss.encrypt.crypto;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.InsecureSecretKeyAccess;
+import com.google.crypto.tink.KeyStatus;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.TinkJsonProtoKeysetFormat;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+
+import static org.assertj.core.api.Assertions.*;
+
+class KeysetFileWatcherTest {
+
+    private static final byte[] PLAINTEXT = "Hello World!".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NO_AD = new byte[0];
+
+    @TempDir
+    Path tempDir;
+
+    private Path keyFile;
+    private KeysetHandle original;
+    private PrimitiveHolder<Aead> holder;
+    private KeysetFileWatcher watcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AeadConfig.register();
+        keyFile = tempDir.resolve("master-key.json");
+        original = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+        write(keyFile, original);
+        holder = new PrimitiveHolder<>(KeysetFileWatcher.read(keyFile), Aead.class);
+        watcher = new KeysetFileWatcher(keyFile, holder, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        watcher.close();
+    }
+
+    @Test
+    void reload_ShouldSwapKeysetAndKeepOldKeysDecryptable() throws Exception {
+        // Given
+        watcher.start();
+        byte[] oldCiphertext = holder.primitive().encrypt(PLAINTEXT, NO_AD);
+        write(keyFile, rotate(original));
+
+        // When
+        boolean reloaded = watcher.reload();
+
+        // Then
+        assertThat(reloaded).isTrue();
+        assertThat(holder.snapshot().version()).isEqualTo(1);
+        assertThat(holder.snapshot().primaryKeyId()).isNotEqualTo(Integer.toUnsignedLong(original.getPrimary().getId()));
+        assertThat(holder.primitive().decrypt(oldCiphertext, NO_AD)).isEqualTo(PLAINTEXT);
+    }
+
+    @Test
+    void reload_ShouldKeepCurrentKeyset_WhenFileIsInvalid() throws Exception {
+        // Given
+        watcher.start();
+        Files.writeString(keyFile, "{ not a keyset");
+
+        // When
+        boolean reloaded = watcher.reload();
+
+        // Then
+        assertThat(reloaded).isFalse();
+        assertThat(holder.snapshot().version()).isZero();
+    }
+
+    @Test
+    void reload_ShouldDoNothing_WhenContentIsUnchanged() throws Exception {
+        // Given
+        watcher.start();
+
+        // When & Then
+        assertThat(watcher.reload()).isFalse();
+        assertThat(holder.snapshot().version()).isZero();
+    }
+
+    @Test
+    void watcher_ShouldPickUpAtomicallyReplacedFile() throws Exception {
+        // Given
+        watcher.start();
+        Path staged = tempDir.resolve("master-key.json.tmp");
+        write(staged, rotate(original));
+
+        // When
+        Files.move(staged, keyFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        // Then
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (holder.snapshot().version() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(holder.snapshot().version()).isEqualTo(1);
+    }
+
+    private static KeysetHandle rotate(KeysetHandle keysetHandle) throws GeneralSecurityException {
+        return KeysetHandle.newBuilder(keysetHandle)
+                .addEntry(KeysetHandle.generateEntryFromParameters(PredefinedAeadParameters.AES256_GCM)
+                        .withRandomId()
+                        .setStatus(KeyStatus.ENABLED)
+                        .makePrimary())
+                .build();
+    }
+
+    private static void write(Path path, KeysetHandle keysetHandle) throws Exception {
+        Files.writeString(path, TinkJsonProtoKeysetFormat.serializeKeyset(keysetHandle, InsecureSecretKeyAccess.get()));
+    }
+}
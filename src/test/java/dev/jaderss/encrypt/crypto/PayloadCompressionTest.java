@@ -0,0 +1,110 @@
+package dev.jaderss.encrypt.crypto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PayloadCompressionTest {
+
+    private static final byte[] TEXT = "<item><name>value</name></item>".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+    private final DeflateCodec deflate = new DeflateCodec();
+
+    @Test
+    void compress_ShouldReturnHeaderAndBody_WhenPayloadIsAboveThreshold() throws GeneralSecurityException {
+        // Given
+        PayloadCompression compression = new PayloadCompression(List.of(deflate), deflate, 1024, Integer.MAX_VALUE);
+
+        // When
+        PayloadCompression.Compressed compressed = compression.compress(TEXT);
+
+        // Then
+        assertThat(compressed).isNotNull();
+        assertThat(compressed.header()).hasSize(PayloadCompression.HEADER_SIZE);
+        assertThat(compressed.header()[3]).isEqualTo(DeflateCodec.ID);
+        assertThat(PayloadCompression.hasHeader(concat(compressed.header(), compressed.body()))).isTrue();
+        assertThat(compression.decompress(compressed.header(), compressed.body())).isEqualTo(TEXT);
+    }
+
+    @Test
+    void compress_ShouldReturnNull_WhenPayloadIsBelowThreshold() {
+        // Given
+        PayloadCompression compression = new PayloadCompression(List.of(deflate), deflate, TEXT.length + 1, Integer.MAX_VALUE);
+
+        // When & Then
+        assertThat(compression.compress(TEXT)).isNull();
+    }
+
+    @Test
+    void compress_ShouldReturnNull_WhenCompressionDoesNotSaveSpace() {
+        // Given
+        PayloadCompression compression = new PayloadCompression(List.of(deflate), deflate, 0, Integer.MAX_VALUE);
+        byte[] incompressible = new byte[2048];
+        new SecureRandom().nextBytes(incompressible);
+
+        // When & Then
+        assertThat(compression.compress(incompressible)).isNull();
+    }
+
+    @Test
+    void compress_ShouldReturnNull_WhenDisabled() {
+        // Given
+        PayloadCompression compression = PayloadCompression.disabled();
+
+        // When & Then
+        assertThat(compression.isEnabled()).isFalse();
+        assertThat(compression.compress(TEXT)).isNull();
+    }
+
+    @Test
+    void hasHeader_ShouldBeFalse_ForTinkPrefixedCiphertext() {
+        // When & Then
+        assertThat(PayloadCompression.hasHeader(new byte[]{0x01, 0x12, 0x34, 0x56, 0x78, 0x00})).isFalse();
+        assertThat(PayloadCompression.hasHeader(new byte[]{0x00, 0x12, 0x34, 0x56, 0x78, 0x00})).isFalse();
+    }
+
+    @Test
+    void decompress_ShouldFail_WhenCodecIsUnknown() {
+        // Given
+        PayloadCompression compression = PayloadCompression.disabled();
+        byte[] header = {(byte) 0xC5, 0x7A, 1, 42};
+
+        // When & Then
+        assertThatThrownBy(() -> compression.decompress(header, new byte[1]))
+                .isInstanceOf(GeneralSecurityException.class)
+                .hasMessageContaining("Unknown compression codec 42");
+    }
+
+    @Test
+    void decompress_ShouldFail_WhenPayloadExceedsLimit() {
+        // Given
+        PayloadCompression writer = new PayloadCompression(List.of(deflate), deflate, 0, Integer.MAX_VALUE);
+        PayloadCompression reader = new PayloadCompression(List.of(deflate), null, 0, TEXT.length - 1);
+        PayloadCompression.Compressed compressed = writer.compress(TEXT);
+
+        // When & Then
+        assertThatThrownBy(() -> reader.decompress(compressed.header(), compressed.body()))
+                .isInstanceOf(GeneralSecurityException.class);
+    }
+
+    @Test
+    void constructor_ShouldRejectReservedOrDuplicateCodecIds() {
+        // When & Then
+        assertThatThrownBy(() -> new PayloadCompression(List.of(deflate, new DeflateCodec(9)), null, 0, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PayloadCompression(List.of(), deflate, 0, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] concat(byte[] header, byte[] body) {
+        byte[] result = new byte[header.length + body.length];
+        System.arraycopy(header, 0, result, 0, header.length);
+        System.arraycopy(body, 0, result, header.length, body.length);
+        return result;
+    }
+}
@@ -0,0 +1,73 @@
+package dev.jaderss.encrypt.crypto;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import com.google.crypto.tink.mac.MacConfig;
+import com.google.crypto.tink.mac.PredefinedMacParameters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PrimitiveHolderTest {
+
+    private KeysetHandle keysetHandle;
+    private PrimitiveHolder<Aead> holder;
+
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        AeadConfig.register();
+        keysetHandle = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+        holder = new PrimitiveHolder<>(keysetHandle, Aead.class);
+    }
+
+    @Test
+    void primitive_ShouldReturnSameInstance_OnRepeatedCalls() {
+        // When
+        Aead first = holder.primitive();
+        Aead second = holder.primitive();
+
+        // Then
+        assertThat(first).isSameAs(second);
+        assertThat(holder.keysetHandle()).isSameAs(keysetHandle);
+        assertThat(holder.snapshot().version()).isZero();
+    }
+
+    @Test
+    void update_ShouldSwapPrimitiveAndBumpVersion() throws GeneralSecurityException {
+        // Given
+        Aead before = holder.primitive();
+        KeysetHandle rotated = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+
+        // When
+        PrimitiveHolder.Snapshot<Aead> snapshot = holder.update(rotated);
+
+        // Then
+        assertThat(snapshot.version()).isEqualTo(1);
+        assertThat(holder.primitive()).isNotSameAs(before);
+        assertThat(holder.keysetHandle()).isSameAs(rotated);
+
+        byte[] ciphertext = holder.primitive().encrypt("Hello World!".getBytes(StandardCharsets.UTF_8), new byte[0]);
+        assertThatThrownBy(() -> before.decrypt(ciphertext, new byte[0]))
+                .isInstanceOf(GeneralSecurityException.class);
+    }
+
+    @Test
+    void update_ShouldKeepCurrentPrimitive_WhenNewKeysetIsInvalid() throws GeneralSecurityException {
+        // Given
+        Aead before = holder.primitive();
+        MacConfig.register();
+        KeysetHandle macKeyset = KeysetHandle.generateNew(PredefinedMacParameters.HMAC_SHA256_128BITTAG);
+
+        // When & Then
+        assertThatThrownBy(() -> holder.update(macKeyset))
+                .isInstanceOf(GeneralSecurityException.class);
+        assertThat(holder.primitive()).isSameAs(before);
+        assertThat(holder.snapshot().version()).isZero();
+    }
+}
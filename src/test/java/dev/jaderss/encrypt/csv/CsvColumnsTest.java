@@ -0,0 +1,52 @@
+package dev.jaderss.encrypt.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CsvColumnsTest {
+
+    @Test
+    void resolve_ShouldMatchHeaderNamesAndNumbers() {
+        // Given
+        CsvRecord header = header("\uFEFFid", "email", "2024", "ssn");
+
+        // When
+        int[] indexes = CsvColumns.parse(List.of(" ssn ", "id", "2024", "2")).resolve(header);
+
+        // Then
+        assertThat(indexes).containsExactly(0, 1, 2, 3);
+    }
+
+    @Test
+    void resolve_ShouldUseNumbers_WhenThereIsNoHeader() {
+        assertThat(CsvColumns.parse(List.of("3", "1", "3")).resolve(null)).containsExactly(0, 2);
+    }
+
+    @Test
+    void resolve_ShouldReject_UnknownColumn() {
+        assertThatThrownBy(() -> CsvColumns.parse(List.of("phone")).resolve(header("id", "email")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("phone");
+        assertThatThrownBy(() -> CsvColumns.parse(List.of("0")).resolve(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parse_ShouldReject_MissingOrBlankColumns() {
+        assertThatThrownBy(() -> CsvColumns.parse(List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CsvColumns.parse(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CsvColumns.parse(List.of("email", " "))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static CsvRecord header(String... names) {
+        byte[][] fields = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            fields[i] = names[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return new CsvRecord(1, fields);
+    }
+}
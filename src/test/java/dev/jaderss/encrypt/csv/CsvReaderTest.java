@@ -0,0 +1,105 @@
+package dev.jaderss.encrypt.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void next_ShouldSplitQuotedAndUnquotedFields() throws IOException {
+        // Given
+        CsvReader reader = reader("id,name,note\r\n1,\"Doe, Jane\",\"said \"\"hi\"\"\r\nthen left\"\r\n2,,\r\n");
+
+        // When
+        List<List<String>> records = readAll(reader);
+
+        // Then
+        assertThat(records).containsExactly(
+                List.of("id", "name", "note"),
+                List.of("1", "Doe, Jane", "said \"hi\"\r\nthen left"),
+                List.of("2", "", ""));
+        assertThat(reader.lineEnd()).containsExactly('\r', '\n');
+    }
+
+    @Test
+    void next_ShouldNumberRecordsAndHandleMissingFinalLineBreak() throws IOException {
+        // Given
+        CsvReader reader = reader("a;b\n\nc;\"d\"");
+
+        // When
+        CsvRecord first = reader.next();
+        CsvRecord empty = reader.next();
+        CsvRecord last = reader.next();
+
+        // Then
+        assertThat(first.number()).isEqualTo(1);
+        assertThat(empty.fields()).hasDimensions(1, 0);
+        assertThat(last.number()).isEqualTo(3);
+        assertThat(strings(last)).containsExactly("c", "d");
+        assertThat(reader.next()).isNull();
+        assertThat(reader.lineEnd()).containsExactly('\n');
+    }
+
+    @Test
+    void next_ShouldReject_MalformedQuotes() {
+        assertThatThrownBy(() -> readAll(reader("a,\"unterminated\n")))
+                .isInstanceOf(CsvFormatException.class)
+                .hasMessageContaining("unterminated");
+        assertThatThrownBy(() -> readAll(reader("a,\"quoted\"tail\n")))
+                .isInstanceOf(CsvFormatException.class)
+                .hasMessageContaining("after a closing quote");
+    }
+
+    @Test
+    void next_ShouldReject_RecordLongerThanLimit() {
+        // Given
+        CsvReader reader = new CsvReader(new ByteArrayInputStream("short\n\"".concat("x".repeat(100)).getBytes(StandardCharsets.UTF_8)), (byte) ',', 64);
+
+        // When & Then
+        assertThatThrownBy(() -> readAll(reader))
+                .isInstanceOf(CsvFormatException.class)
+                .hasMessageContaining("Record 2 is longer than 64 bytes");
+    }
+
+    @Test
+    void writer_ShouldRoundTripThroughReader() throws IOException {
+        // Given
+        String input = "plain,\"with,comma\",\"with \"\"quote\"\"\",\"multi\nline\",ünïcode\n";
+        CsvReader reader = reader(input);
+        CsvWriter writer = new CsvWriter((byte) ',', new byte[]{'\n'});
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        writer.write(reader.next().fields(), out);
+
+        // Then
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(input);
+    }
+
+    private static CsvReader reader(String csv) {
+        char delimiter = csv.contains(";") ? ';' : ',';
+        return new CsvReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), (byte) delimiter, 1 << 20);
+    }
+
+    private static List<List<String>> readAll(CsvReader reader) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        CsvRecord record;
+        while ((record = reader.next()) != null) {
+            records.add(strings(record));
+        }
+        return records;
+    }
+
+    private static List<String> strings(CsvRecord record) {
+        return Arrays.stream(record.fields()).map(field -> new String(field, StandardCharsets.UTF_8)).toList();
+    }
+}
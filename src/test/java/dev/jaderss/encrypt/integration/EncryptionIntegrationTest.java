@@ -2,14 +2,32 @@ package dev.jaderss.encrypt.integration;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
 import static org.assertj.core.api.Assertions.*;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"encrypt.reactive.enabled=true", "encrypt.reactive.port=0", "encrypt.blobs.dir=target/integration-blobs"})
 class EncryptionIntegrationTest {
 
     @LocalServerPort
@@ -18,6 +36,10 @@ class EncryptionIntegrationTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    @Qualifier("reactiveWebServer")
+    private WebServer reactiveWebServer;
+
     private String getBaseUrl() {
         return "http://localhost:" + port;
     }
@@ -195,10 +217,24 @@ class EncryptionIntegrationTest {
         assertThat(decryptResponse.getBody()).isEqualTo(originalText);
     }
 
+    @Test
+    void decrypt_ShouldReturn400_WhenCiphertextIsNotBase64() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.TEXT_PLAIN);
+
+        // When
+        ResponseEntity<String> decryptResponse = restTemplate.postForEntity(
+                getBaseUrl() + "/decrypt", new HttpEntity<>("invalid-ciphertext!", headers), String.class);
+
+        // Then
+        assertThat(decryptResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     void decrypt_ShouldReturn500_WhenGivenInvalidCiphertext() {
         // Given
-        String invalidCiphertext = "invalid-ciphertext";
+        String invalidCiphertext = "AQIDBAUGBwgJCgsMDQ4PEBESExQVFhcYGRobHB0eHyA=";
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.TEXT_PLAIN);
 
@@ -256,4 +292,306 @@ class EncryptionIntegrationTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
     }
-}
\ No newline at end of file
+
+    @Test
+    void encryptAndDecryptBatch_ShouldWorkEndToEnd_AndReportErrorsPerElement() {
+        // Given
+        List<String> originalValues = List.of("Hello World!", "Unicode: 你好世界 🌍 émojis", "");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ParameterizedTypeReference<List<Map<String, String>>> resultType = new ParameterizedTypeReference<>() {
+        };
+
+        // When - Encrypt
+        ResponseEntity<List<Map<String, String>>> encryptResponse = restTemplate.exchange(
+                getBaseUrl() + "/encrypt/batch", HttpMethod.POST, new HttpEntity<>(originalValues, headers), resultType);
+
+        // Then - Verify encryption
+        assertThat(encryptResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(encryptResponse.getBody()).hasSize(3);
+
+        // When - Decrypt, with one invalid element in the middle
+        List<String> ciphertexts = List.of(
+                encryptResponse.getBody().get(0).get("value"),
+                "invalid-ciphertext",
+                encryptResponse.getBody().get(1).get("value"),
+                encryptResponse.getBody().get(2).get("value"));
+        ResponseEntity<List<Map<String, String>>> decryptResponse = restTemplate.exchange(
+                getBaseUrl() + "/decrypt/batch", HttpMethod.POST, new HttpEntity<>(ciphertexts, headers), resultType);
+
+        // Then - Verify decryption
+        assertThat(decryptResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(decryptResponse.getBody()).hasSize(4);
+        assertThat(decryptResponse.getBody().get(0).get("value")).isEqualTo(originalValues.get(0));
+        assertThat(decryptResponse.getBody().get(1).get("error")).isNotNull();
+        assertThat(decryptResponse.getBody().get(2).get("value")).isEqualTo(originalValues.get(1));
+        assertThat(decryptResponse.getBody().get(3).get("value")).isEqualTo(originalValues.get(2));
+    }
+
+    @Test
+    void encryptAndDecryptStream_ShouldWorkEndToEnd_WithLargePayload() throws Exception {
+        // Given
+        byte[] original = new byte[8 * 1024 * 1024 + 3];
+        new Random(7).nextBytes(original);
+
+        // When - Encrypt
+        byte[] encrypted = postFullDuplex("/encrypt/stream", original);
+
+        // Then - Verify encryption
+        assertThat(encrypted).hasSizeGreaterThan(original.length);
+
+        // When - Decrypt
+        byte[] decrypted = postFullDuplex("/decrypt/stream", encrypted);
+
+        // Then - Verify decryption
+        assertThat(decrypted).isEqualTo(original);
+    }
+
+    /**
+     * The streaming endpoints answer while the upload is still in progress, so the client has to read the
+     * response concurrently (as curl does). RestTemplate and the JDK HttpClient only read once the body is sent.
+     */
+    private byte[] postFullDuplex(String path, byte[] body) throws Exception {
+        try (Socket socket = new Socket("localhost", port)) {
+            CompletableFuture<Void> upload = CompletableFuture.runAsync(() -> {
+                try {
+                    OutputStream out = socket.getOutputStream();
+                    String head = "POST " + path + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n"
+                            + "Content-Type: application/octet-stream\r\nContent-Length: " + body.length + "\r\n\r\n";
+                    out.write(head.getBytes(StandardCharsets.US_ASCII));
+                    out.write(body);
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            assertThat(readLine(in)).startsWith("HTTP/1.1 200");
+            boolean chunked = false;
+            for (String line = readLine(in); !line.isEmpty(); line = readLine(in)) {
+                chunked |= line.equalsIgnoreCase("Transfer-Encoding: chunked");
+            }
+            assertThat(chunked).isTrue();
+            ByteArrayOutputStream response = new ByteArrayOutputStream();
+            for (int size = Integer.parseInt(readLine(in), 16); size > 0; size = Integer.parseInt(readLine(in), 16)) {
+                byte[] chunk = new byte[size];
+                in.readFully(chunk);
+                response.write(chunk);
+                readLine(in);
+            }
+            upload.get();
+            return response.toByteArray();
+        }
+    }
+
+    private static String readLine(DataInputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int c = in.read(); c != '\n'; c = in.read()) {
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+
+    @Test
+    void decryptStream_ShouldReturn500_WhenGivenInvalidCiphertext() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+
+        // When
+        ResponseEntity<byte[]> response = restTemplate.postForEntity(
+                getBaseUrl() + "/decrypt/stream", new HttpEntity<>(new byte[]{1, 2, 3, 4}, headers), byte[].class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    void encryptAndDecrypt_ShouldWorkEndToEnd_WithRawBytes() {
+        // Given
+        byte[] original = {0, 1, 2, (byte) 0x80, (byte) 0xff};
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setAccept(List.of(MediaType.APPLICATION_OCTET_STREAM));
+
+        // When - Encrypt
+        ResponseEntity<byte[]> encryptResponse = restTemplate.postForEntity(
+                getBaseUrl() + "/encrypt", new HttpEntity<>(original, headers), byte[].class);
+
+        // Then - Verify encryption
+        assertThat(encryptResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(encryptResponse.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_OCTET_STREAM);
+
+        // When - Decrypt
+        ResponseEntity<byte[]> decryptResponse = restTemplate.postForEntity(
+                getBaseUrl() + "/decrypt", new HttpEntity<>(encryptResponse.getBody(), headers), byte[].class);
+
+        // Then - Verify decryption
+        assertThat(decryptResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(decryptResponse.getBody()).isEqualTo(original);
+    }
+
+    @Test
+    void encryptAndDecrypt_ShouldWorkEndToEnd_WithHexEncoding() {
+        // Given
+        String originalText = "Hello World!";
+        MediaType hex = MediaType.parseMediaType("text/plain;encoding=hex");
+        HttpHeaders encryptHeaders = new HttpHeaders();
+        encryptHeaders.setContentType(MediaType.TEXT_PLAIN);
+        encryptHeaders.setAccept(List.of(hex));
+
+        // When - Encrypt
+        ResponseEntity<String> encryptResponse = restTemplate.postForEntity(
+                getBaseUrl() + "/encrypt", new HttpEntity<>(originalText, encryptHeaders), String.class);
+
+        // Then - Verify encryption
+        assertThat(encryptResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(encryptResponse.getBody()).matches("[0-9a-f]+");
+
+        // When - Decrypt
+        HttpHeaders decryptHeaders = new HttpHeaders();
+        decryptHeaders.setContentType(hex);
+        ResponseEntity<String> decryptResponse = restTemplate.postForEntity(
+                getBaseUrl() + "/decrypt", new HttpEntity<>(encryptResponse.getBody(), decryptHeaders), String.class);
+
+        // Then - Verify decryption
+        assertThat(decryptResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(decryptResponse.getBody()).isEqualTo(originalText);
+    }
+
+    @Test
+    void metrics_ShouldExposeCryptoOperationLatency() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.TEXT_PLAIN);
+        restTemplate.postForEntity(getBaseUrl() + "/encrypt", new HttpEntity<>("Hello World!", headers), String.class);
+
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                getBaseUrl() + "/actuator/metrics/crypto.operation?tag=operation:encrypt", String.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).contains("\"COUNT\"");
+    }
+
+    @Test
+    void actuator_ShouldReportCipherProviderSelection() {
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity(getBaseUrl() + "/actuator/cipherprovider", String.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).contains("\"provider\":\"SunJCE\"", "\"reason\":\"DEFAULT\"");
+    }
+
+    @Test
+    void deterministicEncryptAndDecrypt_ShouldWorkEndToEnd_AndBeRepeatable() {
+        // Given
+        String originalText = "Hello World!";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.TEXT_PLAIN);
+
+        // When - Encrypt twice
+        ResponseEntity<String> first = restTemplate.postForEntity(
+                getBaseUrl() + "/deterministic/encrypt", new HttpEntity<>(originalText, headers), String.class);
+        ResponseEntity<String> second = restTemplate.postForEntity(
+                getBaseUrl() + "/deterministic/encrypt", new HttpEntity<>(originalText, headers), String.class);
+
+        // Then - Verify encryption is deterministic
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody()).isEqualTo(second.getBody());
+
+        // When - Decrypt
+        ResponseEntity<String> decryptResponse = restTemplate.postForEntity(
+                getBaseUrl() + "/deterministic/decrypt", new HttpEntity<>(first.getBody(), headers), String.class);
+
+        // Then - Verify decryption
+        assertThat(decryptResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(decryptResponse.getBody()).isEqualTo(originalText);
+    }
+
+    @Test
+    void envelopeEncryptAndDecrypt_ShouldWorkEndToEnd() {
+        // Given
+        String originalText = "Hello World!";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.TEXT_PLAIN);
+
+        // When - Encrypt
+        ResponseEntity<String> encryptResponse = restTemplate.postForEntity(
+                getBaseUrl() + "/envelope/encrypt?scope=orders", new HttpEntity<>(originalText, headers), String.class);
+
+        // Then - Verify encryption
+        assertThat(encryptResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        // When - Decrypt
+        ResponseEntity<String> decryptResponse = restTemplate.postForEntity(
+                getBaseUrl() + "/envelope/decrypt", new HttpEntity<>(encryptResponse.getBody(), headers), String.class);
+
+        // Then - Verify decryption
+        assertThat(decryptResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(decryptResponse.getBody()).isEqualTo(originalText);
+    }
+
+    @Test
+    void reactiveEncryptAndDecrypt_ShouldWorkEndToEnd() {
+        // Given
+        String reactiveUrl = "http://localhost:" + reactiveWebServer.getPort();
+        String originalText = "Hello World!";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.TEXT_PLAIN);
+
+        // When - Encrypt
+        ResponseEntity<String> encryptResponse = restTemplate.postForEntity(
+                reactiveUrl + "/encrypt", new HttpEntity<>(originalText, headers), String.class);
+
+        // Then - Verify encryption
+        assertThat(encryptResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        // When - Decrypt on the servlet stack, which shares the keyset
+        ResponseEntity<String> decryptResponse = restTemplate.postForEntity(
+                getBaseUrl() + "/decrypt", new HttpEntity<>(encryptResponse.getBody(), headers), String.class);
+
+        // Then - Verify decryption
+        assertThat(decryptResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(decryptResponse.getBody()).isEqualTo(originalText);
+    }
+
+    @Test
+    void generateKeys_ShouldReturnDistinctKeys_InBulk() {
+        // When
+        ResponseEntity<List<String>> response = restTemplate.exchange(
+                getBaseUrl() + "/key/generate?count=50", HttpMethod.POST, null,
+                new ParameterizedTypeReference<List<String>>() {});
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).hasSize(50).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void blobs_ShouldServeDecryptedRange_EndToEnd() {
+        // Given
+        byte[] original = new byte[100_000];
+        new Random(7).nextBytes(original);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        ResponseEntity<Void> putResponse = restTemplate.exchange(
+                getBaseUrl() + "/blobs/integration.bin", HttpMethod.PUT, new HttpEntity<>(original, headers), Void.class);
+        HttpHeaders rangeHeaders = new HttpHeaders();
+        rangeHeaders.setRange(List.of(HttpRange.createByteRange(70_000, 70_099)));
+
+        // When
+        ResponseEntity<byte[]> rangeResponse = restTemplate.exchange(
+                getBaseUrl() + "/blobs/integration.bin", HttpMethod.GET, new HttpEntity<>(rangeHeaders), byte[].class);
+
+        // Then
+        assertThat(putResponse.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(rangeResponse.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(rangeResponse.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 70000-70099/100000");
+        assertThat(rangeResponse.getBody()).isEqualTo(Arrays.copyOfRange(original, 70_000, 70_100));
+    }
+}
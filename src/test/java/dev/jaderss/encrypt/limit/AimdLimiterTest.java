@@ -0,0 +1,153 @@
+package dev.jaderss.encrypt.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AimdLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void tryAcquire_ShouldReject_WhenLimitIsReached() {
+        // Given
+        AimdLimiter limiter = limiter(2, 1, 10);
+        AimdLimiter.Permit first = limiter.tryAcquire();
+        AimdLimiter.Permit second = limiter.tryAcquire();
+
+        // When
+        AimdLimiter.Permit third = limiter.tryAcquire();
+
+        // Then
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(third).isNull();
+        assertThat(limiter.inFlight()).isEqualTo(2);
+        assertThat(meterRegistry.get("crypto.concurrency.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void release_ShouldFreeSlot_OnlyOnce() {
+        // Given
+        AimdLimiter limiter = limiter(1, 1, 1);
+        AimdLimiter.Permit permit = limiter.tryAcquire();
+
+        // When
+        permit.release();
+        permit.release();
+
+        // Then
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(limiter.tryAcquire()).isNotNull();
+        assertThat(limiter.tryAcquire()).isNull();
+    }
+
+    @Test
+    void release_ShouldGrowLimit_WhenFastRequestsUseTheLimit() {
+        // Given
+        AimdLimiter limiter = limiter(4, 1, 10);
+
+        // When
+        for (int round = 0; round < 20; round++) {
+            runConcurrently(limiter, limiter.limit(), FAST);
+        }
+
+        // Then
+        assertThat(limiter.limit()).isGreaterThan(4);
+        assertThat(meterRegistry.get("crypto.concurrency.limit").gauge().value()).isEqualTo(limiter.limit());
+    }
+
+    @Test
+    void release_ShouldNotGrowLimit_WhenMostOfItIsUnused() {
+        // Given
+        AimdLimiter limiter = limiter(10, 1, 100);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            runConcurrently(limiter, 1, FAST);
+        }
+
+        // Then
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void release_ShouldShrinkLimitOncePerWindow_WhenRequestsAreSlow() {
+        // Given
+        AimdLimiter limiter = limiter(20, 2, 100);
+        clock.addAndGet(1);
+
+        // When
+        runConcurrently(limiter, 20, SLOW);
+
+        // Then
+        assertThat(limiter.limit()).isEqualTo(18);
+    }
+
+    @Test
+    void release_ShouldMeasureLatencyFromBodyRead() {
+        // Given
+        AimdLimiter limiter = limiter(20, 2, 100);
+        clock.addAndGet(1);
+        AimdLimiter.Permit permit = limiter.tryAcquire();
+        clock.addAndGet(SLOW);
+        permit.bodyRead();
+        clock.addAndGet(FAST);
+
+        // When
+        permit.release();
+
+        // Then
+        assertThat(limiter.limit()).isEqualTo(20);
+    }
+
+    @Test
+    void release_ShouldNotShrinkBelowMinimum() {
+        // Given
+        AimdLimiter limiter = limiter(20, 5, 100);
+
+        // When
+        for (int round = 0; round < 100; round++) {
+            clock.addAndGet(1);
+            runConcurrently(limiter, 1, SLOW);
+        }
+
+        // Then
+        assertThat(limiter.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void constructor_ShouldRejectInconsistentLimits() {
+        assertThatThrownBy(() -> limiter(1, 2, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> limiter(20, 1, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AimdLimiter(5, 1, 10, Duration.ofMillis(10), 1.0, meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private AimdLimiter limiter(int initial, int min, int max) {
+        return new AimdLimiter(initial, min, max, Duration.ofMillis(10), 0.9, meterRegistry, clock::get);
+    }
+
+    /**
+     * Admits {@code count} requests at the same instant and completes them all {@code latency} later.
+     */
+    private void runConcurrently(AimdLimiter limiter, int count, long latency) {
+        List<AimdLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            permits.add(limiter.tryAcquire());
+        }
+        clock.addAndGet(latency);
+        permits.forEach(AimdLimiter.Permit::release);
+    }
+}
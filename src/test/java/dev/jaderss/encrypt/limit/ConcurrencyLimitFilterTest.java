@@ -0,0 +1,98 @@
+package dev.jaderss.encrypt.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final AimdLimiter limiter = new AimdLimiter(1, 1, 10, Duration.ofSeconds(1), 0.9, new SimpleMeterRegistry());
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiter, 2);
+
+    @Test
+    void doFilter_ShouldPassRequestThrough_WhenUnderLimit() throws ServletException, IOException {
+        // Given
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("POST", "/encrypt"), response, chain);
+
+        // Then
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void doFilter_ShouldReturn503WithRetryAfter_WhenOverLimit() throws ServletException, IOException {
+        // Given
+        AimdLimiter.Permit busy = limiter.tryAcquire();
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("POST", "/decrypt"), response, chain);
+
+        // Then
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        busy.release();
+    }
+
+    @Test
+    void doFilter_ShouldReleasePermit_WhenHandlerThrows() {
+        // Given
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                throw new IllegalStateException("handler failed");
+            }
+        });
+
+        // When
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("POST", "/encrypt"), new MockHttpServletResponse(), chain))
+                .isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void doFilter_ShouldNotShrinkLimit_WhenOnlyTheUploadIsSlow() throws ServletException, IOException {
+        // Given
+        AtomicLong clock = new AtomicLong(1);
+        AimdLimiter timed = new AimdLimiter(20, 2, 100, Duration.ofMillis(10), 0.9, new SimpleMeterRegistry(), clock::get);
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+                req.getInputStream().readAllBytes();
+                clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        });
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/encrypt");
+        request.setContent("payload".getBytes());
+
+        // When
+        new ConcurrencyLimitFilter(timed, 1).doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertThat(timed.limit()).isEqualTo(20);
+    }
+}
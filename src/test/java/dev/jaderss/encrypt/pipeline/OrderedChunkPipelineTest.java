@@ -0,0 +1,138 @@
+package dev.jaderss.encrypt.pipeline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OrderedChunkPipelineTest {
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void run_ShouldDeliverResultsInInputOrder() throws Exception {
+        // Given
+        OrderedChunkPipeline<Integer, Integer> pipeline = new OrderedChunkPipeline<>(workers, 7, 4);
+        AtomicInteger next = new AtomicInteger();
+        List<Integer> output = new ArrayList<>();
+
+        // When
+        long records = pipeline.run(
+                () -> next.get() < 1000 ? next.getAndIncrement() : null,
+                chunk -> {
+                    // Finish chunks out of order
+                    LockSupport.parkNanos(ThreadLocalRandom.current().nextInt(1_000_000));
+                    return chunk.stream().map(value -> value * 2).toList();
+                },
+                output::addAll);
+
+        // Then
+        assertThat(records).isEqualTo(1000);
+        assertThat(output).containsExactlyElementsOf(IntStream.range(0, 1000).map(value -> value * 2).boxed().toList());
+    }
+
+    @Test
+    void run_ShouldBoundRecordsReadAheadOfSink() throws Exception {
+        // Given
+        int chunkSize = 10;
+        int maxInFlight = 3;
+        OrderedChunkPipeline<Integer, Integer> pipeline = new OrderedChunkPipeline<>(workers, chunkSize, maxInFlight);
+        AtomicInteger read = new AtomicInteger();
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+
+        // When
+        pipeline.run(
+                () -> {
+                    maxAhead.accumulateAndGet(read.get() - written.get(), Math::max);
+                    return read.get() < 500 ? read.getAndIncrement() : null;
+                },
+                chunk -> chunk,
+                results -> written.addAndGet(results.size()));
+
+        // Then
+        assertThat(written.get()).isEqualTo(500);
+        assertThat(maxAhead.get()).isLessThanOrEqualTo(chunkSize * (maxInFlight + 1));
+    }
+
+    @Test
+    void run_ShouldCloseChunk_WhenItReachesChunkWeight() throws Exception {
+        // Given
+        OrderedChunkPipeline<Integer, Integer> pipeline = new OrderedChunkPipeline<>(workers, 100, 2, 10, value -> value);
+        List<Integer> chunkSizes = new CopyOnWriteArrayList<>();
+        AtomicInteger read = new AtomicInteger();
+
+        // When
+        pipeline.run(
+                () -> {
+                    // Five light records, one heavy one that closes the chunk, then six light ones
+                    int index = read.getAndIncrement();
+                    return index < 12 ? (index == 5 ? 20 : 1) : null;
+                },
+                chunk -> {
+                    chunkSizes.add(chunk.size());
+                    return chunk;
+                },
+                results -> { });
+
+        // Then
+        assertThat(chunkSizes).containsExactlyInAnyOrder(6, 6);
+    }
+
+    @Test
+    void run_ShouldHandleEmptySource() throws Exception {
+        // Given
+        OrderedChunkPipeline<Integer, Integer> pipeline = new OrderedChunkPipeline<>(workers, 10, 2);
+        List<Integer> output = new ArrayList<>();
+
+        // When
+        long records = pipeline.run(() -> null, chunk -> chunk, output::addAll);
+
+        // Then
+        assertThat(records).isZero();
+        assertThat(output).isEmpty();
+    }
+
+    @Test
+    void run_ShouldFail_WhenProcessorThrows() {
+        // Given
+        OrderedChunkPipeline<Integer, Integer> pipeline = new OrderedChunkPipeline<>(workers, 5, 2);
+        AtomicInteger next = new AtomicInteger();
+
+        // When & Then
+        assertThatThrownBy(() -> pipeline.run(
+                () -> next.get() < 100 ? next.getAndIncrement() : null,
+                chunk -> {
+                    if (chunk.contains(42)) {
+                        throw new IllegalStateException("boom");
+                    }
+                    return chunk;
+                },
+                results -> { }))
+                .isInstanceOf(IOException.class)
+                .hasRootCauseMessage("boom");
+    }
+
+    @Test
+    void constructor_ShouldRejectNonPositiveSizes() {
+        // When & Then
+        assertThatThrownBy(() -> new OrderedChunkPipeline<>(workers, 0, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
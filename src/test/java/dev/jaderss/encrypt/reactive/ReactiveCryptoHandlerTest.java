@@ -0,0 +1,193 @@
+package dev.jaderss.encrypt.reactive;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.metrics.CryptoMetrics;
+import dev.jaderss.encrypt.service.SecurityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReactiveCryptoHandlerTest {
+
+    private static final int MAX_BODY_SIZE = 1024;
+
+    private SecurityService securityService;
+    private Scheduler scheduler;
+    private ReactiveCryptoHandler handler;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AeadConfig.register();
+        KeysetHandle keysetHandle = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+        securityService = new SecurityService(new PrimitiveHolder<>(keysetHandle, Aead.class), new CryptoMetrics(new SimpleMeterRegistry()));
+        scheduler = Schedulers.newBoundedElastic(2, 100, "crypto-test");
+        handler = new ReactiveCryptoHandler(securityService, scheduler, MAX_BODY_SIZE);
+        client = WebTestClient.bindToRouterFunction(RouterFunctions.route()
+                .POST("/encrypt", handler::encrypt)
+                .POST("/decrypt", handler::decrypt)
+                .build()).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    void encryptDecrypt_ShouldRoundTripText() throws Exception {
+        // When
+        String ciphertext = client.post().uri("/encrypt")
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue("  Hello World!  ")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        // Then
+        assertThat(securityService.decrypt(ciphertext)).isEqualTo("Hello World!");
+        client.post().uri("/decrypt")
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue(ciphertext)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Hello World!");
+    }
+
+    @Test
+    void encryptDecrypt_ShouldRoundTripRawBytes() {
+        // Given
+        byte[] plaintext = {0, 1, 2, (byte) 0xff};
+
+        // When
+        byte[] ciphertext = client.post().uri("/encrypt")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .bodyValue(plaintext)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+
+        // Then
+        client.post().uri("/decrypt")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .bodyValue(ciphertext)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(byte[].class).isEqualTo(plaintext);
+    }
+
+    @Test
+    void encrypt_ShouldUseEncodingFromAcceptHeader() throws Exception {
+        // When
+        String hex = client.post().uri("/encrypt")
+                .contentType(MediaType.TEXT_PLAIN)
+                .accept(MediaType.parseMediaType("text/plain;encoding=hex"))
+                .bodyValue("Hello World!")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        // Then
+        assertThat(hex).matches("[0-9a-f]+");
+    }
+
+    @Test
+    void encrypt_ShouldReturnPayloadTooLarge_WhenBodyExceedsLimit() {
+        // When & Then
+        client.post().uri("/encrypt")
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue("a".repeat(MAX_BODY_SIZE + 1))
+                .exchange()
+                .expectStatus().isEqualTo(413);
+    }
+
+    @Test
+    void encrypt_ShouldReturnBadRequest_WhenBodyIsEmpty() {
+        // When & Then
+        client.post().uri("/encrypt")
+                .contentType(MediaType.TEXT_PLAIN)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void decrypt_ShouldReturnInternalServerError_WhenCiphertextIsInvalid() {
+        // When & Then
+        client.post().uri("/decrypt")
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue("AQID+/8=")
+                .exchange()
+                .expectStatus().is5xxServerError();
+    }
+
+    @Test
+    void decrypt_ShouldReturnBadRequest_WhenBase64IsInvalid() {
+        // When & Then
+        client.post().uri("/decrypt")
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue("not base64!")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void encrypt_ShouldUseRequestedAlgorithmAndRejectUnknownOnes() {
+        // When & Then
+        client.post().uri("/encrypt?algorithm=AES256_GCM")
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue("Hello World!")
+                .exchange()
+                .expectStatus().isOk();
+        client.post().uri("/encrypt?algorithm=ROT13")
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue("Hello World!")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void encrypt_ShouldReencodeBodyAsUtf8_WhenCharsetIsGiven() throws Exception {
+        // When
+        String ciphertext = client.post().uri("/encrypt")
+                .contentType(MediaType.parseMediaType("text/plain;charset=ISO-8859-1"))
+                .bodyValue(" Grüße ".getBytes(StandardCharsets.ISO_8859_1))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        // Then
+        assertThat(securityService.decrypt(ciphertext)).isEqualTo("Grüße");
+    }
+
+    @Test
+    void decrypt_ShouldReturnUnsupportedMediaType_WhenCharsetIsUnknown() {
+        // Given
+        MockServerRequest request = MockServerRequest.builder()
+                .header("Content-Type", "text/plain;charset=no-such-charset")
+                .body(Mono.just("AQID+/8="));
+
+        // When
+        ServerResponse response = handler.decrypt(request).block();
+
+        // Then
+        assertThat(response.statusCode().value()).isEqualTo(415);
+    }
+}
@@ -0,0 +1,81 @@
+package dev.jaderss.encrypt.service;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.metrics.CryptoMetrics;
+import dev.jaderss.encrypt.model.BatchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BatchServiceTest {
+
+    private ForkJoinPool pool;
+    private BatchService batchService;
+
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        AeadConfig.register();
+        KeysetHandle keysetHandle = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+        SecurityService securityService = new SecurityService(new PrimitiveHolder<>(keysetHandle, Aead.class), new CryptoMetrics(new SimpleMeterRegistry()));
+        pool = new ForkJoinPool(4);
+        batchService = new BatchService(securityService, pool, 5000, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void encryptAndDecrypt_ShouldPreserveOrder_ForLargeBatch() {
+        // Given
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add("value-" + i);
+        }
+
+        // When
+        List<BatchResult> encrypted = batchService.encrypt(values);
+        List<BatchResult> decrypted = batchService.decrypt(encrypted.stream().map(BatchResult::value).toList());
+
+        // Then
+        assertThat(encrypted).hasSize(1000).allMatch(result -> result.error() == null);
+        assertThat(decrypted).extracting(BatchResult::value).containsExactlyElementsOf(values);
+    }
+
+    @Test
+    void decrypt_ShouldReportErrorsPerElement() throws GeneralSecurityException {
+        // Given
+        String valid = batchService.encrypt(List.of("Hello World!")).get(0).value();
+        List<String> values = Arrays.asList(valid, "invalid-base64!@#", "aW52YWxpZCBjaXBoZXJ0ZXh0", null);
+
+        // When
+        List<BatchResult> results = batchService.decrypt(values);
+
+        // Then
+        assertThat(results.get(0)).isEqualTo(BatchResult.success("Hello World!"));
+        assertThat(results.get(1)).isEqualTo(BatchResult.failure("Invalid Base64 input"));
+        assertThat(results.get(2)).isEqualTo(BatchResult.failure("Decryption failed"));
+        assertThat(results.get(3)).isEqualTo(BatchResult.failure("Value must not be null"));
+    }
+
+    @Test
+    void exceedsMaxSize_ShouldCompareAgainstConfiguredLimit() {
+        // Then
+        assertThat(batchService.exceedsMaxSize(Arrays.asList(new String[5000]))).isFalse();
+        assertThat(batchService.exceedsMaxSize(Arrays.asList(new String[5001]))).isTrue();
+    }
+}
@@ -0,0 +1,122 @@
+package dev.jaderss.encrypt.service;
+
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.StreamingAead;
+import com.google.crypto.tink.streamingaead.PredefinedStreamingAeadParameters;
+import com.google.crypto.tink.streamingaead.StreamingAeadConfig;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BlobStoreTest {
+
+    private static final byte[] PLAINTEXT = new byte[64 * 1024];
+
+    @TempDir
+    Path blobsDir;
+
+    private BlobStore blobStore;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StreamingAeadConfig.register();
+        new Random(42).nextBytes(PLAINTEXT);
+        // 4 KiB segments, so the object spans many of them
+        KeysetHandle keysetHandle = KeysetHandle.generateNew(PredefinedStreamingAeadParameters.AES128_GCM_HKDF_4KB);
+        blobStore = new BlobStore(blobsDir, new PrimitiveHolder<>(keysetHandle, StreamingAead.class));
+    }
+
+    @Test
+    void writeAndRead_ShouldRoundTripWholeBlob() throws Exception {
+        // When
+        long written = blobStore.write("report.log", new ByteArrayInputStream(PLAINTEXT));
+        Resource blob = blobStore.read("report.log").orElseThrow();
+
+        // Then
+        assertThat(written).isEqualTo(PLAINTEXT.length);
+        assertThat(blob.contentLength()).isEqualTo(PLAINTEXT.length);
+        try (InputStream in = blob.getInputStream()) {
+            assertThat(in.readAllBytes()).isEqualTo(PLAINTEXT);
+        }
+        assertThat(Files.list(blobsDir)).containsExactly(blobsDir.resolve("report.log.enc"));
+    }
+
+    @Test
+    void read_ShouldDecryptOnlySegmentsCoveringRange() throws Exception {
+        // Given
+        blobStore.write("report.log", new ByteArrayInputStream(PLAINTEXT));
+        Path file = blobsDir.resolve("report.log.enc");
+        byte[] ciphertext = Files.readAllBytes(file);
+        // Corrupt a segment in the middle; a range further in must not touch it
+        ciphertext[20_000] ^= 1;
+        Files.write(file, ciphertext);
+
+        // When
+        Resource blob = blobStore.read("report.log").orElseThrow();
+        byte[] range;
+        try (InputStream in = blob.getInputStream()) {
+            assertThat(in.skip(40_000)).isEqualTo(40_000);
+            range = in.readNBytes(1_000);
+        }
+
+        // Then
+        assertThat(range).isEqualTo(Arrays.copyOfRange(PLAINTEXT, 40_000, 41_000));
+        assertThatThrownBy(() -> {
+            try (InputStream in = blob.getInputStream()) {
+                in.readAllBytes();
+            }
+        }).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void read_ShouldFail_WhenBlobIsServedUnderAnotherId() throws Exception {
+        // Given
+        blobStore.write("a", new ByteArrayInputStream(PLAINTEXT));
+        Files.copy(blobsDir.resolve("a.enc"), blobsDir.resolve("b.enc"));
+
+        // When & Then
+        assertThatThrownBy(() -> blobStore.read("b"))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void writeAndRead_ShouldRoundTripEmptyBlob() throws Exception {
+        // When
+        blobStore.write("empty", InputStream.nullInputStream());
+        Resource blob = blobStore.read("empty").orElseThrow();
+
+        // Then
+        assertThat(blob.contentLength()).isZero();
+        try (InputStream in = blob.getInputStream()) {
+            assertThat(in.readAllBytes()).isEmpty();
+        }
+    }
+
+    @Test
+    void read_ShouldReturnEmpty_WhenBlobDoesNotExist() throws Exception {
+        // When & Then
+        assertThat(blobStore.read("missing")).isEmpty();
+    }
+
+    @Test
+    void writeAndRead_ShouldRejectInvalidIds() {
+        // When & Then
+        assertThatThrownBy(() -> blobStore.read("../secret"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> blobStore.write("a..b", InputStream.nullInputStream()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(BlobStore.isValidBlobId("page-0001.log")).isTrue();
+    }
+}
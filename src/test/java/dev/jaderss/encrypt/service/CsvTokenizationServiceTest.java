@@ -0,0 +1,134 @@
+package dev.jaderss.encrypt.service;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.csv.CsvColumns;
+import dev.jaderss.encrypt.csv.CsvFormatException;
+import dev.jaderss.encrypt.metrics.CryptoMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CsvTokenizationServiceTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private SecurityService securityService;
+    private CsvTokenizationService csvTokenizationService;
+
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        AeadConfig.register();
+        PrimitiveHolder<Aead> holder = new PrimitiveHolder<>(KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM), Aead.class);
+        securityService = new SecurityService(holder, new CryptoMetrics(new SimpleMeterRegistry()));
+        // Small chunks so that even short inputs are spread over several workers
+        csvTokenizationService = new CsvTokenizationService(securityService, pool, 7, 1 << 20, 64 << 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void encryptDecrypt_ShouldRoundTripSelectedColumnsInOrder() throws Exception {
+        // Given
+        StringBuilder csv = new StringBuilder("id,email,ssn,note\r\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append(i).append(",user").append(i).append("@example.com,123-45-").append(i).append(",\"a, \"\"b\"\"\"\r\n");
+        }
+        CsvColumns columns = CsvColumns.parse(List.of("email", "3"));
+
+        // When
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        long encryptedRecords = csvTokenizationService.encrypt(stream(csv.toString()), encrypted, columns, (byte) ',', true);
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        long decryptedRecords = csvTokenizationService.decrypt(new ByteArrayInputStream(encrypted.toByteArray()), decrypted, columns, (byte) ',', true);
+
+        // Then
+        assertThat(encryptedRecords).isEqualTo(1000);
+        assertThat(decryptedRecords).isEqualTo(1000);
+        String[] lines = encrypted.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lines).hasSize(1001);
+        assertThat(lines[0]).isEqualTo("id,email,ssn,note");
+        String[] cells = lines[500].split(",", 3);
+        assertThat(cells[0]).isEqualTo("499");
+        assertThat(securityService.decrypt(Base64.getDecoder().decode(cells[1])))
+                .isEqualTo("user499@example.com".getBytes(StandardCharsets.UTF_8));
+        assertThat(decrypted.toString(StandardCharsets.UTF_8)).isEqualTo(csv.toString());
+    }
+
+    @Test
+    void encrypt_ShouldSelectByNumber_WhenThereIsNoHeader() throws Exception {
+        // Given
+        String csv = "1;secret;x\n2;other\n3\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        csvTokenizationService.encrypt(stream(csv), out, CsvColumns.parse(List.of("2")), (byte) ';', false);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("1;").endsWith(";x").doesNotContain("secret");
+        assertThat(lines[2]).isEqualTo("3");
+    }
+
+    @Test
+    void encrypt_ShouldReject_UnknownColumnBeforeWriting() {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When & Then
+        assertThatThrownBy(() -> csvTokenizationService.encrypt(stream("id,email\n1,a\n"), out, CsvColumns.parse(List.of("phone")), (byte) ',', true))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    void decrypt_ShouldReportRecordAndColumn_WhenCellIsNotBase64() {
+        // Given
+        String csv = "id,email\n1,plain@example.com\n";
+
+        // When & Then
+        assertThatThrownBy(() -> csvTokenizationService.decrypt(stream(csv), new ByteArrayOutputStream(), CsvColumns.parse(List.of("email")), (byte) ',', true))
+                .isInstanceOf(CsvFormatException.class)
+                .hasMessage("Record 2, column 2 is not Base64");
+    }
+
+    @Test
+    void decrypt_ShouldThrowGeneralSecurityException_WhenCellIsNotOurCiphertext() {
+        // Given
+        String csv = "id,email\n1,AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA\n";
+
+        // When & Then
+        assertThatThrownBy(() -> csvTokenizationService.decrypt(stream(csv), new ByteArrayOutputStream(), CsvColumns.parse(List.of("email")), (byte) ',', true))
+                .isInstanceOf(GeneralSecurityException.class)
+                .hasMessageStartingWith("Record 2, column 2");
+    }
+
+    @Test
+    void delimiter_ShouldAcceptSingleAsciiCharacter() {
+        assertThat(CsvTokenizationService.delimiter("\t")).isEqualTo((byte) '\t');
+        assertThatThrownBy(() -> CsvTokenizationService.delimiter("\"")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CsvTokenizationService.delimiter(";;")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CsvTokenizationService.delimiter("§")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,99 @@
+package dev.jaderss.encrypt.service;
+
+import com.google.crypto.tink.DeterministicAead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.daead.DeterministicAeadConfig;
+import com.google.crypto.tink.daead.PredefinedDeterministicAeadParameters;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DeterministicSecurityServiceTest {
+
+    private PrimitiveHolder<DeterministicAead> holder;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        DeterministicAeadConfig.register();
+        holder = new PrimitiveHolder<>(KeysetHandle.generateNew(PredefinedDeterministicAeadParameters.AES256_SIV), DeterministicAead.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void encrypt_ShouldReturnSameCiphertext_ForSameInput() throws GeneralSecurityException {
+        // Given
+        DeterministicSecurityService service = new DeterministicSecurityService(holder, meterRegistry, 0, 0);
+
+        // When
+        byte[] first = service.encrypt("Hello World!");
+        byte[] second = service.encrypt("Hello World!");
+
+        // Then
+        assertThat(first).isEqualTo(second);
+        assertThat(service.encrypt("Hello World?")).isNotEqualTo(first);
+        assertThat(service.decrypt(first)).isEqualTo("Hello World!");
+    }
+
+    @Test
+    void encrypt_ShouldServeRepeatedValuesFromCache() throws GeneralSecurityException {
+        // Given
+        DeterministicSecurityService service = new DeterministicSecurityService(holder, meterRegistry, 10, 1 << 20);
+
+        // When
+        byte[] first = service.encrypt("Hello World!");
+        first[0] ^= 1;
+        byte[] second = service.encrypt("Hello World!");
+
+        // Then
+        assertThat(service.decrypt(second)).isEqualTo("Hello World!");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "deterministic.encrypt").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void encrypt_ShouldIgnoreCachedEntries_AfterKeysetChange() throws GeneralSecurityException {
+        // Given
+        DeterministicSecurityService service = new DeterministicSecurityService(holder, meterRegistry, 10, 1 << 20);
+        byte[] before = service.encrypt("Hello World!");
+
+        // When
+        holder.update(KeysetHandle.generateNew(PredefinedDeterministicAeadParameters.AES256_SIV));
+        byte[] after = service.encrypt("Hello World!");
+
+        // Then
+        assertThat(after).isNotEqualTo(before);
+        assertThat(service.decrypt(after)).isEqualTo("Hello World!");
+    }
+
+    @Test
+    void encrypt_ShouldBoundCacheByBytes() throws GeneralSecurityException {
+        // Given
+        DeterministicSecurityService service = new DeterministicSecurityService(holder, meterRegistry, 1000, 4096);
+        String large = "x".repeat(1500);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            service.encrypt(large + i);
+        }
+        service.encrypt("x".repeat(5000));
+
+        // Then
+        assertThat(meterRegistry.get("cache.size").tag("cache", "deterministic.encrypt").gauge().value()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void decrypt_ShouldThrowException_WhenGivenInvalidCiphertext() {
+        // Given
+        DeterministicSecurityService service = new DeterministicSecurityService(holder, meterRegistry, 0, 0);
+
+        // When & Then
+        assertThatThrownBy(() -> service.decrypt("invalid ciphertext".getBytes()))
+                .isInstanceOf(GeneralSecurityException.class);
+    }
+}
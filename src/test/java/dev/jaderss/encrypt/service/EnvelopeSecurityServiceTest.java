@@ -0,0 +1,138 @@
+package dev.jaderss.encrypt.service;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.InsecureSecretKeyAccess;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.TinkJsonProtoKeysetFormat;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EnvelopeSecurityServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private PrimitiveHolder<Aead> kekHolder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // File-backed KEK stand-in
+        AeadConfig.register();
+        Path kekFile = tempDir.resolve("kek.json");
+        Files.writeString(kekFile, TinkJsonProtoKeysetFormat.serializeKeyset(
+                KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM), InsecureSecretKeyAccess.get()));
+        KeysetHandle kek = TinkJsonProtoKeysetFormat.parseKeyset(Files.readString(kekFile), InsecureSecretKeyAccess.get());
+        kekHolder = new PrimitiveHolder<>(kek, Aead.class);
+    }
+
+    @Test
+    void encryptDecrypt_ShouldRoundTrip() throws Exception {
+        // Given
+        EnvelopeSecurityService service = newService(Duration.ofMinutes(10), 1000);
+
+        // When
+        byte[] envelope = service.encrypt("tenant-a", utf8("Hello World!"));
+
+        // Then
+        assertThat(new String(service.decrypt(envelope), StandardCharsets.UTF_8)).isEqualTo("Hello World!");
+    }
+
+    @Test
+    void encrypt_ShouldReuseDataKeyPerScope() throws Exception {
+        // Given
+        EnvelopeSecurityService service = newService(Duration.ofMinutes(10), 1000);
+
+        // When
+        byte[] first = service.encrypt("tenant-a", utf8("one"));
+        byte[] second = service.encrypt("tenant-a", utf8("two"));
+        byte[] otherScope = service.encrypt("tenant-b", utf8("one"));
+
+        // Then
+        assertThat(wrappedDek(first)).isEqualTo(wrappedDek(second));
+        assertThat(wrappedDek(otherScope)).isNotEqualTo(wrappedDek(first));
+    }
+
+    @Test
+    void encrypt_ShouldRotateDataKey_WhenUsageLimitIsReached() throws Exception {
+        // Given
+        EnvelopeSecurityService service = newService(Duration.ofMinutes(10), 2);
+
+        // When
+        byte[] first = service.encrypt("tenant-a", utf8("one"));
+        byte[] second = service.encrypt("tenant-a", utf8("two"));
+        byte[] third = service.encrypt("tenant-a", utf8("three"));
+
+        // Then
+        assertThat(wrappedDek(second)).isEqualTo(wrappedDek(first));
+        assertThat(wrappedDek(third)).isNotEqualTo(wrappedDek(first));
+        assertThat(service.decrypt(first)).isEqualTo(utf8("one"));
+        assertThat(service.decrypt(third)).isEqualTo(utf8("three"));
+    }
+
+    @Test
+    void encrypt_ShouldRotateDataKey_WhenTtlExpires() throws Exception {
+        // Given
+        EnvelopeSecurityService service = newService(Duration.ofMillis(50), 1000);
+        byte[] first = service.encrypt("tenant-a", utf8("one"));
+
+        // When
+        Thread.sleep(150);
+        byte[] second = service.encrypt("tenant-a", utf8("two"));
+
+        // Then
+        assertThat(wrappedDek(second)).isNotEqualTo(wrappedDek(first));
+    }
+
+    @Test
+    void decrypt_ShouldUnwrapDataKey_WhenNotCached() throws Exception {
+        // Given
+        byte[] envelope = newService(Duration.ofMinutes(10), 1000).encrypt("tenant-a", utf8("Hello World!"));
+
+        // When
+        byte[] decrypted = newService(Duration.ofMinutes(10), 1000).decrypt(envelope);
+
+        // Then
+        assertThat(decrypted).isEqualTo(utf8("Hello World!"));
+    }
+
+    @Test
+    void decrypt_ShouldThrowException_WhenHeaderIsTamperedOrMalformed() throws Exception {
+        // Given
+        EnvelopeSecurityService service = newService(Duration.ofMinutes(10), 1000);
+        byte[] envelope = service.encrypt("tenant-a", utf8("Hello World!"));
+        byte[] tampered = envelope.clone();
+        tampered[10] ^= 1;
+
+        // When & Then
+        assertThatThrownBy(() -> service.decrypt(tampered)).isInstanceOf(GeneralSecurityException.class);
+        assertThatThrownBy(() -> service.decrypt(new byte[]{1, 0, 0, 0, 9})).isInstanceOf(GeneralSecurityException.class);
+        assertThatThrownBy(() -> service.decrypt(new byte[]{7})).isInstanceOf(GeneralSecurityException.class);
+    }
+
+    private EnvelopeSecurityService newService(Duration ttl, long maxUses) {
+        return new EnvelopeSecurityService(kekHolder, new SimpleMeterRegistry(), ttl, maxUses, 100);
+    }
+
+    private static byte[] wrappedDek(byte[] envelope) {
+        int length = ((envelope[1] & 0xff) << 24) | ((envelope[2] & 0xff) << 16) | ((envelope[3] & 0xff) << 8) | (envelope[4] & 0xff);
+        return Arrays.copyOfRange(envelope, 5, 5 + length);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
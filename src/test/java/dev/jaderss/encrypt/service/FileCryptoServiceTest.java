@@ -0,0 +1,116 @@
+package dev.jaderss.encrypt.service;
+
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.StreamingAead;
+import com.google.crypto.tink.streamingaead.PredefinedStreamingAeadParameters;
+import com.google.crypto.tink.streamingaead.StreamingAeadConfig;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FileCryptoServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private PrimitiveHolder<StreamingAead> holder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StreamingAeadConfig.register();
+        KeysetHandle keysetHandle = KeysetHandle.generateNew(PredefinedStreamingAeadParameters.AES128_GCM_HKDF_4KB);
+        holder = new PrimitiveHolder<>(keysetHandle, StreamingAead.class);
+    }
+
+    @Test
+    void encryptDecrypt_ShouldRoundTrip_WhenReadThroughChannel() throws Exception {
+        // Given
+        FileCryptoService service = new FileCryptoService(holder, Long.MAX_VALUE, 1 << 20);
+        byte[] plaintext = randomBytes(100_000);
+        Path source = Files.write(dir.resolve("plain.bin"), plaintext);
+
+        // When
+        long encrypted = service.encrypt(source, dir.resolve("plain.bin.enc"));
+        long decrypted = service.decrypt(dir.resolve("plain.bin.enc"), dir.resolve("copy.bin"));
+
+        // Then
+        assertThat(encrypted).isEqualTo(plaintext.length);
+        assertThat(decrypted).isEqualTo(Files.size(dir.resolve("plain.bin.enc")));
+        assertThat(Files.readAllBytes(dir.resolve("copy.bin"))).isEqualTo(plaintext);
+    }
+
+    @Test
+    void encrypt_ShouldMapLargeFilesInWindows() throws Exception {
+        // Given
+        FileCryptoService service = new FileCryptoService(holder, 0, 7_000);
+        byte[] plaintext = randomBytes(50_001);
+        Path source = Files.write(dir.resolve("large.bin"), plaintext);
+
+        // When
+        service.encrypt(source, dir.resolve("large.bin.enc"));
+        service.decrypt(dir.resolve("large.bin.enc"), dir.resolve("copy.bin"));
+
+        // Then
+        assertThat(Files.readAllBytes(dir.resolve("copy.bin"))).isEqualTo(plaintext);
+    }
+
+    @Test
+    void encrypt_ShouldProduceStreamingEndpointFormat() throws Exception {
+        // Given
+        FileCryptoService service = new FileCryptoService(holder, 0, 1 << 20);
+        byte[] plaintext = randomBytes(10_000);
+        Path source = Files.write(dir.resolve("doc.bin"), plaintext);
+        service.encrypt(source, dir.resolve("doc.bin.enc"));
+
+        // When
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        try (InputStream in = Files.newInputStream(dir.resolve("doc.bin.enc"))) {
+            new StreamingSecurityService(holder).decrypt(in, decrypted);
+        }
+
+        // Then
+        assertThat(decrypted.toByteArray()).isEqualTo(plaintext);
+    }
+
+    @Test
+    void decrypt_ShouldLeaveNoOutput_WhenCiphertextIsTampered() throws Exception {
+        // Given
+        FileCryptoService service = new FileCryptoService(holder, 0, 1 << 20);
+        Path source = Files.write(dir.resolve("doc.bin"), randomBytes(20_000));
+        Path ciphertext = dir.resolve("doc.bin.enc");
+        service.encrypt(source, ciphertext);
+        byte[] tampered = Files.readAllBytes(ciphertext);
+        tampered[tampered.length - 1] ^= 1;
+        Files.write(ciphertext, tampered);
+        Path target = dir.resolve("out.bin");
+
+        // When & Then
+        assertThatThrownBy(() -> service.decrypt(ciphertext, target))
+                .isInstanceOf(IOException.class);
+        assertThat(target).doesNotExist();
+        assertThat(FileCryptoService.partFile(target)).doesNotExist();
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidWindowSize() {
+        // When & Then
+        assertThatThrownBy(() -> new FileCryptoService(holder, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
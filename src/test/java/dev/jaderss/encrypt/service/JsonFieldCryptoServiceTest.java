@@ -0,0 +1,193 @@
+package dev.jaderss.encrypt.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.AlgorithmKeysets;
+import dev.jaderss.encrypt.crypto.DecryptCache;
+import dev.jaderss.encrypt.crypto.PayloadCompression;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.metrics.CryptoMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JsonFieldCryptoServiceTest {
+
+    private static final String DOCUMENT = """
+            {"id":7,"user":{"name":"Alice","email":"alice@example.com","age":31,"vip":true,"note":null},
+             "cards":[{"number":"4111 1111","exp":"12/30"},{"number":"5500 0000","exp":"01/31"}],
+             "amount":1.50,"tags":["a","b"]}""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SecurityService securityService;
+    private JsonFieldCryptoService jsonFieldCryptoService;
+
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        AeadConfig.register();
+        PrimitiveHolder<Aead> holder = new PrimitiveHolder<>(KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM), Aead.class);
+        securityService = new SecurityService(holder, new CryptoMetrics(new SimpleMeterRegistry()));
+        jsonFieldCryptoService = new JsonFieldCryptoService(securityService);
+    }
+
+    @Test
+    void encryptDecrypt_ShouldRoundTripSelectedFieldsWithTheirTypes() throws Exception {
+        // Given
+        JsonFieldPaths paths = JsonFieldPaths.parse(List.of("/user/email", "/user/age", "/user/vip", "/user/note", "/cards/*/number", "/amount"));
+
+        // When
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        long encryptedFields = jsonFieldCryptoService.encrypt(stream(DOCUMENT), encrypted, paths);
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        long decryptedFields = jsonFieldCryptoService.decrypt(new ByteArrayInputStream(encrypted.toByteArray()), decrypted, paths);
+
+        // Then
+        assertThat(encryptedFields).isEqualTo(7);
+        assertThat(decryptedFields).isEqualTo(7);
+        JsonNode ciphertext = objectMapper.readTree(encrypted.toByteArray());
+        assertThat(ciphertext.at("/user/name").asText()).isEqualTo("Alice");
+        assertThat(ciphertext.at("/cards/1/exp").asText()).isEqualTo("01/31");
+        assertThat(ciphertext.at("/user/age").isTextual()).isTrue();
+        assertThat(ciphertext.at("/cards/0/number").asText()).isNotEqualTo("4111 1111");
+        assertThat(decrypted.toString(StandardCharsets.UTF_8)).isEqualTo(DOCUMENT.replace("\n ", ""));
+    }
+
+    @Test
+    void decrypt_ShouldBypassDecryptCache() throws Exception {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PrimitiveHolder<Aead> holder = new PrimitiveHolder<>(KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM), Aead.class);
+        SecurityService caching = new SecurityService(holder, new CryptoMetrics(meterRegistry), PayloadCompression.disabled(),
+                new DecryptCache(100, 1024 * 1024, 4096, Duration.ofMinutes(5), true, meterRegistry), AlgorithmKeysets.none());
+        JsonFieldCryptoService service = new JsonFieldCryptoService(caching);
+        JsonFieldPaths paths = JsonFieldPaths.parse(List.of("/user/email"));
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        service.encrypt(stream(DOCUMENT), encrypted, paths);
+
+        // When
+        service.decrypt(new ByteArrayInputStream(encrypted.toByteArray()), new ByteArrayOutputStream(), paths);
+        service.decrypt(new ByteArrayInputStream(encrypted.toByteArray()), new ByteArrayOutputStream(), paths);
+
+        // Then
+        assertThat(meterRegistry.get("crypto.operation").tag("operation", "decrypt").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void encrypt_ShouldStoreJsonTextOfValue() throws Exception {
+        // Given
+        JsonFieldPaths paths = JsonFieldPaths.parse(List.of("/user/name"));
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+
+        // When
+        jsonFieldCryptoService.encrypt(stream(DOCUMENT), encrypted, paths);
+
+        // Then
+        String field = objectMapper.readTree(encrypted.toByteArray()).at("/user/name").asText();
+        assertThat(securityService.decrypt(Base64.getDecoder().decode(field))).isEqualTo("\"Alice\"".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void encrypt_ShouldCopyDocumentUnchanged_WhenNoFieldMatches() throws Exception {
+        // Given
+        String document = "[{\"a\":1e3,\"b\":\"x\\u00e9\\n\"},3.14159265358979323846,null]";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long fields = jsonFieldCryptoService.encrypt(stream(document), out, JsonFieldPaths.parse(List.of("/0/c")));
+
+        // Then
+        assertThat(fields).isZero();
+        assertThat(objectMapper.readTree(out.toByteArray())).isEqualTo(objectMapper.readTree(document));
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("3.14159265358979323846");
+    }
+
+    @Test
+    void encrypt_ShouldStreamLargeArray() throws Exception {
+        // Given
+        int records = 20_000;
+        List<InputStream> parts = new ArrayList<>();
+        parts.add(stream("["));
+        for (int i = 0; i < records; i++) {
+            parts.add(stream((i == 0 ? "" : ",") + "{\"id\":" + i + ",\"ssn\":\"123-45-" + i + "\"}"));
+        }
+        parts.add(stream("]"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long fields = jsonFieldCryptoService.encrypt(new SequenceInputStream(Collections.enumeration(parts)), out, JsonFieldPaths.parse(List.of("/*/ssn")));
+
+        // Then
+        assertThat(fields).isEqualTo(records);
+        JsonNode result = objectMapper.readTree(out.toByteArray());
+        assertThat(result).hasSize(records);
+        assertThat(result.get(records - 1).get("id").asInt()).isEqualTo(records - 1);
+    }
+
+    @Test
+    void encrypt_ShouldReject_WhenPathSelectsObject() {
+        // Given
+        JsonFieldPaths paths = JsonFieldPaths.parse(List.of("/user"));
+
+        // When & Then
+        assertThatThrownBy(() -> jsonFieldCryptoService.encrypt(stream(DOCUMENT), new ByteArrayOutputStream(), paths))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("/user is not a scalar");
+    }
+
+    @Test
+    void decrypt_ShouldReject_WhenFieldIsNotCiphertext() {
+        // Given
+        JsonFieldPaths paths = JsonFieldPaths.parse(List.of("/user/age"));
+
+        // When & Then
+        assertThatThrownBy(() -> jsonFieldCryptoService.decrypt(stream(DOCUMENT), new ByteArrayOutputStream(), paths))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("/user/age");
+    }
+
+    @Test
+    void decrypt_ShouldFail_WhenCiphertextIsTampered() throws Exception {
+        // Given
+        JsonFieldPaths paths = JsonFieldPaths.parse(List.of("/user/email"));
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        jsonFieldCryptoService.encrypt(stream(DOCUMENT), encrypted, paths);
+        String field = objectMapper.readTree(encrypted.toByteArray()).at("/user/email").asText();
+        byte[] ciphertext = Base64.getDecoder().decode(field);
+        ciphertext[ciphertext.length - 1] ^= 1;
+        String tampered = encrypted.toString(StandardCharsets.UTF_8).replace(field, Base64.getEncoder().encodeToString(ciphertext));
+
+        // When & Then
+        assertThatThrownBy(() -> jsonFieldCryptoService.decrypt(stream(tampered), new ByteArrayOutputStream(), paths))
+                .isInstanceOf(GeneralSecurityException.class);
+    }
+
+    @Test
+    void encrypt_ShouldFail_WhenDocumentIsMalformed() {
+        assertThatThrownBy(() -> jsonFieldCryptoService.encrypt(stream("{\"user\":"), new ByteArrayOutputStream(), JsonFieldPaths.parse(List.of("/user"))))
+                .isInstanceOf(IOException.class);
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,59 @@
+package dev.jaderss.encrypt.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JsonFieldPathsTest {
+
+    @Test
+    void step_ShouldFollowNamedMembersAndArrayIndexes() {
+        // Given
+        JsonFieldPaths paths = JsonFieldPaths.parse(List.of("/user/email", "/cards/0/number"));
+
+        // When
+        List<JsonFieldPaths.Node> user = JsonFieldPaths.step(paths.root(), "user", 0);
+        List<JsonFieldPaths.Node> card = JsonFieldPaths.step(JsonFieldPaths.step(paths.root(), "cards", 0), null, 0);
+
+        // Then
+        assertThat(JsonFieldPaths.selected(JsonFieldPaths.step(user, "email", 0))).isTrue();
+        assertThat(JsonFieldPaths.step(user, "name", 1)).isSameAs(JsonFieldPaths.NONE);
+        assertThat(JsonFieldPaths.selected(JsonFieldPaths.step(card, "number", 0))).isTrue();
+        assertThat(JsonFieldPaths.step(JsonFieldPaths.step(paths.root(), "cards", 0), null, 1)).isEmpty();
+    }
+
+    @Test
+    void step_ShouldMatchWildcardAlongsideNamedSegment() {
+        // Given
+        JsonFieldPaths paths = JsonFieldPaths.parse(List.of("/*/ssn", "/admin/password"));
+
+        // When
+        List<JsonFieldPaths.Node> admin = JsonFieldPaths.step(paths.root(), "admin", 0);
+
+        // Then
+        assertThat(admin).hasSize(2);
+        assertThat(JsonFieldPaths.selected(JsonFieldPaths.step(admin, "ssn", 0))).isTrue();
+        assertThat(JsonFieldPaths.selected(JsonFieldPaths.step(admin, "password", 0))).isTrue();
+        assertThat(JsonFieldPaths.selected(JsonFieldPaths.step(JsonFieldPaths.step(paths.root(), "guest", 0), "password", 0))).isFalse();
+    }
+
+    @Test
+    void parse_ShouldUnescapeTildeAndSlash() {
+        // Given
+        JsonFieldPaths paths = JsonFieldPaths.parse(List.of("/a~1b/c~0d"));
+
+        // When & Then
+        assertThat(JsonFieldPaths.selected(JsonFieldPaths.step(JsonFieldPaths.step(paths.root(), "a/b", 0), "c~d", 0))).isTrue();
+    }
+
+    @Test
+    void parse_ShouldReject_InvalidPaths() {
+        assertThatThrownBy(() -> JsonFieldPaths.parse(List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> JsonFieldPaths.parse(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> JsonFieldPaths.parse(List.of("user/email"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> JsonFieldPaths.parse(List.of("/"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> JsonFieldPaths.parse(List.of("/a~2"))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
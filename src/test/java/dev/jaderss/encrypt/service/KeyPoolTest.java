@@ -0,0 +1,133 @@
+package dev.jaderss.encrypt.service;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.InsecureSecretKeyAccess;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.TinkProtoKeysetFormat;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.metrics.CryptoMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class KeyPoolTest {
+
+    private SecurityService securityService;
+    private SimpleMeterRegistry meterRegistry;
+    private KeyPool keyPool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AeadConfig.register();
+        KeysetHandle keysetHandle = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+        securityService = new SecurityService(new PrimitiveHolder<>(keysetHandle, Aead.class), new CryptoMetrics(new SimpleMeterRegistry()));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (keyPool != null) {
+            keyPool.stop();
+        }
+    }
+
+    @Test
+    void start_ShouldFillPoolToHighWatermark() throws Exception {
+        // When
+        keyPool = newPool(5, 20);
+        keyPool.start();
+
+        // Then
+        awaitSize(20);
+        assertThat(meterRegistry.get("key.pool.size").gauge().value()).isEqualTo(20);
+    }
+
+    @Test
+    void take_ShouldServeFromPoolAndRefillBelowLowWatermark() throws Exception {
+        // Given
+        keyPool = newPool(15, 20);
+        keyPool.start();
+        awaitSize(20);
+
+        // When
+        for (int i = 0; i < 6; i++) {
+            keyPool.take();
+        }
+
+        // Then
+        assertThat(requests("hit")).isEqualTo(6);
+        assertThat(requests("miss")).isZero();
+        awaitSize(20);
+    }
+
+    @Test
+    void takeCount_ShouldCombinePooledAndInlineKeys() throws Exception {
+        // Given
+        keyPool = newPool(0, 0);
+
+        // When
+        List<String> keys = keyPool.take(10);
+
+        // Then
+        assertThat(keys).hasSize(10);
+        assertThat(new HashSet<>(keys)).hasSize(10);
+        assertThat(requests("miss")).isEqualTo(10);
+        for (String key : keys) {
+            KeysetHandle parsed = TinkProtoKeysetFormat.parseKeyset(Base64.getDecoder().decode(key), InsecureSecretKeyAccess.get());
+            assertThat(parsed.getPrimitive(Aead.class)).isNotNull();
+        }
+    }
+
+    @Test
+    void take_ShouldGenerateInline_WhenPoolIsDisabled() throws Exception {
+        // Given
+        keyPool = newPool(0, 0);
+        keyPool.start();
+
+        // When
+        String key = keyPool.take();
+
+        // Then
+        assertThat(key).isNotBlank();
+        assertThat(keyPool.size()).isZero();
+        assertThat(requests("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidWatermarks() {
+        assertThatThrownBy(() -> newPool(10, 5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> newPool(-1, 5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void exceedsMaxCount_ShouldCompareWithConfiguredMaximum() {
+        keyPool = newPool(0, 0);
+        assertThat(keyPool.exceedsMaxCount(100)).isFalse();
+        assertThat(keyPool.exceedsMaxCount(101)).isTrue();
+    }
+
+    private KeyPool newPool(int low, int high) {
+        return new KeyPool(securityService, meterRegistry, low, high, 100);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("key.pool.requests").tag("result", result).counter().count();
+    }
+
+    private void awaitSize(int size) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (keyPool.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(keyPool.size()).isEqualTo(size);
+    }
+}
@@ -1,8 +1,22 @@
 package dev.jaderss.encrypt.service;
 
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.BinaryKeysetReader;
+import com.google.crypto.tink.CleartextKeysetHandle;
 import com.google.crypto.tink.KeysetHandle;
 import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.ChaCha20Poly1305Parameters;
 import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.AeadAlgorithm;
+import dev.jaderss.encrypt.crypto.AlgorithmKeysets;
+import dev.jaderss.encrypt.crypto.CiphertextEncoding;
+import dev.jaderss.encrypt.crypto.CompressionCodec;
+import dev.jaderss.encrypt.crypto.DecryptCache;
+import dev.jaderss.encrypt.crypto.DeflateCodec;
+import dev.jaderss.encrypt.crypto.PayloadCompression;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.metrics.CryptoMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,7 +24,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.security.GeneralSecurityException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Base64;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -19,6 +38,7 @@ class SecurityServiceTest {
 
     private SecurityService securityService;
     private KeysetHandle keysetHandle;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() throws GeneralSecurityException {
@@ -26,7 +46,8 @@ class SecurityServiceTest {
         AeadConfig.register();
         // Generate a test key for each test
         keysetHandle = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
-        securityService = new SecurityService(keysetHandle);
+        meterRegistry = new SimpleMeterRegistry();
+        securityService = new SecurityService(new PrimitiveHolder<>(keysetHandle, Aead.class), new CryptoMetrics(meterRegistry));
     }
 
     @Test
@@ -215,14 +236,293 @@ class SecurityServiceTest {
     @Test
     void encrypt_ShouldThrowException_WhenGivenNullInput() {
         // When & Then
-        assertThatThrownBy(() -> securityService.encrypt(null))
+        assertThatThrownBy(() -> securityService.encrypt((String) null))
                 .isInstanceOf(NullPointerException.class);
     }
 
     @Test
     void decrypt_ShouldThrowException_WhenGivenNullInput() {
         // When & Then
-        assertThatThrownBy(() -> securityService.decrypt(null))
+        assertThatThrownBy(() -> securityService.decrypt((String) null))
                 .isInstanceOf(NullPointerException.class);
     }
+
+    @Test
+    void encryptDecrypt_ShouldRecordLatencyPayloadSizeAndKeyUsage() throws GeneralSecurityException {
+        // Given
+        String primaryKeyId = Integer.toUnsignedString(keysetHandle.getPrimary().getId());
+
+        // When
+        securityService.decrypt(securityService.encrypt("Hello World!"));
+
+        // Then
+        assertThat(meterRegistry.get("crypto.operation").tag("operation", "encrypt").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("crypto.operation").tag("operation", "decrypt").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("crypto.payload.size").tag("operation", "encrypt").summary().totalAmount()).isEqualTo(12);
+        assertThat(meterRegistry.get("crypto.key.usage").tag("operation", "encrypt").tag("key.id", primaryKeyId).counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("crypto.key.usage").tag("operation", "decrypt").tag("key.id", primaryKeyId).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void decrypt_ShouldTagUnknownKeyIds_WhenRawCiphertextLooksPrefixed() throws GeneralSecurityException {
+        // Given
+        SecurityService rawService = new SecurityService(new PrimitiveHolder<>(
+                KeysetHandle.generateNew(ChaCha20Poly1305Parameters.create(ChaCha20Poly1305Parameters.Variant.NO_PREFIX)), Aead.class), new CryptoMetrics(meterRegistry));
+        byte[] ciphertext;
+        do {
+            ciphertext = rawService.encrypt("Hello World!".getBytes());
+        } while (ciphertext[0] != 0x01 || PayloadCompression.hasHeader(ciphertext));
+
+        // When
+        rawService.decrypt(ciphertext);
+
+        // Then
+        assertThat(meterRegistry.get("crypto.key.usage").tag("operation", "decrypt").counters())
+                .singleElement()
+                .satisfies(counter -> assertThat(counter.getId().getTag("key.id")).isEqualTo("unknown"));
+    }
+
+    @Test
+    void decrypt_ShouldCountErrorsByCause() throws GeneralSecurityException {
+        // Given
+        byte[] valid = securityService.encrypt("Hello World!".getBytes());
+        byte[] tampered = valid.clone();
+        tampered[tampered.length - 1] ^= 1;
+        byte[] foreignKey = new SecurityService(
+                new PrimitiveHolder<>(KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM), Aead.class),
+                new CryptoMetrics(new SimpleMeterRegistry())).encrypt("Hello World!".getBytes());
+
+        // When
+        assertThatThrownBy(() -> securityService.decrypt("invalid-base64!@#")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> securityService.decrypt(tampered)).isInstanceOf(GeneralSecurityException.class);
+        assertThatThrownBy(() -> securityService.decrypt(foreignKey)).isInstanceOf(GeneralSecurityException.class);
+
+        // Then
+        assertThat(errorCount("bad_encoding")).isEqualTo(1);
+        assertThat(errorCount("auth_failure")).isEqualTo(1);
+        assertThat(errorCount("unknown_key_id")).isEqualTo(1);
+    }
+
+    @Test
+    void decryptByteBuffer_ShouldDecodeViewOfBody() throws GeneralSecurityException {
+        // Given
+        String ciphertext = securityService.encrypt("Hello World!");
+        byte[] body = ("  " + ciphertext + "\n").getBytes(StandardCharsets.US_ASCII);
+
+        // When
+        byte[] decrypted = securityService.decrypt(ByteBuffer.wrap(body, 2, ciphertext.length()), CiphertextEncoding.BASE64);
+
+        // Then
+        assertThat(new String(decrypted, StandardCharsets.UTF_8)).isEqualTo("Hello World!");
+    }
+
+    @Test
+    void decryptByteBuffer_ShouldCountBadEncoding() {
+        // When
+        assertThatThrownBy(() -> securityService.decrypt(ByteBuffer.wrap("not base64!".getBytes(StandardCharsets.US_ASCII)), CiphertextEncoding.BASE64))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // Then
+        assertThat(errorCount("bad_encoding")).isEqualTo(1);
+    }
+
+    private double errorCount(String cause) {
+        return meterRegistry.get("crypto.errors").tag("operation", "decrypt").tag("cause", cause).counter().count();
+    }
+
+    @Test
+    void encryptDecrypt_ShouldCompressLargePayloads_WhenCompressionIsEnabled() throws GeneralSecurityException {
+        // Given
+        DeflateCodec deflate = new DeflateCodec();
+        SecurityService compressing = new SecurityService(new PrimitiveHolder<>(keysetHandle, Aead.class), new CryptoMetrics(meterRegistry),
+                new PayloadCompression(List.of(deflate), deflate, 1024, Integer.MAX_VALUE), DecryptCache.disabled(), AlgorithmKeysets.none());
+        byte[] json = "{\"id\":1,\"name\":\"example\"},".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+        // When
+        byte[] ciphertext = compressing.encrypt(json);
+
+        // Then
+        assertThat(PayloadCompression.hasHeader(ciphertext)).isTrue();
+        assertThat(ciphertext.length).isLessThan(json.length / 4);
+        assertThat(compressing.decrypt(ciphertext)).isEqualTo(json);
+        // Readers without compression enabled still understand the header
+        assertThat(securityService.decrypt(ciphertext)).isEqualTo(json);
+    }
+
+    @Test
+    void decrypt_ShouldReadLegacyCiphertext_WhenCompressionIsEnabled() throws GeneralSecurityException {
+        // Given
+        DeflateCodec deflate = new DeflateCodec();
+        SecurityService compressing = new SecurityService(new PrimitiveHolder<>(keysetHandle, Aead.class), new CryptoMetrics(meterRegistry),
+                new PayloadCompression(List.of(deflate), deflate, 1024, Integer.MAX_VALUE), DecryptCache.disabled(), AlgorithmKeysets.none());
+        byte[] json = "{\"id\":1,\"name\":\"example\"},".repeat(100).getBytes(StandardCharsets.UTF_8);
+        byte[] legacy = securityService.encrypt(json);
+        byte[] small = compressing.encrypt("short".getBytes(StandardCharsets.UTF_8));
+
+        // When & Then
+        assertThat(PayloadCompression.hasHeader(legacy)).isFalse();
+        assertThat(PayloadCompression.hasHeader(small)).isFalse();
+        assertThat(compressing.decrypt(legacy)).isEqualTo(json);
+        assertThat(compressing.decrypt(small)).isEqualTo("short".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void decrypt_ShouldFail_WhenCompressionHeaderIsTampered() throws GeneralSecurityException {
+        // Given
+        DeflateCodec deflate = new DeflateCodec();
+        SecurityService compressing = new SecurityService(new PrimitiveHolder<>(keysetHandle, Aead.class), new CryptoMetrics(meterRegistry),
+                new PayloadCompression(List.of(deflate, new StoredCodec()), deflate, 0, Integer.MAX_VALUE), DecryptCache.disabled(), AlgorithmKeysets.none());
+        byte[] ciphertext = compressing.encrypt("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        ciphertext[3] = StoredCodec.ID;
+
+        // Then
+        assertThatThrownBy(() -> compressing.decrypt(ciphertext))
+                .isInstanceOf(GeneralSecurityException.class);
+    }
+
+    @Test
+    void decrypt_ShouldFail_WhenDecompressedPayloadExceedsLimit() throws GeneralSecurityException {
+        // Given
+        DeflateCodec deflate = new DeflateCodec();
+        PrimitiveHolder<Aead> holder = new PrimitiveHolder<>(keysetHandle, Aead.class);
+        SecurityService writer = new SecurityService(holder, new CryptoMetrics(meterRegistry),
+                new PayloadCompression(List.of(deflate), deflate, 0, Integer.MAX_VALUE), DecryptCache.disabled(), AlgorithmKeysets.none());
+        SecurityService reader = new SecurityService(holder, new CryptoMetrics(meterRegistry),
+                new PayloadCompression(List.of(deflate), null, 0, 64 * 1024), DecryptCache.disabled(), AlgorithmKeysets.none());
+        byte[] bomb = writer.encrypt(new byte[1024 * 1024]);
+
+        // When & Then
+        assertThat(bomb.length).isLessThan(4096);
+        assertThatThrownBy(() -> reader.decrypt(bomb))
+                .isInstanceOf(GeneralSecurityException.class)
+                .hasMessageContaining("decompress");
+    }
+
+    @Test
+    void decrypt_ShouldServeRepeatsFromCache_UntilKeysetChanges() throws GeneralSecurityException {
+        // Given
+        PrimitiveHolder<Aead> holder = new PrimitiveHolder<>(keysetHandle, Aead.class);
+        SecurityService caching = new SecurityService(holder, new CryptoMetrics(meterRegistry), PayloadCompression.disabled(),
+                new DecryptCache(100, 1024 * 1024, 4096, Duration.ofMinutes(5), true, meterRegistry), AlgorithmKeysets.none());
+        byte[] ciphertext = caching.encrypt("session-token".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        caching.decrypt(ciphertext);
+        byte[] cached = caching.decrypt(ciphertext);
+        holder.update(KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM));
+
+        // Then
+        assertThat(cached).isEqualTo("session-token".getBytes(StandardCharsets.UTF_8));
+        assertThat(meterRegistry.get("crypto.operation").tag("operation", "decrypt").timer().count()).isEqualTo(1);
+        // The old key is gone, so the cached plaintext must not be returned any more
+        assertThatThrownBy(() -> caching.decrypt(ciphertext)).isInstanceOf(GeneralSecurityException.class);
+    }
+
+    @Test
+    void decryptUncached_ShouldBypassCache() throws GeneralSecurityException {
+        // Given
+        PrimitiveHolder<Aead> holder = new PrimitiveHolder<>(keysetHandle, Aead.class);
+        SecurityService caching = new SecurityService(holder, new CryptoMetrics(meterRegistry), PayloadCompression.disabled(),
+                new DecryptCache(100, 1024 * 1024, 4096, Duration.ofMinutes(5), true, meterRegistry), AlgorithmKeysets.none());
+        byte[] ciphertext = caching.encrypt("bulk-value".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        caching.decryptUncached(ciphertext);
+        caching.decryptUncached(ciphertext);
+        caching.decrypt(ciphertext);
+
+        // Then
+        assertThat(meterRegistry.get("crypto.operation").tag("operation", "decrypt").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void decrypt_ShouldRouteToAlgorithmKeyset_ByKeyId() throws GeneralSecurityException {
+        // Given
+        AlgorithmKeysets algorithmKeysets = new AlgorithmKeysets(Map.of(
+                AeadAlgorithm.XCHACHA20_POLY1305, KeysetHandle.generateNew(PredefinedAeadParameters.XCHACHA20_POLY1305)));
+        SecurityService service = new SecurityService(new PrimitiveHolder<>(keysetHandle, Aead.class), new CryptoMetrics(meterRegistry),
+                PayloadCompression.disabled(), DecryptCache.disabled(), algorithmKeysets);
+        byte[] plaintext = "per-request algorithm".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        byte[] ciphertext = service.encrypt(service.keysetFor(AeadAlgorithm.XCHACHA20_POLY1305), plaintext);
+
+        // Then
+        assertThat(service.decrypt(ciphertext)).isEqualTo(plaintext);
+        assertThat(service.decrypt(service.encrypt(plaintext))).isEqualTo(plaintext);
+        // The default keyset alone cannot read it
+        assertThatThrownBy(() -> securityService.decrypt(ciphertext)).isInstanceOf(GeneralSecurityException.class);
+    }
+
+    @Test
+    void decrypt_ShouldFallBackToAlgorithmKeyset_WhenReloadedDefaultKeysetReusesKeyId() throws GeneralSecurityException {
+        // Given
+        KeysetHandle xchacha = KeysetHandle.generateNew(PredefinedAeadParameters.XCHACHA20_POLY1305);
+        AlgorithmKeysets algorithmKeysets = new AlgorithmKeysets(Map.of(AeadAlgorithm.XCHACHA20_POLY1305, xchacha));
+        PrimitiveHolder<Aead> holder = new PrimitiveHolder<>(keysetHandle, Aead.class);
+        SecurityService service = new SecurityService(holder, new CryptoMetrics(meterRegistry),
+                PayloadCompression.disabled(), DecryptCache.disabled(), algorithmKeysets);
+        byte[] plaintext = "per-request algorithm".getBytes(StandardCharsets.UTF_8);
+        byte[] ciphertext = service.encrypt(service.keysetFor(AeadAlgorithm.XCHACHA20_POLY1305), plaintext);
+        holder.update(KeysetHandle.newBuilder(keysetHandle)
+                .addEntry(KeysetHandle.generateEntryFromParameters(PredefinedAeadParameters.AES256_GCM)
+                        .withFixedId(xchacha.getPrimary().getId()))
+                .build());
+
+        // When
+        byte[] decrypted = service.decrypt(ciphertext);
+
+        // Then
+        assertThat(holder.snapshot().containsKeyId(Integer.toUnsignedLong(xchacha.getPrimary().getId()))).isTrue();
+        assertThat(decrypted).isEqualTo(plaintext);
+    }
+
+    @Test
+    void keysetFor_ShouldReturnDefaultKeyset_WhenItsPrimaryUsesTheAlgorithm() {
+        // When & Then
+        assertThat(securityService.keysetFor(AeadAlgorithm.AES256_GCM).keysetHandle()).isSameAs(keysetHandle);
+        assertThatThrownBy(() -> securityService.keysetFor(AeadAlgorithm.CHACHA20_POLY1305))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("CHACHA20_POLY1305");
+    }
+
+    @Test
+    void generateKey_ShouldUseRequestedAlgorithm() throws GeneralSecurityException, IOException {
+        // When
+        String key = securityService.generateKey(AeadAlgorithm.CHACHA20_POLY1305);
+
+        // Then
+        KeysetHandle handle = CleartextKeysetHandle.read(BinaryKeysetReader.withBytes(Base64.getDecoder().decode(key)));
+        assertThat(handle.getPrimary().getKey().getParameters()).isEqualTo(AeadAlgorithm.CHACHA20_POLY1305.parameters());
+    }
+
+    /**
+     * Identity codec with its own ID, to check that the codec byte is authenticated.
+     */
+    private static class StoredCodec implements CompressionCodec {
+
+        static final byte ID = 2;
+
+        @Override
+        public byte id() {
+            return ID;
+        }
+
+        @Override
+        public String name() {
+            return "stored";
+        }
+
+        @Override
+        public byte[] compress(byte[] data) {
+            return data;
+        }
+
+        @Override
+        public byte[] decompress(byte[] data, int maxSize) {
+            return data;
+        }
+    }
 }
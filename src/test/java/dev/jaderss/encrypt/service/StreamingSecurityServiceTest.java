@@ -0,0 +1,78 @@
+package dev.jaderss.encrypt.service;
+
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.StreamingAead;
+import com.google.crypto.tink.streamingaead.PredefinedStreamingAeadParameters;
+import com.google.crypto.tink.streamingaead.StreamingAeadConfig;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class StreamingSecurityServiceTest {
+
+    private StreamingSecurityService streamingSecurityService;
+
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        StreamingAeadConfig.register();
+        KeysetHandle keysetHandle = KeysetHandle.generateNew(PredefinedStreamingAeadParameters.AES256_GCM_HKDF_4KB);
+        streamingSecurityService = new StreamingSecurityService(new PrimitiveHolder<>(keysetHandle, StreamingAead.class));
+    }
+
+    @Test
+    void encryptDecrypt_ShouldRoundTripMultiSegmentPayload() throws Exception {
+        // Given
+        byte[] plaintext = new byte[1024 * 1024 + 17];
+        new Random(42).nextBytes(plaintext);
+        ByteArrayOutputStream ciphertext = new ByteArrayOutputStream();
+
+        // When
+        long written = streamingSecurityService.encrypt(new ByteArrayInputStream(plaintext), ciphertext);
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        long read = streamingSecurityService.decrypt(new ByteArrayInputStream(ciphertext.toByteArray()), decrypted);
+
+        // Then
+        assertThat(written).isEqualTo(plaintext.length);
+        assertThat(read).isEqualTo(plaintext.length);
+        assertThat(ciphertext.size()).isGreaterThan(plaintext.length);
+        assertThat(decrypted.toByteArray()).isEqualTo(plaintext);
+    }
+
+    @Test
+    void encryptDecrypt_ShouldHandleEmptyStream() throws Exception {
+        // Given
+        ByteArrayOutputStream ciphertext = new ByteArrayOutputStream();
+
+        // When
+        streamingSecurityService.encrypt(InputStream.nullInputStream(), ciphertext);
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        streamingSecurityService.decrypt(new ByteArrayInputStream(ciphertext.toByteArray()), decrypted);
+
+        // Then
+        assertThat(ciphertext.size()).isPositive();
+        assertThat(decrypted.size()).isZero();
+    }
+
+    @Test
+    void decrypt_ShouldThrowException_WhenCiphertextIsTampered() throws Exception {
+        // Given
+        byte[] plaintext = new byte[10_000];
+        ByteArrayOutputStream ciphertext = new ByteArrayOutputStream();
+        streamingSecurityService.encrypt(new ByteArrayInputStream(plaintext), ciphertext);
+        byte[] tampered = ciphertext.toByteArray();
+        tampered[tampered.length - 1] ^= 1;
+
+        // When & Then
+        assertThatThrownBy(() -> streamingSecurityService.decrypt(new ByteArrayInputStream(tampered), new ByteArrayOutputStream()))
+                .isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,97 @@
+package dev.jaderss.encrypt.service;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.InsecureSecretKeyAccess;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.TinkJsonProtoKeysetFormat;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TenantKeysetRegistryTest {
+
+    private static final byte[] PLAINTEXT = "Hello World!".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NO_AD = new byte[0];
+
+    @TempDir
+    Path tenantsDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TenantKeysetRegistry registry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AeadConfig.register();
+        writeKeyset("acme");
+        writeKeyset("globex");
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new TenantKeysetRegistry(tenantsDir, 100, meterRegistry);
+    }
+
+    @Test
+    void holder_ShouldLoadLazilyAndReuseCachedPrimitive() throws Exception {
+        // When
+        PrimitiveHolder<Aead> first = registry.holder("acme").orElseThrow();
+        PrimitiveHolder<Aead> second = registry.holder("acme").orElseThrow();
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "tenant.keysets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "tenant.keysets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void holder_ShouldIsolateTenants() throws Exception {
+        // Given
+        byte[] ciphertext = registry.holder("acme").orElseThrow().primitive().encrypt(PLAINTEXT, NO_AD);
+        Aead globex = registry.holder("globex").orElseThrow().primitive();
+
+        // When & Then
+        assertThatThrownBy(() -> globex.decrypt(ciphertext, NO_AD)).isInstanceOf(GeneralSecurityException.class);
+        assertThat(registry.holder("acme").orElseThrow().primitive().decrypt(ciphertext, NO_AD)).isEqualTo(PLAINTEXT);
+    }
+
+    @Test
+    void holder_ShouldReturnEmpty_WhenTenantHasNoKeysetFile() throws Exception {
+        // When
+        Optional<PrimitiveHolder<Aead>> holder = registry.holder("initech");
+
+        // Then
+        assertThat(holder).isEmpty();
+    }
+
+    @Test
+    void holder_ShouldRejectInvalidTenantIds() {
+        // When & Then
+        assertThatThrownBy(() -> registry.holder("../acme")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> registry.holder("")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> registry.holder(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void holder_ShouldThrowException_WhenKeysetFileIsCorrupt() throws Exception {
+        // Given
+        Files.writeString(tenantsDir.resolve("broken.json"), "{ not a keyset");
+
+        // When & Then
+        assertThatThrownBy(() -> registry.holder("broken")).isInstanceOf(GeneralSecurityException.class);
+    }
+
+    private void writeKeyset(String tenantId) throws Exception {
+        KeysetHandle keysetHandle = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+        Files.writeString(tenantsDir.resolve(tenantId + ".json"),
+                TinkJsonProtoKeysetFormat.serializeKeyset(keysetHandle, InsecureSecretKeyAccess.get()));
+    }
+}
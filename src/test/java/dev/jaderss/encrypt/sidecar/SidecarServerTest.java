@@ -0,0 +1,305 @@
+package dev.jaderss.encrypt.sidecar;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import dev.jaderss.encrypt.crypto.PrimitiveHolder;
+import dev.jaderss.encrypt.metrics.CryptoMetrics;
+import dev.jaderss.encrypt.service.SecurityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SidecarServerTest {
+
+    private static final int MAX_FRAME_SIZE = 64 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private SecurityService securityService;
+    private SidecarServer server;
+    private Path socketPath;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AeadConfig.register();
+        KeysetHandle keysetHandle = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+        securityService = new SecurityService(new PrimitiveHolder<>(keysetHandle, Aead.class), new CryptoMetrics(new SimpleMeterRegistry()));
+        socketPath = tempDir.resolve("encrypt.sock");
+        server = new SidecarServer(securityService,
+                List.of(new InetSocketAddress("127.0.0.1", 0), UnixDomainSocketAddress.of(socketPath)), MAX_FRAME_SIZE);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Test
+    void encryptDecrypt_ShouldRoundTripOverTcp() throws Exception {
+        try (SocketChannel channel = SocketChannel.open(tcpAddress())) {
+            // When
+            Response encrypted = call(channel, SidecarServer.OP_ENCRYPT, utf8("Hello World!"));
+            Response decrypted = call(channel, SidecarServer.OP_DECRYPT, encrypted.payload());
+
+            // Then
+            assertThat(encrypted.status()).isEqualTo(SidecarServer.STATUS_OK);
+            assertThat(securityService.decrypt(encrypted.payload())).isEqualTo(utf8("Hello World!"));
+            assertThat(decrypted.status()).isEqualTo(SidecarServer.STATUS_OK);
+            assertThat(decrypted.payload()).isEqualTo(utf8("Hello World!"));
+        }
+    }
+
+    @Test
+    void encryptDecrypt_ShouldRoundTripOverUnixDomainSocket() throws Exception {
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+
+            // When
+            Response encrypted = call(channel, SidecarServer.OP_ENCRYPT, utf8("Hello World!"));
+            Response decrypted = call(channel, SidecarServer.OP_DECRYPT, encrypted.payload());
+
+            // Then
+            assertThat(decrypted.payload()).isEqualTo(utf8("Hello World!"));
+        }
+    }
+
+    @Test
+    void pipelinedRequests_ShouldBeAnsweredInOrder() throws Exception {
+        try (SocketChannel channel = SocketChannel.open(tcpAddress())) {
+            // Given
+            int count = 200;
+            ByteBuffer requests = ByteBuffer.allocate(count * 64);
+            for (int i = 0; i < count; i++) {
+                putFrame(requests, SidecarServer.OP_ENCRYPT, utf8("value-" + i));
+            }
+
+            // When
+            requests.flip();
+            while (requests.hasRemaining()) {
+                channel.write(requests);
+            }
+
+            // Then
+            for (int i = 0; i < count; i++) {
+                Response response = read(channel);
+                assertThat(response.status()).isEqualTo(SidecarServer.STATUS_OK);
+                assertThat(securityService.decrypt(response.payload())).isEqualTo(utf8("value-" + i));
+            }
+        }
+    }
+
+    @Test
+    void largeFrame_ShouldGrowConnectionBuffers() throws Exception {
+        try (SocketChannel channel = SocketChannel.open(tcpAddress())) {
+            // Given
+            byte[] plaintext = new byte[MAX_FRAME_SIZE];
+
+            // When
+            Response encrypted = call(channel, SidecarServer.OP_ENCRYPT, plaintext);
+
+            // Then
+            assertThat(encrypted.status()).isEqualTo(SidecarServer.STATUS_OK);
+            assertThat(securityService.decrypt(encrypted.payload())).isEqualTo(plaintext);
+        }
+    }
+
+    @Test
+    void errors_ShouldBeReportedWithoutClosingConnection() throws Exception {
+        try (SocketChannel channel = SocketChannel.open(tcpAddress())) {
+            // When
+            Response badCiphertext = call(channel, SidecarServer.OP_DECRYPT, utf8("not a ciphertext"));
+            Response badOpcode = call(channel, (byte) 42, utf8("Hello World!"));
+            Response encrypted = call(channel, SidecarServer.OP_ENCRYPT, utf8("Hello World!"));
+
+            // Then
+            assertThat(badCiphertext.status()).isEqualTo(SidecarServer.STATUS_CRYPTO_ERROR);
+            assertThat(badOpcode.status()).isEqualTo(SidecarServer.STATUS_BAD_REQUEST);
+            assertThat(encrypted.status()).isEqualTo(SidecarServer.STATUS_OK);
+        }
+    }
+
+    @Test
+    void runtimeFailure_ShouldAnswerBadRequestAndKeepServing() throws Exception {
+        // Given
+        SecurityService failing = mock(SecurityService.class);
+        when(failing.decrypt(any(byte[].class))).thenThrow(new IllegalArgumentException("Malformed payload"));
+        when(failing.encrypt(any(byte[].class))).thenReturn(utf8("ciphertext"));
+        try (SidecarServer failingServer = new SidecarServer(failing, List.of(new InetSocketAddress("127.0.0.1", 0)), MAX_FRAME_SIZE)) {
+            failingServer.start();
+            try (SocketChannel channel = SocketChannel.open(failingServer.localAddresses().get(0))) {
+                // When
+                Response failed = call(channel, SidecarServer.OP_DECRYPT, utf8("payload"));
+                Response next = call(channel, SidecarServer.OP_ENCRYPT, utf8("payload"));
+
+                // Then
+                assertThat(failed.status()).isEqualTo(SidecarServer.STATUS_BAD_REQUEST);
+                assertThat(next.status()).isEqualTo(SidecarServer.STATUS_OK);
+                assertThat(next.payload()).isEqualTo(utf8("ciphertext"));
+            }
+        }
+    }
+
+    @Test
+    void slowFrame_ShouldNotStallOtherConnections() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        SecurityService slow = mock(SecurityService.class);
+        when(slow.encrypt(any(byte[].class))).thenAnswer(invocation -> {
+            byte[] payload = invocation.getArgument(0);
+            if (payload.length > 1) {
+                release.await(10, TimeUnit.SECONDS);
+            }
+            return payload;
+        });
+        try (SidecarServer slowServer = new SidecarServer(slow, List.of(new InetSocketAddress("127.0.0.1", 0)), MAX_FRAME_SIZE, 2, 16);
+             SocketChannel first = SocketChannel.open()) {
+            slowServer.start();
+            first.connect(slowServer.localAddresses().get(0));
+            ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + 3);
+            putFrame(frame, SidecarServer.OP_ENCRYPT, utf8("xx"));
+            first.write(frame.flip());
+
+            // When
+            Response fast;
+            try (SocketChannel second = SocketChannel.open(slowServer.localAddresses().get(0))) {
+                fast = call(second, SidecarServer.OP_ENCRYPT, utf8("y"));
+            }
+            release.countDown();
+
+            // Then
+            assertThat(fast.status()).isEqualTo(SidecarServer.STATUS_OK);
+            assertThat(read(first).payload()).isEqualTo(utf8("xx"));
+        }
+    }
+
+    @Test
+    void oversizedFrame_ShouldCloseConnection() throws Exception {
+        try (SocketChannel channel = SocketChannel.open(tcpAddress())) {
+            // When
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, MAX_FRAME_SIZE + 2));
+
+            // Then
+            assertThatThrownBy(() -> read(channel)).isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void close_ShouldRemoveSocketFile() throws Exception {
+        // When
+        server.close();
+
+        // Then
+        assertThat(Files.exists(socketPath)).isFalse();
+    }
+
+    @Test
+    void start_ShouldReplaceStaleSocketFile() throws Exception {
+        // Given
+        server.close();
+        Path stale = tempDir.resolve("stale.sock");
+        try (ServerSocketChannel previous = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            previous.bind(UnixDomainSocketAddress.of(stale));
+        }
+        server = new SidecarServer(securityService, List.of(UnixDomainSocketAddress.of(stale)), MAX_FRAME_SIZE);
+
+        // When
+        server.start();
+
+        // Then
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(stale));
+            assertThat(call(channel, SidecarServer.OP_ENCRYPT, utf8("Hello World!")).status()).isEqualTo(SidecarServer.STATUS_OK);
+        }
+    }
+
+    @Test
+    void start_ShouldFail_WhenSocketPathIsNotASocket() throws Exception {
+        // Given
+        Path file = Files.writeString(tempDir.resolve("data.txt"), "keep me");
+        SidecarServer misconfigured = new SidecarServer(securityService, List.of(UnixDomainSocketAddress.of(file)), MAX_FRAME_SIZE);
+
+        // When & Then
+        assertThatThrownBy(misconfigured::start).isInstanceOf(IOException.class).hasMessageContaining("not a socket");
+        assertThat(Files.readString(file)).isEqualTo("keep me");
+    }
+
+    @Test
+    void start_ShouldFail_WhenSocketIsInUse() {
+        // Given
+        SidecarServer second = new SidecarServer(securityService, List.of(UnixDomainSocketAddress.of(socketPath)), MAX_FRAME_SIZE);
+
+        // When & Then
+        assertThatThrownBy(second::start).isInstanceOf(IOException.class).hasMessageContaining("in use");
+        assertThat(Files.exists(socketPath)).isTrue();
+    }
+
+    private SocketAddress tcpAddress() {
+        return server.localAddresses().get(0);
+    }
+
+    private static Response call(SocketChannel channel, byte opcode, byte[] payload) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + 1 + payload.length);
+        putFrame(frame, opcode, payload);
+        frame.flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+        return read(channel);
+    }
+
+    private static void putFrame(ByteBuffer buffer, byte opcode, byte[] payload) {
+        buffer.putInt(1 + payload.length).put(opcode).put(payload);
+    }
+
+    private static Response read(SocketChannel channel) throws IOException {
+        ByteBuffer header = readFully(channel, Integer.BYTES + 1);
+        int length = header.getInt();
+        byte status = header.get();
+        byte[] payload = new byte[length - 1];
+        readFully(channel, payload.length).get(payload);
+        return new Response(status, payload);
+    }
+
+    private static ByteBuffer readFully(SocketChannel channel, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Connection closed");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Response(byte status, byte[] payload) {
+    }
+}